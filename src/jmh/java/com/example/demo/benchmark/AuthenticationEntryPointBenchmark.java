@@ -0,0 +1,50 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.CustomAuthenticationEntryPoint;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the 401 body written for every unauthenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationEntryPointBenchmark {
+
+    private CustomAuthenticationEntryPoint entryPoint;
+    private MockHttpServletRequest request;
+    private InsufficientAuthenticationException exception;
+
+    @Setup
+    public void setup() {
+        entryPoint = new CustomAuthenticationEntryPoint();
+        request = new MockHttpServletRequest("GET", "/api/users/profile");
+        exception = new InsufficientAuthenticationException("Full authentication is required");
+    }
+
+    @Benchmark
+    public int commence() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        entryPoint.commence(request, response, exception);
+        return response.getContentLength();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Profile;
+import com.example.demo.entity.User;
+import com.example.demo.enums.Role;
+import com.example.demo.security.JwtService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Builds application components outside the Spring context, wired with the same
+ * values as application.properties.
+ */
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "VGhpc0lzQVZlcnlTZWN1cmVKV1RTZWNyZXRLZXkxMjM0";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService(int verifiedCacheSize) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", verifiedCacheSize);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+
+    static User user() {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .name("Bench User")
+                .email("bench@example.com")
+                .password("unused")
+                .role(Role.USER)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    static Profile profile(User user) {
+        return Profile.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .username("bench_user")
+                .bio("Benchmarking the profile mapping path")
+                .profilePhotoUrl("https://example.com/storage/v1/object/public/profile-photos/bench.jpg")
+                .isComplete(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.comment.CommentPath;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the first page of a comment thread: one range scan on the materialized path,
+ * against loading the same comments parent by parent through parent_id, the way an
+ * adjacency list without paths has to. Seeds its own post under an existing user and
+ * removes it afterwards; connection settings come from BENCH_DB_URL, BENCH_DB_USER and
+ * BENCH_DB_PASSWORD. The "queries" counter reports round trips per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentThreadBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int ROOTS = 20;
+    private static final int WIDE_REPLIES = 500;
+    // Only for the per-parent loader; the application never looks comments up by parent
+    private static final String PARENT_INDEX = "bench_comment_parent_created";
+
+    private static final String SELECT = """
+            SELECT c.id, c.content, pr.username, c.created_at
+            FROM comments c
+            JOIN users u ON u.id = c.user_id
+            LEFT JOIN profile pr ON pr.user_id = u.id
+            """;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Queries {
+        public long queries;
+    }
+
+    // deep: every root has a single chain of replies down to the maximum depth;
+    // wide: every root has WIDE_REPLIES direct replies
+    @Param({"deep", "wide"})
+    private String shape;
+
+    private Connection connection;
+    private UUID postId;
+    private PreparedStatement pathPage;
+    private PreparedStatement rootsPage;
+    private PreparedStatement childrenPage;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCH_DB_URL", "jdbc:postgresql://localhost:5432/social_media_db"),
+                env("BENCH_DB_USER", "postgres"),
+                env("BENCH_DB_PASSWORD", ""));
+
+        UUID userId;
+        try (PreparedStatement ps = connection.prepareStatement("SELECT id FROM users LIMIT 1");
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                throw new IllegalStateException("No users found; seed the database with the \"seed\" profile first");
+            }
+            userId = rs.getObject(1, UUID.class);
+        }
+
+        postId = UUID.randomUUID();
+        seed(userId);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX IF NOT EXISTS " + PARENT_INDEX + " ON comments(parent_id, created_at)");
+            statement.execute("ANALYZE comments");
+        }
+
+        pathPage = connection.prepareStatement(SELECT
+                + "WHERE c.post_id = ? AND c.path > '' AND c.depth <= ? ORDER BY c.path LIMIT ?");
+        pathPage.setObject(1, postId);
+        pathPage.setInt(2, CommentPath.MAX_DEPTH);
+        pathPage.setInt(3, PAGE_SIZE);
+
+        rootsPage = connection.prepareStatement(SELECT
+                + "WHERE c.post_id = ? AND c.parent_id IS NULL ORDER BY c.created_at DESC LIMIT ?");
+        rootsPage.setObject(1, postId);
+        childrenPage = connection.prepareStatement(SELECT
+                + "WHERE c.parent_id = ? ORDER BY c.created_at LIMIT ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP INDEX IF EXISTS " + PARENT_INDEX);
+        }
+        // Comments go with the post through the cascading foreign key
+        try (PreparedStatement ps = connection.prepareStatement("DELETE FROM posts WHERE id = ?")) {
+            ps.setObject(1, postId);
+            ps.executeUpdate();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int materializedPath(Queries counters, Blackhole bh) throws SQLException {
+        counters.queries++;
+        return drain(pathPage, new ArrayList<>(), bh);
+    }
+
+    @Benchmark
+    public int perParent(Queries counters, Blackhole bh) throws SQLException {
+        // Depth-first in thread order until the page is full, as a recursive loader would
+        List<UUID> roots = new ArrayList<>();
+        rootsPage.setInt(2, PAGE_SIZE);
+        counters.queries++;
+        int loaded = drain(rootsPage, roots, bh);
+        for (UUID root : roots) {
+            if (loaded >= PAGE_SIZE) {
+                break;
+            }
+            loaded = loadChildren(root, loaded, counters, bh);
+        }
+        return loaded;
+    }
+
+    private int loadChildren(UUID parentId, int loaded, Queries counters, Blackhole bh) throws SQLException {
+        List<UUID> children = new ArrayList<>();
+        childrenPage.setObject(1, parentId);
+        childrenPage.setInt(2, PAGE_SIZE - loaded);
+        counters.queries++;
+        loaded += drain(childrenPage, children, bh);
+        for (UUID child : children) {
+            if (loaded >= PAGE_SIZE) {
+                break;
+            }
+            loaded = loadChildren(child, loaded, counters, bh);
+        }
+        return loaded;
+    }
+
+    private static int drain(PreparedStatement statement, List<UUID> ids, Blackhole bh) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getObject(1, UUID.class));
+                bh.consume(rs.getString(2));
+                bh.consume(rs.getString(3));
+                bh.consume(rs.getTimestamp(4));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private void seed(UUID userId) throws SQLException {
+        boolean deep = shape.equals("deep");
+        int total = deep ? ROOTS * (CommentPath.MAX_DEPTH + 1) : ROOTS * (WIDE_REPLIES + 1);
+        LocalDateTime now = LocalDateTime.now();
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement post = connection.prepareStatement("""
+                INSERT INTO posts (id, user_id, content, likes_count, comments_count, root_comment_seq, created_at, updated_at)
+                VALUES (?, ?, 'comment thread benchmark', 0, ?, ?, ?, ?)
+                """);
+             PreparedStatement comment = connection.prepareStatement("""
+                INSERT INTO comments (id, post_id, user_id, parent_id, path, depth, content,
+                                      reply_count, last_reply_seq, deleted, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?)
+                """)) {
+            post.setObject(1, postId);
+            post.setObject(2, userId);
+            post.setInt(3, total);
+            post.setLong(4, ROOTS);
+            post.setTimestamp(5, Timestamp.valueOf(now));
+            post.setTimestamp(6, Timestamp.valueOf(now));
+            post.executeUpdate();
+
+            // Creation times increase in insertion order, matching the sequences the paths encode
+            long tick = 0;
+            for (int r = 1; r <= ROOTS; r++) {
+                UUID rootId = UUID.randomUUID();
+                String rootPath = CommentPath.root(r);
+                int rootReplies = deep ? 1 : WIDE_REPLIES;
+                addComment(comment, rootId, userId, null, rootPath, rootReplies, now.plusNanos(++tick * 1000));
+
+                if (deep) {
+                    UUID parentId = rootId;
+                    String parentPath = rootPath;
+                    for (int d = 1; d <= CommentPath.MAX_DEPTH; d++) {
+                        UUID id = UUID.randomUUID();
+                        String path = CommentPath.child(parentPath, 1);
+                        int replies = d < CommentPath.MAX_DEPTH ? 1 : 0;
+                        addComment(comment, id, userId, parentId, path, replies, now.plusNanos(++tick * 1000));
+                        parentId = id;
+                        parentPath = path;
+                    }
+                } else {
+                    for (int s = 1; s <= WIDE_REPLIES; s++) {
+                        addComment(comment, UUID.randomUUID(), userId, rootId, CommentPath.child(rootPath, s), 0,
+                                now.plusNanos(++tick * 1000));
+                    }
+                }
+            }
+            comment.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private void addComment(PreparedStatement ps, UUID id, UUID userId, UUID parentId, String path,
+                            int replies, LocalDateTime createdAt) throws SQLException {
+        ps.setObject(1, id);
+        ps.setObject(2, postId);
+        ps.setObject(3, userId);
+        ps.setObject(4, parentId, Types.OTHER);
+        ps.setString(5, path);
+        ps.setInt(6, CommentPath.depth(path));
+        ps.setString(7, "comment " + path);
+        ps.setInt(8, replies);
+        ps.setLong(9, replies);
+        ps.setTimestamp(10, Timestamp.valueOf(createdAt));
+        ps.setTimestamp(11, Timestamp.valueOf(createdAt));
+        ps.addBatch();
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.feed.FeedEntry;
+import com.example.demo.feed.FeedInbox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hybrid feed cost on an in-memory follow graph whose follower counts follow a Zipf
+ * distribution, so a handful of accounts hold most of the edges. {@code publish} is the
+ * fan-out done per new post, {@code readFeed} a first page: inbox read plus the merge of
+ * every followed celebrity's timeline. A threshold of Integer.MAX_VALUE is pure push.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class FeedBenchmark {
+
+    private static final int USERS = 20_000;
+    private static final int FOLLOWS_PER_USER = 50;
+    private static final int INBOX_CAPACITY = 100;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100", "1000", "2147483647"})
+    private int celebrityThreshold;
+
+    @Param({"1.0", "1.2"})
+    private double zipfExponent;
+
+    private int[][] followers;
+    private int[][] celebritiesFollowed;
+    private FeedInbox[] inboxes;
+    // Stand-in for the posts table, only consulted for celebrities
+    private FeedInbox[] authorTimelines;
+    private final AtomicLong clock = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        double[] cumulative = new double[USERS];
+        double total = 0;
+        for (int rank = 0; rank < USERS; rank++) {
+            total += 1.0 / Math.pow(rank + 1, zipfExponent);
+            cumulative[rank] = total;
+        }
+
+        int[][] following = new int[USERS][];
+        int[] followerCounts = new int[USERS];
+        for (int user = 0; user < USERS; user++) {
+            LinkedHashSet<Integer> targets = new LinkedHashSet<>();
+            while (targets.size() < FOLLOWS_PER_USER) {
+                int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                int target = index >= 0 ? index : -index - 1;
+                if (target != user) {
+                    targets.add(target);
+                }
+            }
+            following[user] = targets.stream().mapToInt(Integer::intValue).toArray();
+            for (int target : following[user]) {
+                followerCounts[target]++;
+            }
+        }
+
+        followers = new int[USERS][];
+        int[] filled = new int[USERS];
+        for (int user = 0; user < USERS; user++) {
+            followers[user] = new int[followerCounts[user]];
+        }
+        for (int user = 0; user < USERS; user++) {
+            for (int target : following[user]) {
+                followers[target][filled[target]++] = user;
+            }
+        }
+
+        celebritiesFollowed = new int[USERS][];
+        for (int user = 0; user < USERS; user++) {
+            celebritiesFollowed[user] = Arrays.stream(following[user])
+                    .filter(target -> followerCounts[target] > celebrityThreshold)
+                    .toArray();
+        }
+
+        inboxes = new FeedInbox[USERS];
+        authorTimelines = new FeedInbox[USERS];
+        for (int user = 0; user < USERS; user++) {
+            inboxes[user] = new FeedInbox(INBOX_CAPACITY);
+            authorTimelines[user] = new FeedInbox(PAGE_SIZE + 1);
+        }
+        // Fill every feed before measuring reads
+        for (int i = 0; i < USERS * 10; i++) {
+            publish(random.nextInt(USERS));
+        }
+    }
+
+    @Benchmark
+    public void publish() {
+        publish(ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    @Benchmark
+    public void readFeed(Blackhole bh) {
+        int user = ThreadLocalRandom.current().nextInt(USERS);
+        List<FeedEntry> candidates = new ArrayList<>(inboxes[user].page(null, PAGE_SIZE + 1).entries());
+        for (int celebrity : celebritiesFollowed[user]) {
+            candidates.addAll(authorTimelines[celebrity].page(null, PAGE_SIZE + 1).entries());
+        }
+        candidates.sort(FeedEntry.NEWEST_FIRST);
+        bh.consume(candidates.subList(0, Math.min(PAGE_SIZE, candidates.size())));
+    }
+
+    private void publish(int author) {
+        FeedEntry entry = new FeedEntry(
+                UUID.randomUUID(), LocalDateTime.of(2024, 1, 1, 0, 0).plusNanos(clock.incrementAndGet() * 1_000));
+        inboxes[author].add(entry);
+        if (followers[author].length > celebrityThreshold) {
+            authorTimelines[author].add(entry);
+            return;
+        }
+        for (int follower : followers[author]) {
+            inboxes[follower].add(entry);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.follow.FollowGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follow graph queries on 1M users and 10M edges, with follow targets drawn from a Zipf
+ * distribution so the largest accounts have hundreds of thousands of followers.
+ * Setup builds the graph once per fork and reports its size; -prof gc shows that reads
+ * allocate only the returned list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+public class FollowGraphBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int EDGES = 10_000_000;
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    private UUID[] users;
+    private FollowGraph graph;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        users = new UUID[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+
+        double[] cumulative = new double[USERS];
+        double total = 0;
+        for (int rank = 0; rank < USERS; rank++) {
+            total += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = total;
+        }
+
+        FollowGraph.Builder builder = new FollowGraph.Builder(USERS);
+        for (int i = 0; i < EDGES; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            int followee = index >= 0 ? index : -index - 1;
+            int follower = random.nextInt(USERS);
+            if (follower != followee) {
+                builder.addEdge(users[follower], users[followee]);
+            }
+        }
+        graph = builder.build();
+        System.out.printf("%nFollow graph: %d users, %d edges, top account has %d followers%n",
+                graph.userCount(), graph.edgeCount(), graph.followersCount(users[0]));
+    }
+
+    @Benchmark
+    public boolean isFollowing() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return graph.isFollowing(users[random.nextInt(USERS)], users[random.nextInt(100)]);
+    }
+
+    @Benchmark
+    public boolean isMutual() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return graph.isMutual(users[random.nextInt(USERS)], users[random.nextInt(USERS)]);
+    }
+
+    @Benchmark
+    public int followersCount() {
+        return graph.followersCount(users[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+
+    // A deep page of the largest account's followers costs the same as the first
+    @Benchmark
+    public List<UUID> followersPageOfCelebrity() {
+        return graph.followers(users[0], ThreadLocalRandom.current().nextInt(100_000), 20);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<UUID> suggestions() {
+        return graph.suggestions(users[ThreadLocalRandom.current().nextInt(USERS)], 10, 20_000);
+    }
+
+    // Follow then unfollow, so the graph is unchanged between invocations
+    @Benchmark
+    public boolean followAndUnfollowCelebrity() {
+        UUID follower = users[ThreadLocalRandom.current().nextInt(USERS)];
+        boolean added = graph.follow(follower, users[0]);
+        if (added) {
+            graph.unfollow(follower, users[0]);
+        }
+        return added;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.JwtService;
+import com.example.demo.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and validation, with the verified-token cache warm (hit) and disabled (miss).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService cachingService;
+    private JwtService uncachedService;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cachingService = BenchmarkFixtures.jwtService(10_000);
+        uncachedService = BenchmarkFixtures.jwtService(0);
+
+        principal = new UserPrincipal(BenchmarkFixtures.user());
+        token = cachingService.generateToken(principal);
+        cachingService.isTokenValid(token, principal);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingService.generateToken(principal);
+    }
+
+    @Benchmark
+    public boolean validateCacheHit() {
+        return cachingService.isTokenValid(token, principal);
+    }
+
+    @Benchmark
+    public boolean validateCacheMiss() {
+        return uncachedService.isTokenValid(token, principal);
+    }
+
+    @Benchmark
+    public UserPrincipal extractPrincipalCacheHit() {
+        return cachingService.extractPrincipal(token);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.ProfileDTO;
+import com.example.demo.dto.ProfileRequest;
+import com.example.demo.dto.SignupRequest;
+import com.example.demo.dto.UserDTO;
+import com.example.demo.entity.Profile;
+import com.example.demo.entity.User;
+import com.example.demo.mapper.ProfileMapper;
+import com.example.demo.mapper.ProfileMapperImpl;
+import com.example.demo.mapper.UserMapper;
+import com.example.demo.mapper.UserMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated MapStruct mappers against the reflective ModelMapper configuration they replaced
+ * (STRICT matching, skip nulls).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+    private ProfileMapper profileMapper;
+
+    private User user;
+    private Profile profile;
+    private SignupRequest signupRequest;
+    private ProfileRequest profileRequest;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setSkipNullEnabled(true);
+        userMapper = new UserMapperImpl();
+        profileMapper = new ProfileMapperImpl();
+
+        user = BenchmarkFixtures.user();
+        profile = BenchmarkFixtures.profile(user);
+        signupRequest = new SignupRequest("Bench User", "bench@example.com", "password123");
+        profileRequest = new ProfileRequest("bench_user", "Benchmarking the profile mapping path", null);
+    }
+
+    @Benchmark
+    public UserDTO userToDtoModelMapper() {
+        return modelMapper.map(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public UserDTO userToDtoMapStruct() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User signupToUserModelMapper() {
+        return modelMapper.map(signupRequest, User.class);
+    }
+
+    @Benchmark
+    public User signupToUserMapStruct() {
+        return userMapper.toEntity(signupRequest);
+    }
+
+    @Benchmark
+    public ProfileDTO profileToDtoModelMapper() {
+        return modelMapper.map(profile, ProfileDTO.class);
+    }
+
+    @Benchmark
+    public ProfileDTO profileToDtoMapStruct() {
+        return profileMapper.toDto(profile);
+    }
+
+    @Benchmark
+    public Profile requestToProfileModelMapper() {
+        return modelMapper.map(profileRequest, Profile.class);
+    }
+
+    @Benchmark
+    public Profile requestToProfileMapStruct() {
+        return profileMapper.toEntity(profileRequest);
+    }
+}
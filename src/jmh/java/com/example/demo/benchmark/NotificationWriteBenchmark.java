@@ -0,0 +1,190 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.enums.NotificationType;
+import com.example.demo.notification.NotificationBatch;
+import com.example.demo.notification.NotificationEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.SqlParameterValue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification write throughput in events per second: one upsert per event in its own
+ * transaction, as writing on the request path would do, against the queue's coalesced
+ * multi-row upserts in one transaction. Recipients are existing users drawn from a Zipf
+ * distribution, so a few popular accounts receive most of the likes. Subjects are random
+ * ids unique to the run, which is how the teardown finds and removes the rows; connection
+ * settings come from BENCH_DB_URL, BENCH_DB_USER and BENCH_DB_PASSWORD.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NotificationWriteBenchmark {
+
+    private static final int EVENTS = 5_000;
+    private static final int SUBJECTS = 2_000;
+    private static final int MAX_ROWS_PER_STATEMENT = 1_000;
+    private static final String SINGLE_UPSERT = NotificationBatch.upsertSql(1);
+
+    private Connection connection;
+    private UUID[] users;
+    private UUID[] subjects;
+    private double[] cumulative;
+    private List<NotificationEvent> events;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCH_DB_URL", "jdbc:postgresql://localhost:5432/social_media_db"),
+                env("BENCH_DB_USER", "postgres"),
+                env("BENCH_DB_PASSWORD", ""));
+
+        List<UUID> ids = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement("SELECT id FROM users LIMIT 10000");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getObject(1, UUID.class));
+            }
+        }
+        if (ids.size() < 2) {
+            throw new IllegalStateException("Too few users; seed the database with the \"seed\" profile first");
+        }
+        users = ids.toArray(UUID[]::new);
+
+        cumulative = new double[users.length];
+        double total = 0;
+        for (int rank = 0; rank < users.length; rank++) {
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+        subjects = new UUID[SUBJECTS];
+        for (int i = 0; i < SUBJECTS; i++) {
+            subjects[i] = UUID.randomUUID();
+        }
+
+        // Normally created by NotificationQueue at startup; the upsert's ON CONFLICT needs it
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE UNIQUE INDEX IF NOT EXISTS uk_notification_unread_group
+                    ON notifications (recipient_id, type, subject_id) WHERE NOT is_read
+                    """);
+        }
+    }
+
+    // A fresh run of likes each iteration; subject i always belongs to the same recipient
+    @Setup(Level.Iteration)
+    public void nextEvents() {
+        events = new ArrayList<>(EVENTS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < EVENTS; i++) {
+            int found = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+            int recipient = found >= 0 ? found : -found - 1;
+            UUID subject = subjects[(recipient * 7 + random.nextInt(7)) % SUBJECTS];
+            UUID actor = users[random.nextInt(users.length)];
+            events.add(new NotificationEvent(NotificationType.LIKE, actor, users[recipient], subject, subject, null,
+                    now.plusNanos(i * 1000L)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("DELETE FROM notifications WHERE subject_id = ANY(?)")) {
+            ps.setArray(1, connection.createArrayOf("uuid", subjects));
+            ps.executeUpdate();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int perEvent() throws SQLException {
+        int rows = 0;
+        try (PreparedStatement ps = connection.prepareStatement(SINGLE_UPSERT)) {
+            for (NotificationEvent event : events) {
+                List<NotificationBatch.Group> group = NotificationBatch.coalesce(List.of(event));
+                if (!group.isEmpty()) {
+                    rows += execute(ps, NotificationBatch.parameters(group));
+                }
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int coalescedBatch() throws SQLException {
+        List<NotificationBatch.Group> groups = NotificationBatch.coalesce(events);
+        int rows = 0;
+        connection.setAutoCommit(false);
+        try {
+            for (int from = 0; from < groups.size(); from += MAX_ROWS_PER_STATEMENT) {
+                List<NotificationBatch.Group> chunk =
+                        groups.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, groups.size()));
+                try (PreparedStatement ps = connection.prepareStatement(NotificationBatch.upsertSql(chunk.size()))) {
+                    rows += execute(ps, NotificationBatch.parameters(chunk));
+                }
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return rows;
+    }
+
+    // Coalescing alone, to show it is not where the batch spends its time
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public List<NotificationBatch.Group> coalesceOnly() {
+        return NotificationBatch.coalesce(events);
+    }
+
+    private static int execute(PreparedStatement ps, Object[] parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] instanceof SqlParameterValue typed) {
+                ps.setObject(i + 1, typed.getValue(), typed.getSqlType());
+            } else {
+                ps.setObject(i + 1, parameters[i]);
+            }
+        }
+        int rows = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
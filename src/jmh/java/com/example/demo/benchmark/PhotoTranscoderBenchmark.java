@@ -0,0 +1,90 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.PhotoTranscoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Photos transcoded per second at typical phone-camera and screenshot sizes.
+ * Run with -t 1 and -t N to see how throughput scales with the transcode pool size;
+ * -prof gc shows the per-job allocation that the subsampled decode keeps bounded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class PhotoTranscoderBenchmark {
+
+    @Param({"4032x3024:jpg", "1080x1920:png", "800x800:jpg"})
+    private String source;
+
+    private PhotoTranscoder transcoder;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        transcoder = new PhotoTranscoder(40_000_000L, 0.85f);
+
+        String[] spec = source.split("[x:]");
+        BufferedImage image = syntheticPhoto(Integer.parseInt(spec[0]), Integer.parseInt(spec[1]));
+        file = Files.createTempFile("transcode-bench-", "." + spec[2]);
+        ImageIO.write(image, spec[2], file.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Map<PhotoTranscoder.Variant, byte[]> transcode() {
+        return transcoder.transcode(file);
+    }
+
+    @Benchmark
+    public PhotoTranscoder.ImageInfo probe() {
+        return transcoder.probe(file);
+    }
+
+    // Gradient plus noise, so the encoder sees something closer to a photo than a flat fill
+    private static BufferedImage syntheticPhoto(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(30, 90, 160), width, height, new Color(220, 180, 90)));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+
+        Random random = new Random(42);
+        for (int i = 0; i < width * height / 20; i++) {
+            image.setRGB(random.nextInt(width), random.nextInt(height), random.nextInt(0xFFFFFF));
+        }
+        return image;
+    }
+}
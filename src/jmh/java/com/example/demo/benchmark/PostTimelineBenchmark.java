@@ -0,0 +1,136 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page latency of OFFSET against keyset pagination on a user timeline, at increasing depth.
+ * Runs the SQL Hibernate generates for PostRepository against a database seeded by
+ * TimelineSeeder (the "seed" profile), using the seeded user with the most posts.
+ * Connection settings come from BENCH_DB_URL, BENCH_DB_USER and BENCH_DB_PASSWORD.
+ * Keyset latency should stay flat as depth grows; OFFSET grows linearly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostTimelineBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String SELECT = """
+            SELECT p.id, p.content, p.image_url, u.id, pr.username, pr.profile_photo_small_url,
+                   p.likes_count, p.comments_count, p.created_at, p.updated_at
+            FROM posts p
+            JOIN users u ON u.id = p.user_id
+            LEFT JOIN profile pr ON pr.user_id = u.id
+            """;
+
+    @Param({"0", "1000", "10000", "100000"})
+    private int depth;
+
+    private Connection connection;
+    private PreparedStatement offsetPage;
+    private PreparedStatement keysetPage;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCH_DB_URL", "jdbc:postgresql://localhost:5432/social_media_db"),
+                env("BENCH_DB_USER", "postgres"),
+                env("BENCH_DB_PASSWORD", ""));
+
+        UUID userId;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT user_id FROM posts GROUP BY user_id ORDER BY count(*) DESC LIMIT 1");
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                throw new IllegalStateException("No posts found; seed the database with the \"seed\" profile first");
+            }
+            userId = rs.getObject(1, UUID.class);
+        }
+
+        offsetPage = connection.prepareStatement(SELECT
+                + "WHERE u.id = ? ORDER BY p.created_at DESC, p.id DESC OFFSET ? LIMIT ?");
+        offsetPage.setObject(1, userId);
+        offsetPage.setInt(2, depth);
+        offsetPage.setInt(3, PAGE_SIZE + 1);
+
+        keysetPage = connection.prepareStatement(SELECT
+                + "WHERE u.id = ? AND (p.created_at, p.id) < (?, ?) ORDER BY p.created_at DESC, p.id DESC LIMIT ?");
+        keysetPage.setObject(1, userId);
+        keysetPage.setInt(4, PAGE_SIZE + 1);
+
+        // The cursor a client would hold after paging down to this depth
+        if (depth == 0) {
+            keysetPage.setTimestamp(2, Timestamp.valueOf("9999-12-31 00:00:00"));
+            keysetPage.setObject(3, new UUID(-1L, -1L));
+        } else {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT created_at, id FROM posts WHERE user_id = ? ORDER BY created_at DESC, id DESC OFFSET ? LIMIT 1")) {
+                ps.setObject(1, userId);
+                ps.setInt(2, depth - 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new IllegalStateException("Seeded timeline is shorter than " + depth + " posts");
+                    }
+                    keysetPage.setTimestamp(2, rs.getTimestamp(1));
+                    keysetPage.setObject(3, rs.getObject(2, UUID.class));
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void offset(Blackhole bh) throws SQLException {
+        drain(offsetPage, bh);
+    }
+
+    @Benchmark
+    public void keyset(Blackhole bh) throws SQLException {
+        drain(keysetPage, bh);
+    }
+
+    private static void drain(PreparedStatement statement, Blackhole bh) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getObject(1));
+                bh.consume(rs.getString(2));
+                bh.consume(rs.getTimestamp(9));
+            }
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
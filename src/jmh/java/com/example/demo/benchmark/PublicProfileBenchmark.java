@@ -0,0 +1,114 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The profiles behind one screen of avatars: a query per username, as a client calling
+ * GET /api/users/{username} for each would cause, against the single
+ * {@code username = ANY(?)} query behind GET /api/users/profiles. Usernames are taken
+ * from the existing profiles. Connection settings come from BENCH_DB_URL, BENCH_DB_USER
+ * and BENCH_DB_PASSWORD.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicProfileBenchmark {
+
+    private static final String SELECT =
+            "SELECT user_id, username, bio, profile_photo_url, profile_photo_small_url FROM profile ";
+
+    @Param({"10", "50", "100"})
+    private int batch;
+
+    private Connection connection;
+    private String[] usernames;
+    private PreparedStatement single;
+    private PreparedStatement batched;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCH_DB_URL", "jdbc:postgresql://localhost:5432/social_media_db"),
+                env("BENCH_DB_USER", "postgres"),
+                env("BENCH_DB_PASSWORD", ""));
+
+        List<String> found = new ArrayList<>(batch);
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT username FROM profile WHERE username IS NOT NULL ORDER BY random() LIMIT ?")) {
+            ps.setInt(1, batch);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    found.add(rs.getString(1));
+                }
+            }
+        }
+        if (found.size() < batch) {
+            throw new IllegalStateException("Need at least " + batch + " profiles; seed the database with the \"seed\" profile first");
+        }
+        usernames = found.toArray(String[]::new);
+
+        single = connection.prepareStatement(SELECT + "WHERE username = ?");
+        batched = connection.prepareStatement(SELECT + "WHERE username = ANY(?)");
+        Array array = connection.createArrayOf("varchar", usernames);
+        batched.setArray(1, array);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void perUsername(Blackhole bh) throws SQLException {
+        for (String username : usernames) {
+            single.setString(1, username);
+            drain(single, bh);
+        }
+    }
+
+    @Benchmark
+    public void batched(Blackhole bh) throws SQLException {
+        drain(batched, bh);
+    }
+
+    private static void drain(PreparedStatement statement, Blackhole bh) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getObject(1));
+                bh.consume(rs.getString(2));
+                bh.consume(rs.getString(4));
+            }
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.storage.LocalStorageBackend;
+import com.example.demo.storage.StorageBackend;
+import com.example.demo.storage.SupabaseStorageBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload throughput of the two storage backends for photo-variant sized objects.
+ * The local backend runs anywhere; the Supabase one needs SUPABASE_URL, SUPABASE_SERVICE_KEY
+ * and SUPABASE_BUCKET_NAME in the environment and writes under bench/ in that bucket:
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="StorageBackendBenchmark -p backend=local,supabase"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class StorageBackendBenchmark {
+
+    @Param({"local"})
+    private String backend;
+
+    // Roughly the 64px, 256px and 1024px JPEG variants
+    @Param({"4", "24", "180"})
+    private int objectKb;
+
+    private StorageBackend storage;
+    private Path localRoot;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        content = new byte[objectKb * 1024];
+        new Random(42).nextBytes(content);
+
+        if (backend.equals("local")) {
+            localRoot = Files.createTempDirectory("storage-bench-");
+            storage = new LocalStorageBackend(localRoot.toString(), "/api/media");
+        } else {
+            SupabaseStorageBackend supabase = new SupabaseStorageBackend(WebClient.builder());
+            ReflectionTestUtils.setField(supabase, "supabaseUrl", requiredEnv("SUPABASE_URL"));
+            ReflectionTestUtils.setField(supabase, "supabaseServiceKey", requiredEnv("SUPABASE_SERVICE_KEY"));
+            ReflectionTestUtils.setField(supabase, "bucketName", requiredEnv("SUPABASE_BUCKET_NAME"));
+            storage = supabase;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (localRoot != null) {
+            FileSystemUtils.deleteRecursively(localRoot);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadPath {
+        final String objectPath = "bench/" + Thread.currentThread().getId() + ".jpg";
+    }
+
+    @Benchmark
+    public String upload(ThreadPath path) {
+        return storage.upload(path.objectPath, content, MediaType.IMAGE_JPEG);
+    }
+
+    private static String requiredEnv(String name) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException(name + " must be set to benchmark the supabase backend");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.search.TextIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profile search on 10M synthetic profiles: usernames built from syllables, so short
+ * prefixes match hundreds of thousands of names, and bios of a few words drawn from a
+ * Zipf vocabulary. Sample-time mode reports the latency percentiles; the typeahead target
+ * is a p99 of a few milliseconds at every prefix length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx8g")
+public class TextIndexBenchmark {
+
+    private static final int PROFILES = 10_000_000;
+    private static final int VOCABULARY = 20_000;
+    private static final int BIO_WORDS = 6;
+    private static final int TYPEAHEAD_LIMIT = 64;
+    private static final int SEARCH_LIMIT = 10;
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ra", "te", "no", "sa", "ju", "ve", "di", "an", "el", "or", "is", "ben",
+            "mar", "tin", "lee", "son", "kim", "max", "zoe", "ada", "eli", "jo", "ne", "ri", "ta", "vi", "yu"
+    };
+
+    @Param({"1", "2", "3", "5"})
+    private int prefixLength;
+
+    private String[] usernames;
+    private String[] words;
+    private TextIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "w" + Integer.toString(i, 36);
+        }
+        double[] cumulative = new double[VOCABULARY];
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+
+        usernames = new String[PROFILES];
+        TextIndex.Builder builder = new TextIndex.Builder(20_000, PROFILES);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < PROFILES; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int s = 2 + random.nextInt(3); s > 0; s--) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.append(random.nextInt(1000));
+            usernames[i] = name.toString();
+
+            text.setLength(0);
+            for (int w = 0; w < BIO_WORDS; w++) {
+                int found = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                text.append(words[found >= 0 ? found : -found - 1]).append(' ');
+            }
+            builder.add(new UUID(random.nextLong(), random.nextLong()), usernames[i], text.toString());
+        }
+        index = builder.build();
+        System.out.printf("%nText index: %d documents, %d terms%n", index.size(), index.termCount());
+    }
+
+    @Benchmark
+    public List<TextIndex.Completion> typeahead() {
+        String username = usernames[ThreadLocalRandom.current().nextInt(PROFILES)];
+        return index.complete(username.substring(0, Math.min(prefixLength, username.length())), TYPEAHEAD_LIMIT);
+    }
+
+    // Two bio words, the first among the most common ones so it exceeds the postings scan cap
+    @Benchmark
+    public TextIndex.Result search() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return index.search(words[random.nextInt(10)] + " " + words[random.nextInt(VOCABULARY)], 0, SEARCH_LIMIT);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.ProfileDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-process ProfileCache bounded by size and time-to-live. Hit, miss and eviction
+ * counts are published as the "profiles" cache metrics.
+ */
+@Component
+public class CaffeineProfileCache implements ProfileCache {
+
+    static final String CACHE_NAME = "profiles";
+
+    private final AsyncCache<UUID, ProfileDTO> cache;
+
+    public CaffeineProfileCache(
+            @Value("${cache.profile.max-size:10000}") long maxSize,
+            @Value("${cache.profile.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    @Override
+    public ProfileDTO get(UUID userId, Function<UUID, ProfileDTO> loader) {
+        return CallerLoads.get(cache, userId, loader);
+    }
+
+    @Override
+    public void evict(UUID userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    void cleanUp() {
+        cache.synchronous().cleanUp();
+    }
+}
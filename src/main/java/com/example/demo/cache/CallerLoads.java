@@ -0,0 +1,77 @@
+package com.example.demo.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+/**
+ * Reads through an {@link AsyncCache} with the load running on the calling thread. Only a
+ * placeholder future is installed under the map lock, so a virtual thread is never pinned
+ * while the loader does I/O, and concurrent readers of the same key wait for the one load.
+ * Invalidating a key drops its placeholder, so a load already in flight can no longer
+ * populate the cache.
+ *
+ * <p>The placeholder is completed whatever the loader throws, {@link Error}s included:
+ * Caffeine never expires an incomplete future, so one left pending would hang every later
+ * reader of the key. A failed placeholder is removed from the cache by Caffeine.
+ */
+public final class CallerLoads {
+
+    private CallerLoads() {
+    }
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> pending);
+        if (future == pending) {
+            try {
+                pending.complete(loader.apply(key));
+            } catch (Throwable e) {
+                pending.completeExceptionally(e);
+            }
+        }
+        return join(future);
+    }
+
+    /**
+     * Like {@link #get} for many keys: {@code loader} gets the keys not cached yet, all at
+     * once, and returns the values it found. Keys it leaves out are not cached.
+     */
+    public static <K, V> Map<K, V> getAll(AsyncCache<K, V> cache, Collection<? extends K> keys,
+                                          Function<Set<K>, Map<K, V>> loader) {
+        CompletableFuture<Map<K, V>> pending = new CompletableFuture<>();
+        Set<K> misses = new HashSet<>();
+        CompletableFuture<Map<K, V>> all = cache.getAll(keys, (missing, executor) -> {
+            misses.addAll(missing);
+            return pending;
+        });
+        if (!misses.isEmpty()) {
+            try {
+                pending.complete(loader.apply(misses));
+            } catch (Throwable e) {
+                pending.completeExceptionally(e);
+            }
+        }
+        return join(all);
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.cache;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import com.example.demo.dto.ProfileDTO;
+
+/**
+ * Read-through cache of profiles keyed by user id.
+ * Implementations must not let a load that started before {@link #evict} repopulate
+ * the entry with the old value once the eviction has returned, and must not run the
+ * loader while holding a monitor.
+ */
+public interface ProfileCache {
+
+    /**
+     * Returns the cached profile, loading it with the given function on a miss.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     */
+    ProfileDTO get(UUID userId, Function<UUID, ProfileDTO> loader);
+
+    void evict(UUID userId);
+}
@@ -0,0 +1,75 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.repository.projection.PublicProfile;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Public profiles keyed by username, for avatars and profile headers. A batch is served
+ * from the cache and the misses are loaded together in one call. Unknown usernames are
+ * cached too, so a screen full of deleted accounts does not query on every render.
+ *
+ * <p>Profile edits evict by username. Photo write-backs do not know the username and
+ * show up once the entry expires.
+ */
+@Component
+public class PublicProfileCache {
+
+    static final String CACHE_NAME = "public_profiles";
+
+    // Stands for "no such username"; never returned to callers
+    private static final PublicProfile MISSING = new PublicProfile(null, null, null, null, null);
+
+    private final AsyncCache<String, PublicProfile> cache;
+
+    public PublicProfileCache(
+            @Value("${cache.public-profile.max-size:100000}") long maxSize,
+            @Value("${cache.public-profile.ttl:1m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    /**
+     * The profiles of those {@code usernames} that exist. {@code loader} gets the usernames
+     * not cached yet and returns the profiles it found, keyed by username; it runs on the
+     * calling thread after placeholders for those usernames are in the cache, so an
+     * {@link #evict} meanwhile keeps its result out of the cache.
+     */
+    public Map<String, PublicProfile> getAll(Collection<String> usernames,
+                                             Function<Set<String>, Map<String, PublicProfile>> loader) {
+        Map<String, PublicProfile> found = CallerLoads.getAll(cache, usernames, misses -> {
+            Map<String, PublicProfile> loaded = new HashMap<>(loader.apply(misses));
+            misses.forEach(username -> loaded.putIfAbsent(username, MISSING));
+            return loaded;
+        });
+        Map<String, PublicProfile> profiles = new HashMap<>(found.size());
+        found.forEach((username, profile) -> {
+            if (profile != MISSING) {
+                profiles.put(username, profile);
+            }
+        });
+        return profiles;
+    }
+
+    public void evict(String username) {
+        cache.synchronous().invalidate(username);
+    }
+}
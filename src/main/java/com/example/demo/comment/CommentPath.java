@@ -0,0 +1,65 @@
+package com.example.demo.comment;
+
+/**
+ * Materialized paths for comment threads. A path is the concatenation of one fixed-width
+ * base36 segment per level, root first, so sorting paths byte-wise ("C" collation) yields
+ * the thread in display order and a subtree is one contiguous path range.
+ *
+ * <p>Root segments count down, so the newest top-level comment sorts first; reply segments
+ * count up, so replies read oldest first under their parent.
+ */
+public final class CommentPath {
+
+    public static final int SEGMENT_WIDTH = 6;
+    public static final int MAX_DEPTH = 31;
+    public static final int MAX_LENGTH = SEGMENT_WIDTH * (MAX_DEPTH + 1);
+
+    // 36^6 - 1, the largest sequence number a segment can hold
+    static final long MAX_SEQUENCE = 2_176_782_335L;
+
+    // Sorts after every base36 digit, so prefix + UPPER_BOUND bounds the prefix's subtree
+    private static final char UPPER_BOUND = '{';
+
+    private CommentPath() {
+    }
+
+    public static String root(long sequence) {
+        return segment(MAX_SEQUENCE - sequence);
+    }
+
+    public static String child(String parentPath, long sequence) {
+        return parentPath + segment(sequence);
+    }
+
+    public static int depth(String path) {
+        return path.length() / SEGMENT_WIDTH - 1;
+    }
+
+    /**
+     * Exclusive upper bound of every path below {@code path}.
+     */
+    public static String subtreeEnd(String path) {
+        return path + UPPER_BOUND;
+    }
+
+    public static boolean isValid(String path) {
+        if (path.isEmpty() || path.length() > MAX_LENGTH || path.length() % SEGMENT_WIDTH != 0) {
+            return false;
+        }
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String segment(long value) {
+        if (value < 0 || value > MAX_SEQUENCE) {
+            throw new IllegalStateException("Comment sequence out of range: " + value);
+        }
+        String digits = Long.toString(value, 36);
+        return "0".repeat(SEGMENT_WIDTH - digits.length()) + digits;
+    }
+}
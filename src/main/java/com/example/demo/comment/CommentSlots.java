@@ -0,0 +1,60 @@
+package com.example.demo.comment;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out the next sibling sequence number for a new comment. Each is one UPDATE ...
+ * RETURNING on the parent row (the post for a top-level comment), which also keeps the
+ * post's comment count and the parent's reply count current; the row lock taken there
+ * serializes siblings, so two comments never get the same path.
+ *
+ * <p>Must run inside the transaction that inserts the comment.
+ */
+@Component
+public class CommentSlots {
+
+    public record ReplySlot(String path, int depth) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CommentSlots(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the new root's sequence number, or empty if the post does not exist
+     */
+    public OptionalLong nextRoot(UUID postId) {
+        List<Long> sequence = jdbcTemplate.queryForList("""
+                UPDATE posts SET comments_count = comments_count + 1, root_comment_seq = root_comment_seq + 1
+                WHERE id = ? RETURNING root_comment_seq
+                """, Long.class, postId);
+        return sequence.isEmpty() ? OptionalLong.empty() : OptionalLong.of(sequence.get(0));
+    }
+
+    /**
+     * @return the new reply's path and depth, or empty if the parent is not a live comment on this post
+     */
+    public Optional<ReplySlot> nextReply(UUID postId, UUID parentId) {
+        // Parent row first, then the post: the same order a delete locks them in
+        List<ReplySlot> slots = jdbcTemplate.query("""
+                UPDATE comments SET reply_count = reply_count + 1, last_reply_seq = last_reply_seq + 1
+                WHERE id = ? AND post_id = ? AND NOT deleted
+                RETURNING path, depth, last_reply_seq
+                """, (rs, row) -> new ReplySlot(
+                        CommentPath.child(rs.getString(1), rs.getLong(3)), rs.getInt(2) + 1),
+                parentId, postId);
+        if (slots.isEmpty()) {
+            return Optional.empty();
+        }
+        jdbcTemplate.update("UPDATE posts SET comments_count = comments_count + 1 WHERE id = ?", postId);
+        return Optional.of(slots.get(0));
+    }
+}
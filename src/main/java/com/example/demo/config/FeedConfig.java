@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class FeedConfig {
+
+    /**
+     * Fan-out workers. Tasks are submitted from afterCommit, where the request thread is
+     * still bound to its finished transaction, so a full queue rejects the task instead of
+     * running it there; FeedFanout counts and logs the rejection.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor feedFanoutExecutor(
+            @Value("${feed.fanout.pool-size:2}") int poolSize,
+            @Value("${feed.fanout.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("feed-fanout-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PhotoPipelineConfig {
+
+    /**
+     * Bounded pool for background photo uploads. Submissions come from afterCommit
+     * callbacks on request threads, where the upload must not run: the request's
+     * connection is still held there and its transaction has already committed. So a full
+     * queue rejects instead, and {@link com.example.demo.service.ProfilePhotoPipeline}
+     * turns uploads away before they commit while the queue is full.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor photoUploadExecutor(
+            @Value("${photo.pipeline.pool-size:4}") int poolSize,
+            @Value("${photo.pipeline.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("photo-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * CPU-bound pool for decoding and resizing. Its size also caps decode memory:
+     * each running job holds at most one subsampled source raster plus its variants.
+     * Only upload workers submit here and each waits for its job, so the queue never
+     * holds more than the upload pool size. Should it fill anyway, the upload worker
+     * transcodes on its own thread rather than failing the photo; it is never a request
+     * thread.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor photoTranscodeExecutor(
+            @Value("${photo.transcode.pool-size:2}") int poolSize,
+            @Value("${photo.transcode.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("photo-transcode-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.demo.config;
 
+import com.example.demo.security.AuthRateLimitFilter;
 import com.example.demo.security.CustomAuthenticationEntryPoint;
 import com.example.demo.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -27,6 +30,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final AuthRateLimitFilter authRateLimitFilter;
     private final UserDetailsService userDetailsService;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
 
@@ -35,8 +39,26 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Completing an event stream re-dispatches the request without the bearer
+                        // filter; the stream itself was authorized when it was opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/api/auth/logout-all").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/posts/feed").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/posts/{postId}", "/api/posts/{postId}/likes",
+                                "/api/posts/{postId}/comments", "/api/comments/{commentId}/replies",
+                                "/api/posts/user/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/users/{userId}/followers", "/api/users/{userId}/following",
+                                "/api/users/{userId}/follow-status").permitAll()
+                        // Own profile and suggestions first, as the public profile pattern also matches them
+                        .requestMatchers(HttpMethod.GET, "/api/users/profile", "/api/users/suggestions").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/users/profiles", "/api/users/{username}").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/users/profiles").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/search/**").permitAll()
+                        // Public graph; me and sessions resolve to null for anonymous callers
+                        .requestMatchers(HttpMethod.POST, "/graphql").permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
+                                "/api/media/**",
                                 "/error",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**"
@@ -50,7 +72,8 @@ public class SecurityConfig {
                         .authenticationEntryPoint(customAuthenticationEntryPoint)
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(authRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
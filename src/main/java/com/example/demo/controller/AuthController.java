@@ -64,4 +64,20 @@ public class AuthController {
                 .header(HttpHeaders.SET_COOKIE, refreshCookie.toString())
                 .body("Logged out");
     }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<String> logoutAll() {
+        authService.logoutAll();
+
+        ResponseCookie refreshCookie = ResponseCookie.from("refreshToken", "")
+                .httpOnly(true)
+                .secure(false)
+                .path("/api/auth")
+                .maxAge(0)
+                .build();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshCookie.toString())
+                .body("Logged out from all devices");
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.demo.controller;
+
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.dto.CreateCommentRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UpdateCommentRequest;
+import com.example.demo.service.CommentService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class CommentController {
+
+    private final CommentService commentService;
+
+    @PostMapping("/posts/{postId}/comments")
+    public ResponseEntity<CommentDTO> addComment(
+            @PathVariable UUID postId,
+            @Valid @RequestBody CreateCommentRequest request) {
+        return new ResponseEntity<>(commentService.addComment(postId, request), HttpStatus.CREATED);
+    }
+
+    // Thread order, newest top-level comment first; depth caps how many reply levels are included
+    @GetMapping("/posts/{postId}/comments")
+    public ResponseEntity<CursorPage<CommentDTO>> getComments(
+            @PathVariable UUID postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "2") int depth) {
+        return new ResponseEntity<>(commentService.getComments(postId, cursor, size, depth), HttpStatus.OK);
+    }
+
+    // Expands a collapsed comment: its replies, depth levels below it
+    @GetMapping("/comments/{commentId}/replies")
+    public ResponseEntity<CursorPage<CommentDTO>> getReplies(
+            @PathVariable UUID commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "2") int depth) {
+        return new ResponseEntity<>(commentService.getReplies(commentId, cursor, size, depth), HttpStatus.OK);
+    }
+
+    @PutMapping("/comments/{commentId}")
+    public ResponseEntity<CommentDTO> updateComment(
+            @PathVariable UUID commentId,
+            @Valid @RequestBody UpdateCommentRequest request) {
+        return new ResponseEntity<>(commentService.updateComment(commentId, request), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/comments/{commentId}")
+    public ResponseEntity<Void> deleteComment(@PathVariable UUID commentId) {
+        commentService.deleteComment(commentId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dto.FollowStatusDTO;
+import com.example.demo.dto.FollowUserDTO;
+import com.example.demo.dto.PagedResponse;
+import com.example.demo.service.FollowService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class FollowController {
+
+    private final FollowService followService;
+
+    @PostMapping("/{userId}/follow")
+    public ResponseEntity<Void> follow(@PathVariable UUID userId) {
+        followService.follow(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{userId}/follow")
+    public ResponseEntity<Void> unfollow(@PathVariable UUID userId) {
+        followService.unfollow(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{userId}/followers")
+    public ResponseEntity<PagedResponse<FollowUserDTO>> getFollowers(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return new ResponseEntity<>(followService.getFollowers(userId, page, size), HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/following")
+    public ResponseEntity<PagedResponse<FollowUserDTO>> getFollowing(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return new ResponseEntity<>(followService.getFollowing(userId, page, size), HttpStatus.OK);
+    }
+
+    // Counts, plus whether the caller and this user follow each other when authenticated
+    @GetMapping("/{userId}/follow-status")
+    public ResponseEntity<FollowStatusDTO> getFollowStatus(@PathVariable UUID userId) {
+        return new ResponseEntity<>(followService.getFollowStatus(userId), HttpStatus.OK);
+    }
+
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<FollowUserDTO>> getSuggestions(@RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(followService.getSuggestions(limit), HttpStatus.OK);
+    }
+}
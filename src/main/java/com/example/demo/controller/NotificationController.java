@@ -0,0 +1,53 @@
+package com.example.demo.controller;
+
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.dto.UnreadCountDTO;
+import com.example.demo.service.NotificationService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    // Most recently active first; a group that gains actors moves back to the top
+    @GetMapping
+    public ResponseEntity<CursorPage<NotificationDTO>> getNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        return new ResponseEntity<>(notificationService.getNotifications(cursor, size, unreadOnly), HttpStatus.OK);
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<UnreadCountDTO> getUnreadCount() {
+        return new ResponseEntity<>(notificationService.getUnreadCount(), HttpStatus.OK);
+    }
+
+    @PutMapping("/{notificationId}/read")
+    public ResponseEntity<Void> markRead(@PathVariable UUID notificationId) {
+        notificationService.markRead(notificationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/read-all")
+    public ResponseEntity<Void> markAllRead() {
+        notificationService.markAllRead();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CreatePostRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.LikeDTO;
+import com.example.demo.dto.PagedResponse;
+import com.example.demo.dto.PostDTO;
+import com.example.demo.dto.UpdatePostRequest;
+import com.example.demo.service.FeedService;
+import com.example.demo.service.LikeService;
+import com.example.demo.service.PostService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/posts")
+@RequiredArgsConstructor
+public class PostController {
+
+    private final PostService postService;
+    private final FeedService feedService;
+    private final LikeService likeService;
+
+    @PostMapping
+    public ResponseEntity<PostDTO> createPost(@Valid @RequestBody CreatePostRequest request) {
+        return new ResponseEntity<>(postService.createPost(request), HttpStatus.CREATED);
+    }
+
+    // Home feed: own posts and posts from followed accounts, newest first
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<PostDTO>> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return new ResponseEntity<>(feedService.getFeed(cursor, size), HttpStatus.OK);
+    }
+
+    @GetMapping("/{postId}")
+    public ResponseEntity<PostDTO> getPost(@PathVariable UUID postId) {
+        return new ResponseEntity<>(postService.getPost(postId), HttpStatus.OK);
+    }
+
+    // Keyset pagination: pass nextCursor from the previous page, omit it for the newest posts
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<CursorPage<PostDTO>> getUserPosts(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return new ResponseEntity<>(postService.getUserPosts(userId, cursor, size), HttpStatus.OK);
+    }
+
+    @PutMapping("/{postId}")
+    public ResponseEntity<PostDTO> updatePost(
+            @PathVariable UUID postId,
+            @Valid @RequestBody UpdatePostRequest request) {
+        return new ResponseEntity<>(postService.updatePost(postId, request), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/{postId}")
+    public ResponseEntity<Void> deletePost(@PathVariable UUID postId) {
+        postService.deletePost(postId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Liking and unliking are idempotent; repeating either is a no-op
+    @PostMapping("/{postId}/like")
+    public ResponseEntity<Void> likePost(@PathVariable UUID postId) {
+        likeService.like(postId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{postId}/like")
+    public ResponseEntity<Void> unlikePost(@PathVariable UUID postId) {
+        likeService.unlike(postId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{postId}/likes")
+    public ResponseEntity<PagedResponse<LikeDTO>> getPostLikes(
+            @PathVariable UUID postId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return new ResponseEntity<>(likeService.getLikes(postId, page, size), HttpStatus.OK);
+    }
+}
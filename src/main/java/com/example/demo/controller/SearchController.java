@@ -0,0 +1,50 @@
+package com.example.demo.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dto.FollowUserDTO;
+import com.example.demo.dto.PagedResponse;
+import com.example.demo.dto.PostDTO;
+import com.example.demo.service.SearchService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    // Ranked by tf-idf over username and bio
+    @GetMapping("/users")
+    public ResponseEntity<PagedResponse<FollowUserDTO>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return new ResponseEntity<>(searchService.searchUsers(q, page, size), HttpStatus.OK);
+    }
+
+    // Username prefix completion for search-as-you-type
+    @GetMapping("/users/typeahead")
+    public ResponseEntity<List<FollowUserDTO>> completeUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return new ResponseEntity<>(searchService.completeUsers(q, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/posts")
+    public ResponseEntity<PagedResponse<PostDTO>> searchPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return new ResponseEntity<>(searchService.searchPosts(q, page, size), HttpStatus.OK);
+    }
+}
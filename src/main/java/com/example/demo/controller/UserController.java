@@ -2,21 +2,28 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.ProfileRequest;
 import com.example.demo.dto.ProfileDTO;
+import com.example.demo.dto.PublicProfileDTO;
+import com.example.demo.dto.PublicProfilesRequest;
 import com.example.demo.service.ProfileService;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
@@ -44,4 +51,22 @@ public class UserController {
         return new ResponseEntity<>(profileService.updateProfile(profileRequest, photo), HttpStatus.OK);
     }
 
+    // Every avatar on a screen in one call: ?usernames=alice,bob
+    @GetMapping("/profiles")
+    public ResponseEntity<List<PublicProfileDTO>> getPublicProfiles(@RequestParam List<String> usernames) {
+        return new ResponseEntity<>(profileService.getPublicProfiles(usernames), HttpStatus.OK);
+    }
+
+    // Same as the GET, for lists too long for a URL
+    @PostMapping("/profiles")
+    public ResponseEntity<List<PublicProfileDTO>> getPublicProfiles(@Valid @RequestBody PublicProfilesRequest request) {
+        return new ResponseEntity<>(profileService.getPublicProfiles(request.getUsernames()), HttpStatus.OK);
+    }
+
+    // Literal paths such as /profile and /suggestions take precedence over this one
+    @GetMapping("/{username}")
+    public ResponseEntity<PublicProfileDTO> getPublicProfile(@PathVariable String username) {
+        return new ResponseEntity<>(profileService.getPublicProfile(username), HttpStatus.OK);
+    }
+
 }
@@ -0,0 +1,141 @@
+package com.example.demo.controller;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Controller;
+
+import com.example.demo.graphql.ProfileNode;
+import com.example.demo.graphql.SessionNode;
+import com.example.demo.graphql.UserNode;
+import com.example.demo.repository.ProfileRepository;
+import com.example.demo.repository.SessionRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.UserPrincipal;
+
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Resolvers for schema.graphqls. Every nested field is a {@link BatchMapping}: the data
+ * loader collects the parents of one level and loads their children with one IN query,
+ * so a list of 100 users with their profiles is two statements rather than 101.
+ */
+@Controller
+public class UserGraphQlController {
+
+    private final UserRepository userRepository;
+    private final ProfileRepository profileRepository;
+    private final SessionRepository sessionRepository;
+    private final int maxIds;
+
+    public UserGraphQlController(
+            UserRepository userRepository,
+            ProfileRepository profileRepository,
+            SessionRepository sessionRepository,
+            @Value("${graphql.max-ids:100}") int maxIds) {
+        this.userRepository = userRepository;
+        this.profileRepository = profileRepository;
+        this.sessionRepository = sessionRepository;
+        this.maxIds = maxIds;
+    }
+
+    @QueryMapping
+    public UserNode user(@Argument UUID id) {
+        List<UserNode> found = userRepository.findNodesByIdIn(List.of(id));
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @QueryMapping
+    public List<UserNode> users(@Argument List<UUID> ids) {
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids per query");
+        }
+        Map<UUID, UserNode> byId = userRepository.findNodesByIdIn(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(UserNode::id, Function.identity()));
+        // Same order as the ids asked for
+        List<UserNode> users = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            users.add(byId.get(id));
+        }
+        return users;
+    }
+
+    @QueryMapping
+    public UserNode userByUsername(@Argument String username) {
+        return userRepository.findNodeByUsername(username).orElse(null);
+    }
+
+    @QueryMapping
+    public UserNode me() {
+        UUID userId = UserPrincipal.getCurrentUserIdOrNull();
+        return userId != null ? user(userId) : null;
+    }
+
+    @BatchMapping(typeName = "User")
+    public Map<UserNode, ProfileNode> profile(List<UserNode> users) {
+        Map<UUID, ProfileNode> byUserId = profileRepository.findNodesByUserIdIn(ids(users, UserNode::id)).stream()
+                .collect(Collectors.toMap(ProfileNode::userId, Function.identity()));
+        Map<UserNode, ProfileNode> profiles = new HashMap<>();
+        for (UserNode user : users) {
+            ProfileNode profile = byUserId.get(user.id());
+            if (profile != null) {
+                profiles.put(user, profile);
+            }
+        }
+        return profiles;
+    }
+
+    @BatchMapping(typeName = "Profile", field = "user")
+    public Map<ProfileNode, UserNode> profileUser(List<ProfileNode> profiles) {
+        Map<UUID, UserNode> byId = userRepository.findNodesByIdIn(ids(profiles, ProfileNode::userId)).stream()
+                .collect(Collectors.toMap(UserNode::id, Function.identity()));
+        Map<ProfileNode, UserNode> users = new HashMap<>();
+        for (ProfileNode profile : profiles) {
+            users.put(profile, byId.get(profile.userId()));
+        }
+        return users;
+    }
+
+    // Only the caller's own sessions are visible, so at most one user's are ever loaded
+    @BatchMapping(typeName = "User")
+    public Map<UserNode, List<SessionNode>> sessions(List<UserNode> users) {
+        UUID viewer = UserPrincipal.getCurrentUserIdOrNull();
+        Map<UserNode, List<SessionNode>> sessions = new HashMap<>();
+        if (viewer == null) {
+            return sessions;
+        }
+        List<UserNode> own = users.stream().filter(user -> user.id().equals(viewer)).toList();
+        if (!own.isEmpty()) {
+            List<SessionNode> active = sessionRepository.findActiveNodesByUserIdIn(List.of(viewer), LocalDateTime.now());
+            own.forEach(user -> sessions.put(user, active));
+        }
+        return sessions;
+    }
+
+    @GraphQlExceptionHandler
+    public GraphQLError handleIllegalArgument(IllegalArgumentException ex, DataFetchingEnvironment environment) {
+        return GraphqlErrorBuilder.newError(environment)
+                .errorType(ErrorType.BAD_REQUEST)
+                .message(ex.getMessage())
+                .build();
+    }
+
+    private static <T> List<UUID> ids(List<T> nodes, Function<T, UUID> id) {
+        return nodes.stream().map(id).distinct().toList();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One comment of a thread page. Pages list comments in thread order, so a client rebuilds
+ * the tree from {@code parentId} and {@code depth}; {@code replyCount} tells it which
+ * collapsed comments have more replies to load.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentDTO {
+
+    private UUID id;
+    private UUID postId;
+    private UUID parentId;
+    private int depth;
+    private String content;
+    private UUID authorId;
+    private String authorUsername;
+    private String authorPhotoUrl;
+    private int replyCount;
+    private boolean deleted;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Keyset position; exposed to clients only through the page cursor
+    @JsonIgnore
+    private String path;
+
+    // Whether the caller wrote this comment; omitted for anonymous callers
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean isAuthor;
+
+    // Used by the JPQL constructor projection in CommentRepository
+    public CommentDTO(UUID id, UUID postId, UUID parentId, int depth, String content, UUID authorId,
+                      String authorUsername, String authorPhotoUrl, int replyCount, boolean deleted,
+                      LocalDateTime createdAt, LocalDateTime updatedAt, String path) {
+        this(id, postId, parentId, depth, content, authorId, authorUsername, authorPhotoUrl, replyCount,
+                deleted, createdAt, updatedAt, path, null);
+    }
+}
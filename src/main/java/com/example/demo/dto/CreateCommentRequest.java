@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateCommentRequest {
+
+    @NotBlank(message = "Content is required")
+    @Size(max = 1000, message = "Content must be at most 1000 characters")
+    private String content;
+
+    // The comment being replied to; omit for a top-level comment
+    private UUID parentId;
+
+}
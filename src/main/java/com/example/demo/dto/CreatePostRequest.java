@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreatePostRequest {
+
+    @NotBlank(message = "Content is required")
+    @Size(max = 2000, message = "Content must be at most 2000 characters")
+    private String content;
+
+    @Pattern(regexp = "https?://.*", message = "Invalid URL")
+    private String imageUrl;
+
+}
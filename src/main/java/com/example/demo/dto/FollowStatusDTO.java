@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FollowStatusDTO {
+    private UUID userId;
+    private int followersCount;
+    private int followingCount;
+
+    // Relationship to the caller; null for anonymous callers
+    private Boolean following;
+    private Boolean followedBy;
+    private Boolean mutual;
+}
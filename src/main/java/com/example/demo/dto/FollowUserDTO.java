@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowUserDTO {
+    private UUID userId;
+    private String username;
+    private String profilePhotoSmallUrl;
+
+    // Whether the caller follows this user; omitted for anonymous callers
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean followedByCurrentUser;
+
+    // Used by the JPQL constructor projection
+    public FollowUserDTO(UUID userId, String username, String profilePhotoSmallUrl) {
+        this(userId, username, profilePhotoSmallUrl, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeDTO {
+    private UUID userId;
+    private String username;
+    private String profilePhotoSmallUrl;
+    private LocalDateTime createdAt;
+}
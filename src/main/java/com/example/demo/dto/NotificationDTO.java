@@ -0,0 +1,41 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.demo.enums.NotificationType;
+
+/**
+ * One notification group. The actor fields describe the most recent actor and
+ * {@code actorCount} how many acted in all; {@code message} is rendered from both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDTO {
+
+    private UUID id;
+    private NotificationType type;
+    private UUID actorId;
+    private String actorUsername;
+    private String actorPhotoUrl;
+    private int actorCount;
+    private UUID postId;
+    private UUID commentId;
+    private Boolean isRead;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Used by the JPQL constructor projection in NotificationRepository
+    public NotificationDTO(UUID id, NotificationType type, UUID actorId, String actorUsername, String actorPhotoUrl,
+                           int actorCount, UUID postId, UUID commentId, Boolean isRead,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, type, actorId, actorUsername, actorPhotoUrl, actorCount, postId, commentId, isRead, null,
+                createdAt, updatedAt);
+    }
+}
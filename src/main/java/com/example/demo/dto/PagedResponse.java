@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * One page of an offset-paginated list.
+ */
+public record PagedResponse<T>(List<T> content, int page, int size, long totalElements, boolean hasNext) {
+}
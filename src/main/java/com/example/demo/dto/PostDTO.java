@@ -0,0 +1,41 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Built directly by JPQL constructor expressions in {@code PostRepository}, so the
+ * constructor argument order is part of those queries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostDTO {
+
+    private UUID id;
+    private String content;
+    private String imageUrl;
+    private UUID authorId;
+    private String authorUsername;
+    private String authorPhotoUrl;
+    private Integer likesCount;
+    private Integer commentsCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Whether the caller has liked the post; omitted for anonymous callers
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean likedByCurrentUser;
+
+    public PostDTO(UUID id, String content, String imageUrl, UUID authorId, String authorUsername,
+                   String authorPhotoUrl, Integer likesCount, Integer commentsCount,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, content, imageUrl, authorId, authorUsername, authorPhotoUrl, likesCount, commentsCount,
+                createdAt, updatedAt, null);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,6 +17,12 @@ public class ProfileDTO {
     private String username;
     private String bio;
     private String profilePhotoUrl;
+    private String profilePhotoMediumUrl;
+    private String profilePhotoSmallUrl;
     private LocalDateTime createdAt;
 
+    // True while a newly submitted photo is still being uploaded in the background
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean photoUploadPending;
+
 }
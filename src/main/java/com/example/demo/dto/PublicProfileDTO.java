@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A profile as other users see it (API 3). {@code isFollowedByCurrentUser} is omitted for
+ * anonymous callers and on the caller's own profile.
+ */
+public record PublicProfileDTO(
+        UUID userId,
+        String username,
+        String bio,
+        String profilePhotoUrl,
+        String profilePhotoSmallUrl,
+        int followersCount,
+        int followingCount,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Boolean isFollowedByCurrentUser) {
+}
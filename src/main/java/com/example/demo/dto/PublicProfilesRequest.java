@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicProfilesRequest {
+
+    @NotNull(message = "Usernames are required")
+    private List<String> usernames;
+}
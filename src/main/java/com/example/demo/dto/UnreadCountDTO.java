@@ -0,0 +1,4 @@
+package com.example.demo.dto;
+
+public record UnreadCountDTO(int count) {
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateCommentRequest {
+
+    @NotBlank(message = "Content is required")
+    @Size(max = 1000, message = "Content must be at most 1000 characters")
+    private String content;
+
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Null fields are left unchanged
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdatePostRequest {
+
+    @Size(min = 1, max = 2000, message = "Content must be between 1 and 2000 characters")
+    private String content;
+
+    @Pattern(regexp = "https?://.*", message = "Invalid URL")
+    private String imageUrl;
+
+}
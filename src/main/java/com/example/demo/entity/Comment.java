@@ -0,0 +1,96 @@
+package com.example.demo.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.example.demo.comment.CommentPath;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Thread pages are range scans on (post_id, path); depth is the trailing key column so
+// the depth limit is checked in the index instead of on heap rows. Paths compare with
+// the "C" collation, byte-wise, which is the order CommentPath is designed for.
+@Entity
+@DynamicUpdate
+@Table(name = "comments", indexes = {
+    @Index(name = "uk_comment_post_path_depth", columnList = "post_id, path, depth", unique = true),
+    @Index(name = "idx_comment_user_id", columnList = "user_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Comment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Post post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    // Null for top-level comments
+    @Column(name = "parent_id", columnDefinition = "uuid", updatable = false)
+    private UUID parentId;
+
+    @Column(nullable = false, updatable = false,
+            columnDefinition = "varchar(" + CommentPath.MAX_LENGTH + ") COLLATE \"C\"")
+    private String path;
+
+    @Column(nullable = false, updatable = false)
+    private int depth;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    // Maintained by CommentSlots and deletes with single UPDATEs, never written from the entity
+    @Column(name = "reply_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int replyCount = 0;
+
+    @Column(name = "last_reply_seq", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long lastReplySeq = 0;
+
+    // A deleted comment with replies stays as a placeholder so its subtree stays reachable
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    @Builder.Default
+    private boolean deleted = false;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
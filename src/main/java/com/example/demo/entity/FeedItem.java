@@ -0,0 +1,42 @@
+package com.example.demo.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Durable copy of fanned-out feed entries, written behind the in-memory inboxes. The primary
+ * key doubles as the feed index: one user's entries, in (created_at, post_id) order.
+ */
+@Entity
+@Table(name = "feed_items")
+@IdClass(FeedItem.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedItem {
+
+    @Id
+    @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+    private UUID userId;
+
+    @Id
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Id
+    @Column(name = "post_id", columnDefinition = "uuid", nullable = false)
+    private UUID postId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID userId;
+        private LocalDateTime createdAt;
+        private UUID postId;
+    }
+}
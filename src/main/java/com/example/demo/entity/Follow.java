@@ -0,0 +1,50 @@
+package com.example.demo.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// The unique constraint's index leads with follower_id and serves "who do I follow";
+// created_at is indexed for the follow graph's sync of follows made on other instances
+@Entity
+@Table(name = "follows",
+    uniqueConstraints = @UniqueConstraint(name = "uk_follow_follower_following", columnNames = {"follower_id", "following_id"}),
+    indexes = {
+        @Index(name = "idx_follow_following_id", columnList = "following_id"),
+        @Index(name = "idx_follow_created_at", columnList = "created_at")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Follow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    // Person who follows
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User follower;
+
+    // Person being followed
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "following_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User following;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.example.demo.enums.NotificationType;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// One row per unread group: repeated events on the same subject update it instead of adding
+// rows. The partial unique index behind that, (recipient_id, type, subject_id) WHERE NOT
+// is_read, cannot be declared here and is created by NotificationQueue at startup
+@Entity
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notification_recipient_updated_id", columnList = "recipient_id, updatedAt, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    @Id
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recipient_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User recipient;
+
+    // The most recent actor; actorCount says how many acted in total
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "actor_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User actor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 16)
+    private NotificationType type;
+
+    // What the events are grouped on: the post for likes and comments, the parent comment
+    // for replies, the recipient for follows
+    @Column(name = "subject_id", columnDefinition = "uuid", nullable = false, updatable = false)
+    private UUID subjectId;
+
+    @Column(name = "post_id", columnDefinition = "uuid")
+    private UUID postId;
+
+    @Column(name = "comment_id", columnDefinition = "uuid")
+    private UUID commentId;
+
+    @Column(nullable = false)
+    private int actorCount;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean isRead = false;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,51 @@
+package com.example.demo.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A storage object waiting to be deleted. Written in the same transaction that stops
+ * referencing the object, so the delete survives crashes and storage outages.
+ */
+@Entity
+@Table(name = "photo_delete_outbox", indexes = {
+    @Index(name = "idx_photo_delete_outbox_next_attempt", columnList = "nextAttemptAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoDeleteOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(nullable = false, length = 1024)
+    private String fileUrl;
+
+    // Set for content-addressed photos: the delete covers every variant and only runs if still unreferenced
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
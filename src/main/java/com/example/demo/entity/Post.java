@@ -0,0 +1,77 @@
+package com.example.demo.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Timelines page by (created_at, id) per user, so that composite index serves both the
+// filter and the sort; it also covers the user_id foreign key. updated_at is indexed for
+// the search index's catch-up after a snapshot restore
+@Entity
+@DynamicUpdate
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_post_user_created_id", columnList = "user_id, createdAt, id"),
+    @Index(name = "idx_post_updated_at", columnList = "updatedAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Post {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    private String imageUrl;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    // Counters change only through single UPDATE statements (like flushes, comment slots),
+    // so an edit of the post cannot write back a stale count
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Integer likesCount = 0;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Integer commentsCount = 0;
+
+    // Sequence of the latest top-level comment, see CommentSlots
+    @Column(name = "root_comment_seq", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long rootCommentSeq = 0;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        // Postgres keeps microseconds; truncating here makes the in-memory value match what
+        // keyset cursors and feed inboxes read back from the table
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
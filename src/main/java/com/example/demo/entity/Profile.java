@@ -3,11 +3,19 @@ package com.example.demo.entity;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.*;
 import lombok.*;
 
+// Dynamic updates: the async photo write-back and profile edits touch disjoint columns.
+// updated_at is indexed for the search index's catch-up after a snapshot restore
 @Entity
-@Table(name = "profile")
+@DynamicUpdate
+@Table(name = "profile", indexes = {
+    @Index(name = "idx_profile_updated_at", columnList = "updatedAt")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,7 +36,22 @@ public class Profile {
 
     private String bio;
 
+    // Largest variant (1024px); the smaller ones are for avatars and lists
     private String profilePhotoUrl;
+
+    private String profilePhotoMediumUrl;
+
+    private String profilePhotoSmallUrl;
+
+    // Content hash of the stored photo; null for photos uploaded before content addressing
+    @Column(length = 64)
+    private String profilePhotoHash;
+
+    // Bumped for every photo upload request; only the latest upload may write its URL back
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int photoVersion = 0;
     
     @Column(nullable = false)
     @Builder.Default
@@ -36,11 +59,19 @@ public class Profile {
 
     private LocalDateTime createdAt;
 
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
         if (isComplete == null) {
             isComplete = false;
         }
     }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
 }
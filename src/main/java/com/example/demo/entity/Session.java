@@ -8,8 +8,9 @@ import lombok.*;
 
 @Entity
 @Table(name = "session", indexes = {
-    @Index(name = "idx_session_refresh_token", columnList = "refreshToken"),
-    @Index(name = "idx_session_user_id", columnList = "user_id")
+    @Index(name = "idx_session_token_hash", columnList = "tokenHash"),
+    @Index(name = "idx_session_user_id", columnList = "user_id"),
+    @Index(name = "idx_session_expires_at", columnList = "expiresAt")
 })
 @Data
 @Builder
@@ -22,7 +23,11 @@ public class Session {
     @Column(columnDefinition = "uuid", updatable = false, nullable = false)
     private UUID id;
 
-    @Column(nullable = false)
+    // SHA-256 of the refresh token: a fixed 32-byte key instead of the full JWT
+    @Column(length = 32)
+    private byte[] tokenHash;
+
+    // Legacy plaintext token, only set on rows created before tokenHash existed
     private String refreshToken;
 
     @ManyToOne
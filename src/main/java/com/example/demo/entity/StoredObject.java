@@ -0,0 +1,40 @@
+package com.example.demo.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A content-addressed photo in storage, shared by every profile whose upload had the same bytes.
+ * The object is deleted only once no profile references it.
+ */
+@Entity
+@Table(name = "stored_object")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredObject {
+
+    // Hex SHA-256 of the original upload
+    @Id
+    @Column(length = 64, updatable = false, nullable = false)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    // False until every variant has been written; later acquirers must upload it themselves
+    @Column(nullable = false)
+    private boolean uploaded;
+
+    // Set while the outbox deletes the variants; acquirers wait until the row is gone or cleared
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean deleting;
+
+    private LocalDateTime createdAt;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import com.example.demo.enums.Role;
 
 import java.time.LocalDateTime;
@@ -41,6 +42,23 @@ public class User {
     @Builder.Default
     private boolean emailVerified = false;
 
+    // Embedded in every JWT; bumping it revokes all tokens issued before
+    @Column(name = "token_version", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int tokenVersion = 0;
+
+    // Denormalized follow counts; also decide whether posts are fanned out on write
+    @Column(name = "followers_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int followersCount = 0;
+
+    @Column(name = "following_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int followingCount = 0;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
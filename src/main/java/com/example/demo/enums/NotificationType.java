@@ -0,0 +1,8 @@
+package com.example.demo.enums;
+
+public enum NotificationType {
+    LIKE,     // "alice liked your post"
+    COMMENT,  // "alice commented on your post"
+    REPLY,    // "alice replied to your comment"
+    FOLLOW    // "alice started following you"
+}
@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class AlreadyFollowingException extends RuntimeException {
+    public AlreadyFollowingException(String message) {
+        super(message);
+    }
+}
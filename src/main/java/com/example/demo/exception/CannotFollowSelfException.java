@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class CannotFollowSelfException extends RuntimeException {
+    public CannotFollowSelfException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class CommentDepthExceededException extends RuntimeException {
+    public CommentDepthExceededException(String message) {
+        super(message);
+    }
+}
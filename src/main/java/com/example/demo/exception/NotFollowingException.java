@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class NotFollowingException extends RuntimeException {
+    public NotFollowingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class PhotoPipelineBusyException extends RuntimeException {
+    public PhotoPipelineBusyException(String message) {
+        super(message);
+    }
+}
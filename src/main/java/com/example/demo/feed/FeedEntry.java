@@ -0,0 +1,42 @@
+package com.example.demo.feed;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * A post reference in a home feed. Feeds are ordered newest first by (createdAt, postId),
+ * the same order as {@code ORDER BY created_at DESC, id DESC} in Postgres.
+ */
+public record FeedEntry(UUID postId, LocalDateTime createdAt) {
+
+    /**
+     * Postgres compares uuids as unsigned bytes, so both halves are compared unsigned here;
+     * {@link UUID#compareTo} is signed and would disagree with keyset queries.
+     */
+    public static final Comparator<FeedEntry> NEWEST_FIRST = (a, b) -> order(
+            a.createdAtMicros(), a.postId.getMostSignificantBits(), a.postId.getLeastSignificantBits(),
+            b.createdAtMicros(), b.postId.getMostSignificantBits(), b.postId.getLeastSignificantBits());
+
+    long createdAtMicros() {
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + createdAt.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Negative if entry a comes before entry b in feed order (a is newer).
+     */
+    static int order(long aMicros, long aMsb, long aLsb, long bMicros, long bMsb, long bLsb) {
+        int c = Long.compare(bMicros, aMicros);
+        if (c != 0) {
+            return c;
+        }
+        c = Long.compareUnsigned(bMsb, aMsb);
+        return c != 0 ? c : Long.compareUnsigned(bLsb, aLsb);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.feed;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.follow.FollowGraphIndex;
+import com.example.demo.push.PushChannel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fan-out on write: pushes a new post into the inbox of each of the author's followers.
+ * Authors with more followers than {@code feed.celebrity-threshold} are skipped; their
+ * posts are merged into followers' feeds at read time instead. Followers with an event
+ * stream open are told about every new post, celebrity or not.
+ */
+@Component
+@Slf4j
+public class FeedFanout {
+
+    private final FeedInboxStore feedInboxStore;
+    private final FollowGraphIndex followGraph;
+    private final PushChannel pushChannel;
+    private final ThreadPoolTaskExecutor executor;
+    private final int celebrityThreshold;
+
+    private final Timer fanoutTimer;
+    private final Counter skippedCounter;
+    private final Counter rejectedCounter;
+
+    public FeedFanout(
+            FeedInboxStore feedInboxStore,
+            FollowGraphIndex followGraph,
+            PushChannel pushChannel,
+            @Qualifier("feedFanoutExecutor") ThreadPoolTaskExecutor executor,
+            MeterRegistry meterRegistry,
+            @Value("${feed.celebrity-threshold:10000}") int celebrityThreshold) {
+        this.feedInboxStore = feedInboxStore;
+        this.followGraph = followGraph;
+        this.pushChannel = pushChannel;
+        this.executor = executor;
+        this.celebrityThreshold = celebrityThreshold;
+
+        this.fanoutTimer = Timer.builder("feed.fanout")
+                .description("Time to push one post to every follower inbox")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("feed.fanout.skipped")
+                .description("Posts left to read-time merging because the author is over the celebrity threshold")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("feed.fanout.rejected")
+                .description("Posts not fanned out because the fan-out queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fans the post out once the creating transaction has committed.
+     */
+    public void onPostCreated(UUID postId, UUID authorId, LocalDateTime createdAt) {
+        FeedEntry entry = new FeedEntry(postId, createdAt);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    executor.execute(() -> fanOut(authorId, entry));
+                } catch (TaskRejectedException e) {
+                    // The post itself is committed; followers' feeds just miss it
+                    rejectedCounter.increment();
+                    log.error("Feed fan-out queue full, post {} not fanned out", entry.postId());
+                }
+            }
+        });
+    }
+
+    private void fanOut(UUID authorId, FeedEntry entry) {
+        try {
+            fanoutTimer.record(() -> {
+                // Authors always see their own posts
+                feedInboxStore.push(authorId, entry);
+
+                int followersCount = followGraph.followersCount(authorId);
+                if (followersCount > celebrityThreshold) {
+                    skippedCounter.increment();
+                } else {
+                    for (UUID followerId : followGraph.followers(authorId, 0, followersCount)) {
+                        feedInboxStore.push(followerId, entry);
+                    }
+                }
+                notifyListeners(authorId, entry, followersCount);
+            });
+        } catch (RuntimeException e) {
+            log.error("Feed fan-out failed for post {}", entry.postId(), e);
+        }
+    }
+
+    private void notifyListeners(UUID authorId, FeedEntry entry, int followersCount) {
+        List<UUID> listeners = pushChannel.listeners();
+        if (followersCount <= listeners.size()) {
+            for (UUID followerId : followGraph.followers(authorId, 0, followersCount)) {
+                if (pushChannel.isListening(followerId)) {
+                    pushChannel.publish(followerId, "post", entry);
+                }
+            }
+        } else {
+            // Fewer listeners than followers, as for every celebrity: check each listener instead
+            for (UUID listenerId : listeners) {
+                if (followGraph.isFollowing(listenerId, authorId)) {
+                    pushChannel.publish(listenerId, "post", entry);
+                }
+            }
+        }
+    }
+}
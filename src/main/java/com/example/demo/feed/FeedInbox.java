@@ -0,0 +1,159 @@
+package com.example.demo.feed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The newest entries of one user's home feed, bounded to a fixed capacity. Entries are packed
+ * into a single long[] (timestamp, id high, id low) kept in feed order, so an inbox costs
+ * 24 bytes per entry and a page read is a binary search plus a copy of the page.
+ *
+ * <p>When the inbox is full the oldest entry is dropped; it is still in the feed table, and
+ * {@link Page#complete()} tells the reader to continue there.
+ */
+public final class FeedInbox {
+
+    private static final int STRIDE = 3;
+
+    public record Page(List<FeedEntry> entries, boolean complete) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final long[] slots;
+    private final int capacity;
+    private int size;
+    // Whether older entries than the last one held may exist in the feed table
+    private boolean truncated;
+    private volatile boolean loaded;
+
+    public FeedInbox(int capacity) {
+        this.capacity = capacity;
+        this.slots = new long[capacity * STRIDE];
+    }
+
+    /**
+     * Inserts the entry in feed order. Duplicates are ignored, and so are entries older
+     * than everything in a full inbox.
+     * @return true if the entry was added
+     */
+    public boolean add(FeedEntry entry) {
+        long micros = entry.createdAtMicros();
+        long msb = entry.postId().getMostSignificantBits();
+        long lsb = entry.postId().getLeastSignificantBits();
+
+        lock.lock();
+        try {
+            int index = lowerBound(micros, msb, lsb);
+            if (index < size && compareAt(index, micros, msb, lsb) == 0) {
+                return false;
+            }
+            if (index >= capacity) {
+                truncated = true;
+                return false;
+            }
+            if (size == capacity) {
+                size--;
+                truncated = true;
+            }
+            System.arraycopy(slots, index * STRIDE, slots, (index + 1) * STRIDE, (size - index) * STRIDE);
+            slots[index * STRIDE] = micros;
+            slots[index * STRIDE + 1] = msb;
+            slots[index * STRIDE + 2] = lsb;
+            size++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} entries strictly after {@code before} in feed order, or from
+     * the newest entry if {@code before} is null.
+     */
+    public Page page(FeedEntry before, int limit) {
+        lock.lock();
+        try {
+            int start = 0;
+            if (before != null) {
+                long micros = before.createdAtMicros();
+                long msb = before.postId().getMostSignificantBits();
+                long lsb = before.postId().getLeastSignificantBits();
+                start = lowerBound(micros, msb, lsb);
+                if (start < size && compareAt(start, micros, msb, lsb) == 0) {
+                    start++;
+                }
+            }
+
+            int end = Math.min(size, start + limit);
+            List<FeedEntry> entries = new ArrayList<>(Math.max(0, end - start));
+            for (int i = start; i < end; i++) {
+                int base = i * STRIDE;
+                entries.add(new FeedEntry(new UUID(slots[base + 1], slots[base + 2]), FeedEntry.fromMicros(slots[base])));
+            }
+            return new Page(entries, end < size || !truncated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the cold load once, merging its result with anything pushed in the meantime.
+     * The loader runs under a ReentrantLock rather than a monitor, so virtual threads
+     * waiting on it are not pinned while it does I/O.
+     * @param loader newest entries from the feed table, at most {@code capacity} of them
+     */
+    public void ensureLoaded(Supplier<List<FeedEntry>> loader) {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            List<FeedEntry> entries = loader.get();
+            for (FeedEntry entry : entries) {
+                add(entry);
+            }
+            if (entries.size() >= capacity) {
+                lock.lock();
+                try {
+                    truncated = true;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            loaded = true;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // First index whose entry does not come before the key
+    private int lowerBound(long micros, long msb, long lsb) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareAt(mid, micros, msb, lsb) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareAt(int index, long micros, long msb, long lsb) {
+        int base = index * STRIDE;
+        return FeedEntry.order(slots[base], slots[base + 1], slots[base + 2], micros, msb, lsb);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.feed;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.repository.FeedItemRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Per-user feed inboxes: the newest entries in memory, everything else in feed_items.
+ * Only users who have read their feed recently get an in-memory inbox, and the number
+ * of inboxes is capped, so memory is bounded by max-users x capacity x 24 bytes.
+ */
+@Component
+public class FeedInboxStore {
+
+    private final Cache<UUID, FeedInbox> inboxes;
+    private final FeedItemRepository feedItemRepository;
+    private final FeedWriteBehind writeBehind;
+    private final int capacity;
+
+    public FeedInboxStore(
+            FeedItemRepository feedItemRepository,
+            FeedWriteBehind writeBehind,
+            MeterRegistry meterRegistry,
+            @Value("${feed.inbox.capacity:200}") int capacity,
+            @Value("${feed.inbox.max-users:10000}") long maxUsers,
+            @Value("${feed.inbox.idle-ttl:30m}") Duration idleTtl) {
+        this.feedItemRepository = feedItemRepository;
+        this.writeBehind = writeBehind;
+        this.capacity = capacity;
+        this.inboxes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, inboxes, "feed_inboxes");
+    }
+
+    /**
+     * Adds the entry to the user's inbox if it is in memory, and always to feed_items.
+     */
+    public void push(UUID userId, FeedEntry entry) {
+        FeedInbox inbox = inboxes.getIfPresent(userId);
+        if (inbox != null) {
+            inbox.add(entry);
+        }
+        writeBehind.enqueue(userId, entry);
+    }
+
+    /**
+     * Up to {@code limit} entries after {@code before} (null for the newest). Served from
+     * memory while the page lies within the inbox, from feed_items past it.
+     */
+    public List<FeedEntry> page(UUID userId, FeedEntry before, int limit) {
+        // Created empty and registered first, so pushes during the cold load are not lost
+        FeedInbox inbox = inboxes.get(userId, id -> new FeedInbox(capacity));
+        inbox.ensureLoaded(() -> load(userId));
+
+        FeedInbox.Page page = inbox.page(before, limit);
+        if (page.complete() || page.entries().size() >= limit) {
+            return page.entries();
+        }
+
+        List<FeedEntry> entries = new ArrayList<>(page.entries());
+        FeedEntry last = entries.isEmpty() ? before : entries.get(entries.size() - 1);
+        PageRequest remaining = PageRequest.of(0, limit - entries.size());
+        entries.addAll(last == null
+                ? feedItemRepository.findNewest(userId, remaining)
+                : feedItemRepository.findBefore(userId, last.createdAt(), last.postId(), remaining));
+        return entries;
+    }
+
+    /**
+     * The newest entries from feed_items merged with this user's entries still waiting in
+     * the write-behind queue, which would otherwise be missing from the inbox. Reads the
+     * queue before the table, so an entry committed in between is found in the table.
+     */
+    private List<FeedEntry> load(UUID userId) {
+        List<FeedEntry> queued = writeBehind.pending(userId);
+        List<FeedEntry> stored = feedItemRepository.findNewest(userId, PageRequest.of(0, capacity));
+        if (queued.isEmpty()) {
+            return stored;
+        }
+
+        TreeSet<FeedEntry> merged = new TreeSet<>(FeedEntry.NEWEST_FIRST);
+        merged.addAll(stored);
+        merged.addAll(queued);
+        return merged.stream().limit(capacity).toList();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.feed;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists fanned-out feed entries in batches instead of one insert per follower.
+ * The queue is bounded: when it fills up, the producer flushes inline, which slows
+ * fan-out down rather than growing the heap. Each batch commits in its own transaction,
+ * so an inline flush never joins a transaction the producer's thread is still bound to.
+ */
+@Component
+@Slf4j
+public class FeedWriteBehind {
+
+    private static final String INSERT = """
+            INSERT INTO feed_items (user_id, created_at, post_id) VALUES (?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private record Pending(UUID userId, FeedEntry entry) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Guards the hand-over from the queue to inFlight, so pending() sees every entry in one of them
+    private final ReentrantLock drainLock = new ReentrantLock();
+    // The batch being written, kept after a failure so it is retried before anything newer
+    private List<Pending> inFlight = List.of();
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+
+    public FeedWriteBehind(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${feed.write-behind.queue-capacity:100000}") int queueCapacity,
+            @Value("${feed.write-behind.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+
+        this.writtenCounter = Counter.builder("feed.write_behind.written")
+                .description("Feed entries persisted to feed_items")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("feed.write_behind.dropped")
+                .description("Feed entries dropped because the queue stayed full after a flush")
+                .register(meterRegistry);
+        Gauge.builder("feed.write_behind.queued", queue, BlockingQueue::size)
+                .description("Feed entries waiting to be persisted")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(UUID userId, FeedEntry entry) {
+        Pending pending = new Pending(userId, entry);
+        if (queue.offer(pending)) {
+            return;
+        }
+        flush();
+        if (!queue.offer(pending)) {
+            // Only when the database is refusing writes; the entry stays in any in-memory inbox
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Writes everything queued so far. Holding the lock for the whole drain means a caller
+     * that returns from here knows every entry queued before the call is committed.
+     */
+    @Scheduled(fixedDelayString = "${feed.write-behind.interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            for (List<Pending> batch = nextBatch(); !batch.isEmpty(); batch = nextBatch()) {
+                write(batch);
+                drainLock.lock();
+                try {
+                    inFlight = List.of();
+                } finally {
+                    drainLock.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Feed write-behind flush failed, will retry", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Entries for the user that are not committed yet. Together with a read of feed_items
+     * started after this returns, that covers everything enqueued before the call.
+     */
+    public List<FeedEntry> pending(UUID userId) {
+        List<FeedEntry> entries = new ArrayList<>();
+        drainLock.lock();
+        try {
+            for (Pending pending : inFlight) {
+                if (pending.userId().equals(userId)) {
+                    entries.add(pending.entry());
+                }
+            }
+            for (Pending pending : queue) {
+                if (pending.userId().equals(userId)) {
+                    entries.add(pending.entry());
+                }
+            }
+        } finally {
+            drainLock.unlock();
+        }
+        return entries;
+    }
+
+    // The failed batch again, or the next one from the queue
+    private List<Pending> nextBatch() {
+        drainLock.lock();
+        try {
+            if (inFlight.isEmpty()) {
+                List<Pending> batch = new ArrayList<>(batchSize);
+                queue.drainTo(batch, batchSize);
+                inFlight = batch;
+            }
+            return inFlight;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, batch, batch.size(),
+                (ps, pending) -> {
+                    ps.setObject(1, pending.userId());
+                    ps.setTimestamp(2, Timestamp.valueOf(pending.entry().createdAt()));
+                    ps.setObject(3, pending.entry().postId());
+                }));
+        writtenCounter.increment(batch.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
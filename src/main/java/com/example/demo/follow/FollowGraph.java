@@ -0,0 +1,591 @@
+package com.example.demo.follow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory follow graph. Users are mapped to dense int ids, and each user has an int[] of
+ * followers and of followed accounts, so membership is a binary search, counts are a lookup
+ * and a follower page is an array slice. At 10M edges this is about 80MB of adjacency plus
+ * 40 bytes per user, against several hundred bytes per edge for entities.
+ *
+ * <p>Rows are sorted by user id, compared unsigned as Postgres orders uuids, not by dense
+ * id: dense ids depend on load order, and pages must come out the same on every instance
+ * and after every rebuild. The bulk loader numbers users in uuid order, so its rows sort
+ * as plain ints; only users interned later need the uuid comparison to find their place.
+ *
+ * <p>Rows are edited in place under a write lock: a follow shifts the tail of two rows,
+ * which for a row of a million followers is a 4MB memmove. Reads take the read lock only
+ * for the few microseconds they touch the arrays.
+ */
+public final class FollowGraph {
+
+    private static final int[] EMPTY_ROW = new int[0];
+    private static final int NOT_FOUND = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Open-addressing table from uuid to dense id; tableIds holds id + 1 so zero marks a free slot
+    private long[] tableMsb;
+    private long[] tableLsb;
+    private int[] tableIds;
+
+    // Reverse mapping from dense id to uuid
+    private long[] idMsb;
+    private long[] idLsb;
+    private int userCount;
+
+    // Rows are sorted by user id and may have unused capacity past the count
+    private int[][] followers;
+    private int[][] following;
+    private int[] followerCounts;
+    private int[] followingCounts;
+    private long edgeCount;
+
+    public FollowGraph() {
+        this(1024);
+    }
+
+    public FollowGraph(int expectedUsers) {
+        int capacity = Math.max(16, expectedUsers);
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.tableMsb = new long[tableSize];
+        this.tableLsb = new long[tableSize];
+        this.tableIds = new int[tableSize];
+        this.idMsb = new long[capacity];
+        this.idLsb = new long[capacity];
+        this.followers = new int[capacity][];
+        this.following = new int[capacity][];
+        this.followerCounts = new int[capacity];
+        this.followingCounts = new int[capacity];
+    }
+
+    /**
+     * @return true if the edge was added, false if it already existed
+     */
+    public boolean follow(UUID follower, UUID followee) {
+        lock.writeLock().lock();
+        try {
+            int a = intern(follower);
+            int b = intern(followee);
+            if (!insert(following, followingCounts, a, b)) {
+                return false;
+            }
+            insert(followers, followerCounts, b, a);
+            edgeCount++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if the edge was removed, false if it did not exist
+     */
+    public boolean unfollow(UUID follower, UUID followee) {
+        lock.writeLock().lock();
+        try {
+            int a = find(follower);
+            int b = find(followee);
+            if (a == NOT_FOUND || b == NOT_FOUND || !remove(following, followingCounts, a, b)) {
+                return false;
+            }
+            remove(followers, followerCounts, b, a);
+            edgeCount--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isFollowing(UUID follower, UUID followee) {
+        lock.readLock().lock();
+        try {
+            return hasEdge(find(follower), find(followee));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isMutual(UUID a, UUID b) {
+        lock.readLock().lock();
+        try {
+            int x = find(a);
+            int y = find(b);
+            return hasEdge(x, y) && hasEdge(y, x);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int followersCount(UUID user) {
+        lock.readLock().lock();
+        try {
+            int id = find(user);
+            return id == NOT_FOUND ? 0 : followerCounts[id];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int followingCount(UUID user) {
+        lock.readLock().lock();
+        try {
+            int id = find(user);
+            return id == NOT_FOUND ? 0 : followingCounts[id];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A slice of the user's followers ordered by follower id, so the same offset gives the
+     * same page on every instance and across rebuilds.
+     */
+    public List<UUID> followers(UUID user, int offset, int limit) {
+        return slice(followers, followerCounts, user, offset, limit);
+    }
+
+    public List<UUID> following(UUID user, int offset, int limit) {
+        return slice(following, followingCounts, user, offset, limit);
+    }
+
+    /**
+     * Accounts the user follows that have more than {@code threshold} followers.
+     */
+    public List<UUID> followingWithMoreFollowersThan(UUID user, int threshold) {
+        lock.readLock().lock();
+        try {
+            int id = find(user);
+            if (id == NOT_FOUND) {
+                return List.of();
+            }
+            List<UUID> result = new ArrayList<>();
+            int[] row = following[id];
+            for (int i = 0; i < followingCounts[id]; i++) {
+                if (followerCounts[row[i]] > threshold) {
+                    result.add(uuid(row[i]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Friends-of-friends: accounts followed by the accounts the user follows, ranked by how
+     * many of them follow it, then by follower count. At most {@code maxScan} edges are
+     * visited, starting from a random followed account so repeated calls vary.
+     */
+    public List<UUID> suggestions(UUID user, int limit, int maxScan) {
+        lock.readLock().lock();
+        try {
+            int me = find(user);
+            if (me == NOT_FOUND || followingCounts[me] == 0 || limit <= 0) {
+                return List.of();
+            }
+            int[] mine = following[me];
+            int mineCount = followingCounts[me];
+
+            IntCounter mutuals = new IntCounter(maxScan);
+            int scanned = 0;
+            int start = ThreadLocalRandom.current().nextInt(mineCount);
+            scan:
+            for (int i = 0; i < mineCount; i++) {
+                int friend = mine[(start + i) % mineCount];
+                int[] row = following[friend];
+                for (int j = 0; j < followingCounts[friend]; j++) {
+                    if (scanned++ == maxScan) {
+                        break scan;
+                    }
+                    int candidate = row[j];
+                    if (candidate != me && indexOf(mine, mineCount, candidate) < 0) {
+                        mutuals.increment(candidate);
+                    }
+                }
+            }
+
+            TopK top = new TopK(limit);
+            mutuals.forEach((candidate, count) ->
+                    top.offer(candidate, ((long) count << 32) | followerCounts[candidate]));
+            return top.uuids(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The most-followed users, for users with no follows to start suggestions from. Scans
+     * every user, so callers should cache the result.
+     */
+    public List<UUID> mostFollowed(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            TopK top = new TopK(limit);
+            for (int id = 0; id < userCount; id++) {
+                if (followerCounts[id] > 0) {
+                    top.offer(id, followerCounts[id]);
+                }
+            }
+            return top.uuids(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int userCount() {
+        lock.readLock().lock();
+        try {
+            return userCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long edgeCount() {
+        lock.readLock().lock();
+        try {
+            return edgeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<UUID> slice(int[][] rows, int[] counts, UUID user, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int id = find(user);
+            if (id == NOT_FOUND || offset >= counts[id]) {
+                return List.of();
+            }
+            int end = (int) Math.min(counts[id], (long) offset + limit);
+            List<UUID> result = new ArrayList<>(end - offset);
+            for (int i = offset; i < end; i++) {
+                result.add(uuid(rows[id][i]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean hasEdge(int follower, int followee) {
+        return follower != NOT_FOUND && followee != NOT_FOUND
+                && indexOf(following[follower], followingCounts[follower], followee) >= 0;
+    }
+
+    /**
+     * Binary search of a row by user id; the result is encoded like {@link Arrays#binarySearch}.
+     */
+    private int indexOf(int[] row, int count, int id) {
+        long msb = idMsb[id];
+        long lsb = idLsb[id];
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = row[mid] == id ? 0 : compare(row[mid], msb, lsb);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int compare(int id, long msb, long lsb) {
+        int c = Long.compareUnsigned(idMsb[id], msb);
+        return c != 0 ? c : Long.compareUnsigned(idLsb[id], lsb);
+    }
+
+    private UUID uuid(int id) {
+        return new UUID(idMsb[id], idLsb[id]);
+    }
+
+    private int find(UUID user) {
+        long msb = user.getMostSignificantBits();
+        long lsb = user.getLeastSignificantBits();
+        int mask = tableIds.length - 1;
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int stored = tableIds[slot];
+            if (stored == 0) {
+                return NOT_FOUND;
+            }
+            if (tableMsb[slot] == msb && tableLsb[slot] == lsb) {
+                return stored - 1;
+            }
+        }
+    }
+
+    private int intern(UUID user) {
+        int existing = find(user);
+        if (existing != NOT_FOUND) {
+            return existing;
+        }
+        if (userCount == idMsb.length) {
+            growUsers();
+        }
+        if ((userCount + 1) * 2 > tableIds.length) {
+            rehash(tableIds.length * 2);
+        }
+        int id = userCount++;
+        idMsb[id] = user.getMostSignificantBits();
+        idLsb[id] = user.getLeastSignificantBits();
+        followers[id] = EMPTY_ROW;
+        following[id] = EMPTY_ROW;
+        place(idMsb[id], idLsb[id], id);
+        return id;
+    }
+
+    private void place(long msb, long lsb, int id) {
+        int mask = tableIds.length - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (tableIds[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        tableMsb[slot] = msb;
+        tableLsb[slot] = lsb;
+        tableIds[slot] = id + 1;
+    }
+
+    private void rehash(int tableSize) {
+        tableMsb = new long[tableSize];
+        tableLsb = new long[tableSize];
+        tableIds = new int[tableSize];
+        for (int id = 0; id < userCount; id++) {
+            place(idMsb[id], idLsb[id], id);
+        }
+    }
+
+    private void growUsers() {
+        int capacity = idMsb.length + (idMsb.length >> 1);
+        idMsb = Arrays.copyOf(idMsb, capacity);
+        idLsb = Arrays.copyOf(idLsb, capacity);
+        followers = Arrays.copyOf(followers, capacity);
+        following = Arrays.copyOf(following, capacity);
+        followerCounts = Arrays.copyOf(followerCounts, capacity);
+        followingCounts = Arrays.copyOf(followingCounts, capacity);
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private boolean insert(int[][] rows, int[] counts, int owner, int value) {
+        int[] row = rows[owner];
+        int count = counts[owner];
+        int position = indexOf(row, count, value);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (count == row.length) {
+            row = Arrays.copyOf(row, Math.max(4, count + (count >> 1)));
+            rows[owner] = row;
+        }
+        System.arraycopy(row, position, row, position + 1, count - position);
+        row[position] = value;
+        counts[owner] = count + 1;
+        return true;
+    }
+
+    private boolean remove(int[][] rows, int[] counts, int owner, int value) {
+        int[] row = rows[owner];
+        int count = counts[owner];
+        int position = indexOf(row, count, value);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(row, position + 1, row, position, count - position - 1);
+        counts[owner] = --count;
+        // Give back the memory of rows that have shrunk to a quarter of their capacity
+        if (row.length > 16 && count < row.length / 4) {
+            rows[owner] = Arrays.copyOf(row, count * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Bulk loader: collects edges, then lays out every row in one pass and sorts it, which
+     * is far cheaper than inserting edges one by one. Not thread-safe; the graph it returns is.
+     */
+    public static final class Builder {
+
+        private final FollowGraph graph;
+        private int[] edgeFollowers = new int[1024];
+        private int[] edgeFollowees = new int[1024];
+        private int edges;
+
+        public Builder(int expectedUsers) {
+            this.graph = new FollowGraph(expectedUsers);
+        }
+
+        public Builder addEdge(UUID follower, UUID followee) {
+            if (edges == edgeFollowers.length) {
+                int capacity = edges + (edges >> 1);
+                edgeFollowers = Arrays.copyOf(edgeFollowers, capacity);
+                edgeFollowees = Arrays.copyOf(edgeFollowees, capacity);
+            }
+            edgeFollowers[edges] = graph.intern(follower);
+            edgeFollowees[edges] = graph.intern(followee);
+            edges++;
+            return this;
+        }
+
+        public FollowGraph build() {
+            FollowGraph g = graph;
+            renumberInUuidOrder();
+            for (int i = 0; i < edges; i++) {
+                g.followingCounts[edgeFollowers[i]]++;
+                g.followerCounts[edgeFollowees[i]]++;
+            }
+            for (int id = 0; id < g.userCount; id++) {
+                g.following[id] = g.followingCounts[id] == 0 ? EMPTY_ROW : new int[g.followingCounts[id]];
+                g.followers[id] = g.followerCounts[id] == 0 ? EMPTY_ROW : new int[g.followerCounts[id]];
+            }
+            Arrays.fill(g.followingCounts, 0);
+            Arrays.fill(g.followerCounts, 0);
+            for (int i = 0; i < edges; i++) {
+                int a = edgeFollowers[i];
+                int b = edgeFollowees[i];
+                g.following[a][g.followingCounts[a]++] = b;
+                g.followers[b][g.followerCounts[b]++] = a;
+            }
+            edgeFollowers = null;
+            edgeFollowees = null;
+
+            long total = 0;
+            for (int id = 0; id < g.userCount; id++) {
+                g.followingCounts[id] = sortDistinct(g.following[id], g.followingCounts[id]);
+                g.followerCounts[id] = sortDistinct(g.followers[id], g.followerCounts[id]);
+                total += g.followingCounts[id];
+            }
+            g.edgeCount = total;
+            return g;
+        }
+
+        // After this, sorting a row by dense id sorts it by user id
+        private void renumberInUuidOrder() {
+            FollowGraph g = graph;
+            Integer[] order = new Integer[g.userCount];
+            for (int id = 0; id < order.length; id++) {
+                order[id] = id;
+            }
+            Arrays.sort(order, (a, b) -> g.compare(a, g.idMsb[b], g.idLsb[b]));
+
+            int[] renumbered = new int[order.length];
+            long[] msb = new long[g.idMsb.length];
+            long[] lsb = new long[g.idLsb.length];
+            for (int rank = 0; rank < order.length; rank++) {
+                renumbered[order[rank]] = rank;
+                msb[rank] = g.idMsb[order[rank]];
+                lsb[rank] = g.idLsb[order[rank]];
+            }
+            g.idMsb = msb;
+            g.idLsb = lsb;
+            g.rehash(g.tableIds.length);
+            for (int i = 0; i < edges; i++) {
+                edgeFollowers[i] = renumbered[edgeFollowers[i]];
+                edgeFollowees[i] = renumbered[edgeFollowees[i]];
+            }
+        }
+
+        private static int sortDistinct(int[] row, int count) {
+            Arrays.sort(row, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (distinct == 0 || row[distinct - 1] != row[i]) {
+                    row[distinct++] = row[i];
+                }
+            }
+            return distinct;
+        }
+    }
+
+    /**
+     * Open-addressing int to count map, sized up front for at most {@code maxKeys} keys.
+     */
+    private static final class IntCounter {
+
+        private final int[] keys;
+        private final int[] counts;
+
+        IntCounter(int maxKeys) {
+            int size = Integer.highestOneBit(Math.max(8, maxKeys) * 2 - 1) << 1;
+            this.keys = new int[size];
+            this.counts = new int[size];
+        }
+
+        void increment(int key) {
+            int mask = keys.length - 1;
+            int slot = (key * 0x9E3779B9) & mask;
+            while (counts[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            counts[slot]++;
+        }
+
+        void forEach(IntCountConsumer consumer) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (counts[slot] != 0) {
+                    consumer.accept(keys[slot], counts[slot]);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntCountConsumer {
+        void accept(int key, int count);
+    }
+
+    /**
+     * The k highest-scoring ids, kept in a small sorted array; k is a page size.
+     */
+    private static final class TopK {
+
+        private final int[] ids;
+        private final long[] scores;
+        private int size;
+
+        TopK(int k) {
+            this.ids = new int[k];
+            this.scores = new long[k];
+        }
+
+        void offer(int id, long score) {
+            if (size == ids.length && score <= scores[size - 1]) {
+                return;
+            }
+            int position = size == ids.length ? size - 1 : size++;
+            while (position > 0 && scores[position - 1] < score) {
+                ids[position] = ids[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            ids[position] = id;
+            scores[position] = score;
+        }
+
+        List<UUID> uuids(FollowGraph graph) {
+            List<UUID> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(graph.uuid(ids[i]));
+            }
+            return result;
+        }
+    }
+}
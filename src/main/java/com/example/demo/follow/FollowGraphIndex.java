@@ -0,0 +1,256 @@
+package com.example.demo.follow;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves follow reads from a {@link FollowGraph}. The follows table stays the source of
+ * truth: the graph is loaded from it before the server takes traffic, and committed follows
+ * and unfollows are applied to it incrementally. Follows committed by other instances are
+ * picked up every few seconds from follows.created_at; their unfollows leave no row behind,
+ * so those only show up at the next rebuild.
+ *
+ * <p>A rebuild loads a fresh graph while the old one keeps serving. Mutations arriving
+ * meanwhile go to both, and are replayed onto the new graph before it is swapped in.
+ */
+@Component
+@Slf4j
+public class FollowGraphIndex implements SmartInitializingSingleton {
+
+    private static final String LOAD_EDGES = "SELECT follower_id, following_id FROM follows";
+    private static final String LOAD_RECENT_EDGES =
+            "SELECT follower_id, following_id FROM follows WHERE created_at > ?";
+    // created_at is the follow transaction's start, so rows can commit a while after it
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+    private static final int POPULAR_SIZE = 100;
+
+    private record Mutation(UUID follower, UUID followee, boolean follow) {
+    }
+
+    private record Popular(List<UUID> userIds, long computedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int suggestionScanLimit;
+    private final long popularRefreshNanos;
+
+    private final ReentrantLock mutationLock = new ReentrantLock();
+    private volatile FollowGraph graph = new FollowGraph();
+    // Non-null while a rebuild is loading; guarded by mutationLock
+    private List<Mutation> replay;
+    // Database time before the last load or sync; guarded by mutationLock
+    private LocalDateTime syncedUpTo;
+    private volatile Popular popular = new Popular(List.of(), 0);
+
+    public FollowGraphIndex(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${follow.graph.suggestion-scan-limit:20000}") int suggestionScanLimit,
+            @Value("${follow.graph.popular-refresh:PT1M}") Duration popularRefresh) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.suggestionScanLimit = suggestionScanLimit;
+        this.popularRefreshNanos = popularRefresh.toNanos();
+
+        Gauge.builder("follow.graph.users", this, index -> index.graph.userCount())
+                .register(meterRegistry);
+        Gauge.builder("follow.graph.edges", this, index -> index.graph.edgeCount())
+                .register(meterRegistry);
+    }
+
+    // Runs before the web server starts, so no request sees an empty graph
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${follow.graph.rebuild-interval:PT15M}",
+            initialDelayString = "${follow.graph.rebuild-interval:PT15M}")
+    public void rebuild() {
+        mutationLock.lock();
+        try {
+            replay = new ArrayList<>();
+            syncedUpTo = databaseTime();
+        } finally {
+            mutationLock.unlock();
+        }
+
+        long start = System.nanoTime();
+        FollowGraph next = null;
+        try {
+            next = load();
+        } finally {
+            mutationLock.lock();
+            try {
+                if (next != null) {
+                    for (Mutation mutation : replay) {
+                        apply(next, mutation);
+                    }
+                    graph = next;
+                    popular = new Popular(List.of(), 0);
+                }
+                replay = null;
+            } finally {
+                mutationLock.unlock();
+            }
+        }
+        log.info("Follow graph loaded: {} users, {} edges in {} ms",
+                next.userCount(), next.edgeCount(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * Applies follows committed by other instances since the last load or sync. Runs under
+     * the mutation lock, so an unfollow committed after the query read its row is applied
+     * after the stale follow, not before it.
+     */
+    @Scheduled(fixedDelayString = "${follow.graph.sync-interval:PT10S}",
+            initialDelayString = "${follow.graph.sync-interval:PT10S}")
+    public void sync() {
+        mutationLock.lock();
+        try {
+            LocalDateTime now = databaseTime();
+            List<Mutation> recent = jdbcTemplate.query(LOAD_RECENT_EDGES,
+                    (rs, row) -> new Mutation(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), true),
+                    syncedUpTo.minus(SYNC_OVERLAP));
+            for (Mutation mutation : recent) {
+                applyLocked(mutation);
+            }
+            syncedUpTo = now;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    /**
+     * Call once the follow has committed.
+     */
+    public void follow(UUID follower, UUID followee) {
+        mutate(new Mutation(follower, followee, true));
+    }
+
+    /**
+     * Call once the unfollow has committed.
+     */
+    public void unfollow(UUID follower, UUID followee) {
+        mutate(new Mutation(follower, followee, false));
+    }
+
+    public boolean isFollowing(UUID follower, UUID followee) {
+        return graph.isFollowing(follower, followee);
+    }
+
+    public boolean isMutual(UUID a, UUID b) {
+        return graph.isMutual(a, b);
+    }
+
+    public int followersCount(UUID userId) {
+        return graph.followersCount(userId);
+    }
+
+    public int followingCount(UUID userId) {
+        return graph.followingCount(userId);
+    }
+
+    public List<UUID> followers(UUID userId, int offset, int limit) {
+        return graph.followers(userId, offset, limit);
+    }
+
+    public List<UUID> following(UUID userId, int offset, int limit) {
+        return graph.following(userId, offset, limit);
+    }
+
+    public List<UUID> followingWithMoreFollowersThan(UUID userId, int threshold) {
+        return graph.followingWithMoreFollowersThan(userId, threshold);
+    }
+
+    /**
+     * Friends-of-friends first, topped up with the most-followed accounts the user does not
+     * follow yet.
+     */
+    public List<UUID> suggestions(UUID userId, int limit) {
+        FollowGraph current = graph;
+        Set<UUID> result = new LinkedHashSet<>(current.suggestions(userId, limit, suggestionScanLimit));
+        if (result.size() < limit) {
+            for (UUID candidate : popular(current)) {
+                if (result.size() == limit) {
+                    break;
+                }
+                if (!candidate.equals(userId) && !current.isFollowing(userId, candidate)) {
+                    result.add(candidate);
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private List<UUID> popular(FollowGraph current) {
+        Popular cached = popular;
+        if (System.nanoTime() - cached.computedAt() > popularRefreshNanos || cached.computedAt() == 0) {
+            // Concurrent refreshes are harmless, the scan is a few milliseconds at most
+            cached = new Popular(current.mostFollowed(POPULAR_SIZE), System.nanoTime());
+            popular = cached;
+        }
+        return cached.userIds();
+    }
+
+    private void mutate(Mutation mutation) {
+        mutationLock.lock();
+        try {
+            applyLocked(mutation);
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    private void applyLocked(Mutation mutation) {
+        apply(graph, mutation);
+        if (replay != null) {
+            replay.add(mutation);
+        }
+    }
+
+    private LocalDateTime databaseTime() {
+        // follows.created_at is written with now() into a timestamp without time zone
+        return jdbcTemplate.queryForObject("SELECT localtimestamp", LocalDateTime.class);
+    }
+
+    private static void apply(FollowGraph target, Mutation mutation) {
+        if (mutation.follow()) {
+            target.follow(mutation.follower(), mutation.followee());
+        } else {
+            target.unfollow(mutation.follower(), mutation.followee());
+        }
+    }
+
+    private FollowGraph load() {
+        Integer users = jdbcTemplate.queryForObject("SELECT count(*) FROM users", Integer.class);
+        FollowGraph.Builder builder = new FollowGraph.Builder(users != null ? users : 0);
+        // Postgres only streams with a cursor inside a transaction; otherwise the whole result is buffered
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(LOAD_EDGES);
+            statement.setFetchSize(10_000);
+            return statement;
+        }, (RowCallbackHandler) rs -> builder.addEdge(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class))));
+        return builder.build();
+    }
+}
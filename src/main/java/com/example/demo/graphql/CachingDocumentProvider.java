@@ -0,0 +1,79 @@
+package com.example.demo.graphql;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+/**
+ * Keeps parsed and validated documents keyed by the SHA-256 of their text, so a hot query
+ * is parsed and validated once. The same keys serve Apollo-style automatic persisted
+ * queries: a client may send only {@code extensions.persistedQuery.sha256Hash}, and
+ * resends the full text after a {@code PersistedQueryNotFound} error. The cache is
+ * bounded, so an evicted query costs the client that one retry.
+ */
+public class CachingDocumentProvider implements PreparsedDocumentProvider {
+
+    private final Cache<String, PreparsedDocumentEntry> documents;
+
+    public CachingDocumentProvider(long maxDocuments) {
+        this.documents = Caffeine.newBuilder()
+                .maximumSize(maxDocuments)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput executionInput,
+            Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        String hash = persistedQueryHash(executionInput.getExtensions());
+
+        if (query == null || query.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            if (hash == null) {
+                return CompletableFuture.completedFuture(parseAndValidateFunction.apply(executionInput));
+            }
+            PreparsedDocumentEntry entry = documents.getIfPresent(hash);
+            return CompletableFuture.completedFuture(
+                    entry != null ? entry : new PreparsedDocumentEntry(new PersistedQueryNotFound(hash)));
+        }
+
+        String key = sha256(query);
+        if (hash != null && !hash.equalsIgnoreCase(key)) {
+            return CompletableFuture.completedFuture(new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+                    .message("PersistedQueryIdInvalid")
+                    .build()));
+        }
+        return CompletableFuture.completedFuture(documents.get(key, k -> parseAndValidateFunction.apply(executionInput)));
+    }
+
+    private static String persistedQueryHash(Map<String, Object> extensions) {
+        if (extensions != null && extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery
+                && persistedQuery.get("sha256Hash") instanceof String hash) {
+            return hash.toLowerCase();
+        }
+        return null;
+    }
+
+    private static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
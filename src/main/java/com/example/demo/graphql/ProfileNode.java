@@ -0,0 +1,19 @@
+package com.example.demo.graphql;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The GraphQL {@code Profile} type. Carries the owner's id instead of the user, which is
+ * loaded in a batch only when the query asks for it.
+ */
+public record ProfileNode(
+        UUID id,
+        UUID userId,
+        String username,
+        String bio,
+        String profilePhotoUrl,
+        String profilePhotoMediumUrl,
+        String profilePhotoSmallUrl,
+        LocalDateTime createdAt) {
+}
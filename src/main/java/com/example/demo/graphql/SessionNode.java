@@ -0,0 +1,10 @@
+package com.example.demo.graphql;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The GraphQL {@code Session} type; the token hash is never exposed.
+ */
+public record SessionNode(UUID id, UUID userId, LocalDateTime createdAt, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,10 @@
+package com.example.demo.graphql;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The GraphQL {@code User} type, projected without the credentials columns.
+ */
+public record UserNode(UUID id, String name, int followersCount, int followingCount, LocalDateTime createdAt) {
+}
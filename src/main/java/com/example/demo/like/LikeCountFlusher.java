@@ -0,0 +1,87 @@
+package com.example.demo.like;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the accumulated like deltas to posts.likes_count: one UPDATE per post per interval,
+ * however many likes it received, sent as JDBC batches. Posts are updated in id order so
+ * two instances flushing at once lock rows in the same order and cannot deadlock.
+ */
+@Component
+@Slf4j
+public class LikeCountFlusher {
+
+    private static final String UPDATE = "UPDATE posts SET likes_count = likes_count + ? WHERE id = ?";
+
+    private final LikeCounters likeCounters;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter flushedCounter;
+
+    public LikeCountFlusher(
+            LikeCounters likeCounters,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${likes.flush.batch-size:500}") int batchSize) {
+        this.likeCounters = likeCounters;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.flushedCounter = Counter.builder("likes.flush.posts")
+                .description("Post like counts written to the database")
+                .register(meterRegistry);
+        Gauge.builder("likes.pending.posts", likeCounters, LikeCounters::size)
+                .description("Posts with like counters held in memory")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${likes.flush.interval:PT2S}")
+    public void flush() {
+        Map<UUID, Long> deltas = likeCounters.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<UUID, Long>> entries = new ArrayList<>(deltas.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<UUID, Long>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE, batch, batch.size(),
+                        (ps, entry) -> {
+                            ps.setLong(1, entry.getValue());
+                            ps.setObject(2, entry.getKey());
+                        }));
+                flushedCounter.increment(batch.size());
+            } catch (RuntimeException e) {
+                // Keep the remaining deltas in memory; the next flush retries them
+                List<Map.Entry<UUID, Long>> remaining = entries.subList(from, entries.size());
+                remaining.forEach(entry -> likeCounters.add(entry.getKey(), entry.getValue()));
+                log.warn("Failed to flush like counts for {} posts, will retry", remaining.size(), e);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.like;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Like count deltas not yet written to posts.likes_count, one {@link LongAdder} per post.
+ * Concurrent likes on a viral post spread over the adder's cells instead of queueing on one
+ * row lock; {@link #drain()} hands the accumulated deltas to the flusher.
+ *
+ * <p>A drain subtracts exactly the sum it read, so increments racing with it stay in the
+ * adder for the next drain. Posts idle for two drains are retired and removed from the map.
+ * A writer that looked up a cell just before it was retired sees the flag and retries on a
+ * fresh cell; one that got past the flag is counted in {@code writers}, and the retired cell
+ * is only drained for the last time once that count is back to zero.
+ */
+@Component
+public class LikeCounters {
+
+    private static final int IDLE_DRAINS_BEFORE_RETIRING = 2;
+
+    private static final class Cell {
+        final LongAdder delta = new LongAdder();
+        // Writers that have checked retired and may not have added yet
+        final LongAdder writers = new LongAdder();
+        volatile boolean retired;
+        // Guarded by drainLock
+        int idleDrains;
+    }
+
+    private record Retired(UUID postId, Cell cell) {
+    }
+
+    private final ConcurrentHashMap<UUID, Cell> cells = new ConcurrentHashMap<>();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    // Retired cells that still had a writer in flight; guarded by drainLock
+    private final List<Retired> retiring = new ArrayList<>();
+
+    public void add(UUID postId, long delta) {
+        while (true) {
+            Cell cell = cells.computeIfAbsent(postId, id -> new Cell());
+            cell.writers.increment();
+            try {
+                if (!cell.retired) {
+                    cell.delta.add(delta);
+                    return;
+                }
+            } finally {
+                cell.writers.decrement();
+            }
+            // Retired between the lookup and the check; it is being removed, so retry
+        }
+    }
+
+    /**
+     * The delta not yet flushed for this post, for read-your-writes on this instance.
+     */
+    public long pending(UUID postId) {
+        Cell cell = cells.get(postId);
+        return cell != null ? cell.delta.sum() : 0;
+    }
+
+    /**
+     * Takes every non-zero delta accumulated since the last drain.
+     */
+    public Map<UUID, Long> drain() {
+        drainLock.lock();
+        try {
+            Map<UUID, Long> deltas = new HashMap<>();
+            for (Iterator<Retired> it = retiring.iterator(); it.hasNext(); ) {
+                Retired retired = it.next();
+                if (retired.cell().writers.sum() == 0) {
+                    take(deltas, retired.postId(), retired.cell());
+                    it.remove();
+                }
+            }
+
+            for (Map.Entry<UUID, Cell> entry : cells.entrySet()) {
+                UUID postId = entry.getKey();
+                Cell cell = entry.getValue();
+                if (take(deltas, postId, cell)) {
+                    cell.idleDrains = 0;
+                } else if (++cell.idleDrains >= IDLE_DRAINS_BEFORE_RETIRING) {
+                    cell.retired = true;
+                    cells.remove(postId, cell);
+                    // Writers that saw the cell live are either counted here or already added
+                    if (cell.writers.sum() == 0) {
+                        take(deltas, postId, cell);
+                    } else {
+                        retiring.add(new Retired(postId, cell));
+                    }
+                }
+            }
+            return deltas;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public int size() {
+        return cells.size();
+    }
+
+    private static boolean take(Map<UUID, Long> deltas, UUID postId, Cell cell) {
+        long sum = cell.delta.sum();
+        if (sum == 0) {
+            return false;
+        }
+        cell.delta.add(-sum);
+        deltas.merge(postId, sum, Long::sum);
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.like;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The posts one user has liked, as 64-bit fingerprints in an open-addressing table:
+ * 8 to 16 bytes per like instead of a UUID object and a hash-set node. Two post ids share
+ * a fingerprint with probability around n / 2^64, which is negligible for a like badge.
+ */
+final class LikedPostSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] slots;
+    private int size;
+
+    LikedPostSet(Collection<UUID> postIds) {
+        this.slots = new long[capacityFor(postIds.size())];
+        for (UUID postId : postIds) {
+            insert(fingerprint(postId));
+        }
+    }
+
+    boolean contains(UUID postId) {
+        long fingerprint = fingerprint(postId);
+        lock.lock();
+        try {
+            int mask = slots.length - 1;
+            for (int slot = index(fingerprint, mask); slots[slot] != 0; slot = (slot + 1) & mask) {
+                if (slots[slot] == fingerprint) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void add(UUID postId) {
+        lock.lock();
+        try {
+            if ((size + 1) * 2 > slots.length) {
+                long[] old = slots;
+                slots = new long[old.length * 2];
+                size = 0;
+                for (long fingerprint : old) {
+                    if (fingerprint != 0) {
+                        insert(fingerprint);
+                    }
+                }
+            }
+            insert(fingerprint(postId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(UUID postId) {
+        long fingerprint = fingerprint(postId);
+        lock.lock();
+        try {
+            int mask = slots.length - 1;
+            int slot = index(fingerprint, mask);
+            while (slots[slot] != fingerprint) {
+                if (slots[slot] == 0) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // Backward-shift deletion keeps every remaining entry reachable from its home slot
+            int hole = slot;
+            for (int next = (hole + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+                int home = index(slots[next], mask);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    slots[hole] = slots[next];
+                    hole = next;
+                }
+            }
+            slots[hole] = 0;
+            size--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Cache weight, in slots
+    int capacity() {
+        return slots.length;
+    }
+
+    private void insert(long fingerprint) {
+        int mask = slots.length - 1;
+        int slot = index(fingerprint, mask);
+        while (slots[slot] != 0) {
+            if (slots[slot] == fingerprint) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = fingerprint;
+        size++;
+    }
+
+    private static int capacityFor(int entries) {
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+    }
+
+    private static int index(long fingerprint, int mask) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    // Zero marks an empty slot, so it is never a fingerprint
+    private static long fingerprint(UUID postId) {
+        long h = (postId.getMostSignificantBits() ^ Long.rotateLeft(postId.getLeastSignificantBits(), 29))
+                * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 31;
+        return h != 0 ? h : 1;
+    }
+}
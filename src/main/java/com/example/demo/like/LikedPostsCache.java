@@ -0,0 +1,123 @@
+package com.example.demo.like;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.cache.CallerLoads;
+import com.example.demo.repository.PostLikeRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Answers "which of these posts has the user liked" for a page of posts from a per-user
+ * {@link LikedPostSet}, loaded once from the likes table and kept current on like and
+ * unlike. Users with more than {@code likes.liked-cache.max-per-user} likes are not
+ * cached; their pages are checked with one indexed query instead.
+ *
+ * <p>Sets expire a fixed time after loading, however often they are read: likes committed
+ * on other instances never reach this one's sets, and reloading is what picks them up.
+ */
+@Component
+public class LikedPostsCache {
+
+    static final String CACHE_NAME = "liked_posts";
+
+    // Shared marker for users whose likes are too many to hold in memory
+    private static final LikedPostSet TOO_LARGE = new LikedPostSet(List.of());
+
+    private final AsyncCache<UUID, LikedPostSet> cache;
+    private final PostLikeRepository likeRepository;
+    private final int maxPerUser;
+
+    public LikedPostsCache(
+            PostLikeRepository likeRepository,
+            MeterRegistry meterRegistry,
+            @Value("${likes.liked-cache.max-slots:8000000}") long maxSlots,
+            @Value("${likes.liked-cache.max-per-user:10000}") int maxPerUser,
+            @Value("${likes.liked-cache.ttl:10m}") Duration ttl) {
+        this.likeRepository = likeRepository;
+        this.maxPerUser = maxPerUser;
+        // Weighed in table slots (8 bytes each) when loaded; growth afterwards is at most 2x
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSlots)
+                .<UUID, LikedPostSet>weigher((userId, set) -> set.capacity())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    public Set<UUID> likedAmong(UUID userId, Collection<UUID> postIds) {
+        if (postIds.isEmpty()) {
+            return Set.of();
+        }
+        LikedPostSet liked = get(userId);
+        if (liked == TOO_LARGE) {
+            return new HashSet<>(likeRepository.findLikedPostIds(userId, postIds));
+        }
+        Set<UUID> result = new HashSet<>();
+        for (UUID postId : postIds) {
+            if (liked.contains(postId)) {
+                result.add(postId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Call once the like has committed.
+     */
+    public void onLiked(UUID userId, UUID postId) {
+        LikedPostSet liked = loaded(userId);
+        if (liked != null && liked != TOO_LARGE) {
+            liked.add(postId);
+        }
+    }
+
+    /**
+     * Call once the unlike has committed.
+     */
+    public void onUnliked(UUID userId, UUID postId) {
+        LikedPostSet liked = loaded(userId);
+        if (liked != null && liked != TOO_LARGE) {
+            liked.remove(postId);
+        }
+    }
+
+    /**
+     * The cached set if fully loaded. A load still in flight may have read the table before
+     * the change committed, so it is dropped and can no longer populate the cache.
+     */
+    private LikedPostSet loaded(UUID userId) {
+        CompletableFuture<LikedPostSet> future = cache.getIfPresent(userId);
+        if (future == null) {
+            return null;
+        }
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            cache.synchronous().invalidate(userId);
+            return null;
+        }
+        return future.join();
+    }
+
+    private LikedPostSet get(UUID userId) {
+        return CallerLoads.get(cache, userId, this::load);
+    }
+
+    private LikedPostSet load(UUID userId) {
+        List<UUID> postIds = likeRepository.findPostIdsByUserId(userId, PageRequest.of(0, maxPerUser + 1));
+        return postIds.size() > maxPerUser ? TOO_LARGE : new LikedPostSet(postIds);
+    }
+}
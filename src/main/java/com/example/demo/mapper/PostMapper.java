@@ -0,0 +1,28 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.CreatePostRequest;
+import com.example.demo.dto.UpdatePostRequest;
+import com.example.demo.entity.Post;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValueCheckStrategy;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Post request-to-entity mapping. Reads never go through here: they are projected
+ * straight into PostDTO by the repository.
+ */
+@Mapper(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface PostMapper {
+
+    Post toEntity(CreatePostRequest request);
+
+    void update(@MappingTarget Post post, UpdatePostRequest request);
+}
@@ -0,0 +1,24 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.ProfileDTO;
+import com.example.demo.dto.ProfileRequest;
+import com.example.demo.entity.Profile;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.NullValueCheckStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Profile request/entity/DTO conversions. Null request fields leave the target untouched.
+ */
+@Mapper(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface ProfileMapper {
+
+    Profile toEntity(ProfileRequest profileRequest);
+
+    ProfileDTO toDto(Profile profile);
+}
@@ -0,0 +1,28 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.SignupRequest;
+import com.example.demo.dto.UserDTO;
+import com.example.demo.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.NullValueCheckStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Compile-time generated User mappings. Null source values are skipped, like the
+ * ModelMapper setup this replaces.
+ */
+@Mapper(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface UserMapper {
+
+    // Password is always encoded by the caller, never copied raw
+    @Mapping(target = "password", ignore = true)
+    User toEntity(SignupRequest signupRequest);
+
+    UserDTO toDto(User user);
+}
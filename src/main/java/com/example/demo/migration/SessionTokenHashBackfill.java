@@ -0,0 +1,89 @@
+package com.example.demo.migration;
+
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.Session;
+import com.example.demo.repository.SessionRepository;
+import com.example.demo.security.RefreshTokenHasher;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-off migration from plaintext refresh tokens to token hashes. Hashes legacy
+ * session rows in batches at startup, then drops the wide refresh token index.
+ * Once migrated, a boot only reads the catalog and finds no legacy rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionTokenHashBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final SessionRepository sessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Both DDL statements take an ACCESS EXCLUSIVE lock on session, so they only run
+        // while the catalog says they are still needed
+        if (refreshTokenIsNotNull()) {
+            // ddl-auto=update never relaxes constraints, and new rows leave refresh_token empty
+            jdbcTemplate.execute("ALTER TABLE session ALTER COLUMN refresh_token DROP NOT NULL");
+        }
+
+        int migrated = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> hashBatch());
+            migrated += batch;
+        } while (batch == BATCH_SIZE);
+
+        if (refreshTokenIndexExists()) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_session_refresh_token");
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated {} sessions to hashed refresh tokens", migrated);
+        }
+    }
+
+    private boolean refreshTokenIsNotNull() {
+        List<String> nullable = jdbcTemplate.queryForList("""
+                SELECT is_nullable FROM information_schema.columns
+                WHERE table_schema = current_schema() AND table_name = 'session' AND column_name = 'refresh_token'
+                """, String.class);
+        return nullable.contains("NO");
+    }
+
+    private boolean refreshTokenIndexExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_indexes
+                               WHERE schemaname = current_schema() AND indexname = 'idx_session_refresh_token')
+                """, Boolean.class));
+    }
+
+    private int hashBatch() {
+        List<Session> sessions = sessionRepository.findByTokenHashIsNull(PageRequest.of(0, BATCH_SIZE));
+        for (Session session : sessions) {
+            if (session.getRefreshToken() != null) {
+                session.setTokenHash(RefreshTokenHasher.hash(session.getRefreshToken()));
+                session.setRefreshToken(null);
+            }
+        }
+        // Rows with neither value can never be looked up again
+        sessionRepository.deleteAll(sessions.stream()
+                .filter(session -> session.getTokenHash() == null)
+                .toList());
+        return sessions.size();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.notification;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.SqlParameterValue;
+
+import com.example.demo.enums.NotificationType;
+
+/**
+ * Turns a drained run of events into notification rows. Events for the same recipient,
+ * type and subject collapse into one group carrying the newest actor and the number of
+ * distinct actors, which is what "alice and 40 others liked your post" is rendered from.
+ * Each group becomes one row of a multi-row upsert that folds it into the recipient's
+ * unread row for that subject, if there is one.
+ */
+public final class NotificationBatch {
+
+    public record Group(
+            UUID recipientId,
+            NotificationType type,
+            UUID subjectId,
+            UUID postId,
+            UUID commentId,
+            UUID actorId,
+            int actorCount,
+            LocalDateTime occurredAt) {
+    }
+
+    private record Key(UUID recipientId, NotificationType type, UUID subjectId) {
+    }
+
+    // Sorted so concurrent flushes on two instances lock rows in the same order
+    private static final Comparator<Group> LOCK_ORDER = Comparator
+            .comparing(Group::recipientId)
+            .thenComparing(Group::type)
+            .thenComparing(Group::subjectId);
+
+    private static final String UPSERT_HEAD = """
+            INSERT INTO notifications (id, recipient_id, type, subject_id, post_id, comment_id,
+                                       actor_id, actor_count, is_read, created_at, updated_at)
+            VALUES
+            """;
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?)";
+    private static final String UPSERT_TAIL = """
+            ON CONFLICT (recipient_id, type, subject_id) WHERE NOT is_read DO UPDATE SET
+                actor_id = EXCLUDED.actor_id,
+                comment_id = EXCLUDED.comment_id,
+                actor_count = notifications.actor_count + EXCLUDED.actor_count,
+                updated_at = EXCLUDED.updated_at
+            RETURNING recipient_id, (xmax = 0) AS inserted
+            """;
+    private static final int PARAMETERS_PER_ROW = 10;
+
+    private NotificationBatch() {
+    }
+
+    /**
+     * Groups the events. Events whose recipient is unknown (the subject was deleted) or is
+     * the actor are dropped. At most one group per key, as ON CONFLICT DO UPDATE requires
+     * within a statement.
+     */
+    public static List<Group> coalesce(Collection<NotificationEvent> events) {
+        Map<Key, Accumulator> groups = new HashMap<>();
+        for (NotificationEvent event : events) {
+            if (event.recipientId() == null || event.recipientId().equals(event.actorId())) {
+                continue;
+            }
+            groups.computeIfAbsent(new Key(event.recipientId(), event.type(), event.subjectId()),
+                    key -> new Accumulator()).add(event);
+        }
+        List<Group> result = new ArrayList<>(groups.size());
+        for (Accumulator accumulator : groups.values()) {
+            NotificationEvent latest = accumulator.latest;
+            result.add(new Group(latest.recipientId(), latest.type(), latest.subjectId(), latest.postId(),
+                    latest.commentId(), latest.actorId(), accumulator.actors.size(), latest.occurredAt()));
+        }
+        result.sort(LOCK_ORDER);
+        return result;
+    }
+
+    /**
+     * The upsert for {@code rows} groups, returning each row's recipient and whether it was
+     * newly inserted, i.e. is a new unread notification.
+     */
+    public static String upsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(UPSERT_HEAD.length() + rows * (UPSERT_ROW.length() + 2)
+                + UPSERT_TAIL.length());
+        sql.append(UPSERT_HEAD);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(",\n");
+            }
+            sql.append(UPSERT_ROW);
+        }
+        return sql.append('\n').append(UPSERT_TAIL).toString();
+    }
+
+    public static Object[] parameters(List<Group> groups) {
+        Object[] parameters = new Object[groups.size() * PARAMETERS_PER_ROW];
+        int i = 0;
+        for (Group group : groups) {
+            Timestamp occurredAt = Timestamp.valueOf(group.occurredAt());
+            parameters[i++] = UUID.randomUUID();
+            parameters[i++] = group.recipientId();
+            parameters[i++] = group.type().name();
+            parameters[i++] = group.subjectId();
+            // Typed, so the driver need not ask the server what a null stands for
+            parameters[i++] = new SqlParameterValue(Types.OTHER, group.postId());
+            parameters[i++] = new SqlParameterValue(Types.OTHER, group.commentId());
+            parameters[i++] = group.actorId();
+            parameters[i++] = group.actorCount();
+            parameters[i++] = occurredAt;
+            parameters[i++] = occurredAt;
+        }
+        return parameters;
+    }
+
+    private static final class Accumulator {
+
+        private final Set<UUID> actors = new HashSet<>();
+        private NotificationEvent latest;
+
+        void add(NotificationEvent event) {
+            actors.add(event.actorId());
+            if (latest == null || !event.occurredAt().isBefore(latest.occurredAt())) {
+                latest = event;
+            }
+        }
+    }
+}
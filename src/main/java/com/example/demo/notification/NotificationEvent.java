@@ -0,0 +1,24 @@
+package com.example.demo.notification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.demo.enums.NotificationType;
+
+/**
+ * Something that happened, as queued. The recipient of likes, comments and replies is the
+ * author of the subject and is looked up when the batch is written.
+ */
+public record NotificationEvent(
+        NotificationType type,
+        UUID actorId,
+        UUID recipientId,
+        UUID subjectId,
+        UUID postId,
+        UUID commentId,
+        LocalDateTime occurredAt) {
+
+    NotificationEvent withRecipient(UUID recipient) {
+        return new NotificationEvent(type, actorId, recipient, subjectId, postId, commentId, occurredAt);
+    }
+}
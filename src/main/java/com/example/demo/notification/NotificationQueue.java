@@ -0,0 +1,290 @@
+package com.example.demo.notification;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.UnreadCountDTO;
+import com.example.demo.enums.NotificationType;
+import com.example.demo.notification.NotificationBatch.Group;
+import com.example.demo.push.PushChannel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates notifications off the request path. Likes, comments and follows only queue an
+ * event once they commit; a scheduled flush drains the queue, looks up the recipients of the
+ * whole batch in two queries, coalesces it with {@link NotificationBatch} and writes it as
+ * multi-row upserts. Unread counts are updated from what the upsert reports as inserted,
+ * and recipients with an event stream open are sent their new count.
+ *
+ * <p>The queue is bounded. When it is full the publishing thread flushes inline, so a
+ * database that falls behind slows likes and follows down instead of growing the heap; an
+ * event that still finds the queue full is dropped and counted. That thread is inside
+ * afterCommit, still bound to its committed transaction, so each batch is written in a
+ * transaction of its own.
+ *
+ * <p>A failed batch is retried before anything newer. Losing the connection does not count
+ * against it, but after {@code notifications.max-attempts} other failures it is split in
+ * half, until the event that cannot be written is alone and dropped.
+ */
+@Component
+@Slf4j
+public class NotificationQueue implements SmartInitializingSingleton {
+
+    private static final String UNREAD_GROUP_INDEX = """
+            CREATE UNIQUE INDEX IF NOT EXISTS uk_notification_unread_group
+            ON notifications (recipient_id, type, subject_id) WHERE NOT is_read
+            """;
+    private static final String POST_AUTHORS = "SELECT id, user_id FROM posts WHERE id = ANY(?)";
+    private static final String COMMENT_AUTHORS = "SELECT id, user_id FROM comments WHERE id = ANY(?)";
+    // 10 parameters a row, well below the 65535 bind parameters a statement may carry
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCounts unreadCounts;
+    private final PushChannel pushChannel;
+    private final BlockingQueue<NotificationEvent> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Batches whose write failed, oldest first; guarded by flushLock
+    private final Deque<Retry> failed = new ArrayDeque<>();
+
+    private final Counter eventsCounter;
+    private final Counter rowsCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private record Retry(List<NotificationEvent> events, int failures) {
+    }
+
+    public NotificationQueue(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            UnreadCounts unreadCounts,
+            PushChannel pushChannel,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.queue-capacity:100000}") int queueCapacity,
+            @Value("${notifications.batch-size:5000}") int batchSize,
+            @Value("${notifications.max-attempts:3}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.unreadCounts = unreadCounts;
+        this.pushChannel = pushChannel;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+
+        this.eventsCounter = Counter.builder("notifications.events")
+                .description("Notification events written")
+                .register(meterRegistry);
+        this.rowsCounter = Counter.builder("notifications.rows")
+                .description("Notification rows inserted or updated after coalescing")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("notifications.dropped")
+                .description("Notification events dropped because the queue stayed full after a flush")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("notifications.failed")
+                .description("Notification events dropped because their write kept failing")
+                .register(meterRegistry);
+        Gauge.builder("notifications.queued", queue, BlockingQueue::size)
+                .description("Notification events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    // ddl-auto cannot express a partial index; runs before the first flush can
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute(UNREAD_GROUP_INDEX);
+    }
+
+    public void onPostLiked(UUID actorId, UUID postId) {
+        publish(new NotificationEvent(NotificationType.LIKE, actorId, null, postId, postId, null, LocalDateTime.now()));
+    }
+
+    public void onCommentAdded(UUID actorId, UUID postId, UUID commentId) {
+        publish(new NotificationEvent(NotificationType.COMMENT, actorId, null, postId, postId, commentId,
+                LocalDateTime.now()));
+    }
+
+    public void onReplyAdded(UUID actorId, UUID postId, UUID parentId, UUID commentId) {
+        publish(new NotificationEvent(NotificationType.REPLY, actorId, null, parentId, postId, commentId,
+                LocalDateTime.now()));
+    }
+
+    public void onFollowed(UUID actorId, UUID userId) {
+        publish(new NotificationEvent(NotificationType.FOLLOW, actorId, userId, userId, null, null,
+                LocalDateTime.now()));
+    }
+
+    private void publish(NotificationEvent event) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(event);
+            }
+        });
+    }
+
+    void enqueue(NotificationEvent event) {
+        if (queue.offer(event)) {
+            return;
+        }
+        flush();
+        if (!queue.offer(event)) {
+            droppedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.flush-interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (!failed.isEmpty()) {
+                Retry retry = failed.pollFirst();
+                if (!tryWrite(retry.events(), retry.failures())) {
+                    return;
+                }
+            }
+            List<NotificationEvent> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                if (!tryWrite(batch, 0)) {
+                    return;
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return false if the write failed and the batch was kept for the next flush
+     */
+    private boolean tryWrite(List<NotificationEvent> events, int failures) {
+        try {
+            write(events);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Notification flush failed, will retry", e);
+            // An outage fails every batch alike, so it says nothing about this one
+            boolean outage = e instanceof TransientDataAccessException || e instanceof DataAccessResourceFailureException;
+            int counted = outage ? failures : failures + 1;
+            if (counted < maxAttempts) {
+                failed.addFirst(new Retry(events, counted));
+            } else if (events.size() > 1) {
+                int half = events.size() / 2;
+                failed.addFirst(new Retry(events.subList(half, events.size()), 0));
+                failed.addFirst(new Retry(events.subList(0, half), 0));
+            } else {
+                failedCounter.increment();
+                log.error("Dropping notification event {} after {} failed writes", events.get(0), counted);
+            }
+            return false;
+        }
+    }
+
+    private void write(List<NotificationEvent> events) {
+        Map<UUID, Integer> created = new HashMap<>();
+        List<Group> groups = transactionTemplate.execute(status -> {
+            List<Group> coalesced = NotificationBatch.coalesce(resolveRecipients(events));
+            for (int from = 0; from < coalesced.size(); from += MAX_ROWS_PER_STATEMENT) {
+                List<Group> rows = coalesced.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, coalesced.size()));
+                jdbcTemplate.query(NotificationBatch.upsertSql(rows.size()), (RowCallbackHandler) rs -> {
+                    if (rs.getBoolean(2)) {
+                        created.merge(rs.getObject(1, UUID.class), 1, Integer::sum);
+                    }
+                }, NotificationBatch.parameters(rows));
+            }
+            return coalesced;
+        });
+        created.forEach(unreadCounts::onCreated);
+        push(groups);
+        eventsCounter.increment(events.size());
+        rowsCounter.increment(groups.size());
+    }
+
+    private void push(List<Group> groups) {
+        Set<UUID> recipients = new HashSet<>();
+        for (Group group : groups) {
+            if (recipients.add(group.recipientId()) && pushChannel.isListening(group.recipientId())) {
+                pushChannel.publish(group.recipientId(), "notifications",
+                        new UnreadCountDTO(unreadCounts.get(group.recipientId())));
+            }
+        }
+    }
+
+    private List<NotificationEvent> resolveRecipients(List<NotificationEvent> events) {
+        Set<UUID> posts = new HashSet<>();
+        Set<UUID> comments = new HashSet<>();
+        for (NotificationEvent event : events) {
+            if (event.recipientId() == null) {
+                (event.type() == NotificationType.REPLY ? comments : posts).add(event.subjectId());
+            }
+        }
+        Map<UUID, UUID> postAuthors = authors(POST_AUTHORS, posts);
+        Map<UUID, UUID> commentAuthors = authors(COMMENT_AUTHORS, comments);
+
+        List<NotificationEvent> resolved = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            if (event.recipientId() != null) {
+                resolved.add(event);
+            } else {
+                Map<UUID, UUID> authors = event.type() == NotificationType.REPLY ? commentAuthors : postAuthors;
+                // A subject deleted before the flush leaves no recipient and the event is dropped
+                resolved.add(event.withRecipient(authors.get(event.subjectId())));
+            }
+        }
+        return resolved;
+    }
+
+    private Map<UUID, UUID> authors(String sql, Set<UUID> ids) {
+        Map<UUID, UUID> authors = new HashMap<>();
+        if (ids.isEmpty()) {
+            return authors;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> authors.put(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)));
+        return authors;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
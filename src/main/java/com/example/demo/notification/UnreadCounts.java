@@ -0,0 +1,97 @@
+package com.example.demo.notification;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.cache.CallerLoads;
+import com.example.demo.repository.NotificationRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Per-user unread notification counts, counted from the table once and then kept current
+ * by the writes on this instance. The counters are changed in place, so an entry's write
+ * time stays its load time: every {@code notifications.unread.refresh} it is counted again,
+ * which picks up notifications written or read through other instances.
+ */
+@Component
+public class UnreadCounts {
+
+    static final String CACHE_NAME = "notification_unread";
+
+    private final AsyncCache<UUID, AtomicInteger> cache;
+    private final NotificationRepository notificationRepository;
+
+    public UnreadCounts(
+            NotificationRepository notificationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.unread.max-users:1000000}") long maxUsers,
+            @Value("${notifications.unread.refresh:PT5M}") Duration refresh) {
+        this.notificationRepository = notificationRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(refresh)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    public int get(UUID userId) {
+        return CallerLoads.get(cache, userId,
+                id -> new AtomicInteger((int) notificationRepository.countByRecipientIdAndIsReadFalse(id))).get();
+    }
+
+    /**
+     * Call once the new unread notifications have committed.
+     */
+    public void onCreated(UUID userId, int count) {
+        AtomicInteger unread = loaded(userId);
+        if (unread != null) {
+            unread.addAndGet(count);
+        }
+    }
+
+    /**
+     * Call once the notification has been marked read.
+     */
+    public void onRead(UUID userId) {
+        AtomicInteger unread = loaded(userId);
+        if (unread != null) {
+            unread.updateAndGet(count -> Math.max(0, count - 1));
+        }
+    }
+
+    /**
+     * Call once all of the user's notifications have been marked read.
+     */
+    public void onAllRead(UUID userId) {
+        AtomicInteger unread = loaded(userId);
+        if (unread != null) {
+            unread.set(0);
+        }
+    }
+
+    /**
+     * The cached counter if fully loaded. A count still in flight may have read the table
+     * before the change committed, so it is dropped and can no longer populate the cache.
+     */
+    private AtomicInteger loaded(UUID userId) {
+        CompletableFuture<AtomicInteger> future = cache.getIfPresent(userId);
+        if (future == null) {
+            return null;
+        }
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            cache.synchronous().invalidate(userId);
+            return null;
+        }
+        return future.join();
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.demo.push;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-sent event streams, one or more per signed-in user. The streams are servlet async
+ * requests, so an idle one costs its socket and a few small objects but no thread; events
+ * are written by short-lived virtual threads, one drain per connection at a time.
+ *
+ * <p>Every event also goes into a replay ring of the last {@code push.replay-capacity}
+ * events. A client reconnecting with {@code Last-Event-ID} gets the events it missed from
+ * the ring, or a {@code reset} event when they are no longer there (or the id came from
+ * another instance or before a restart) and it has to refetch instead. Event ids start
+ * at the startup time in microseconds, so ids from an earlier run of this instance are
+ * always older than the ring.
+ *
+ * <p>A connection whose send buffer fills up is closed; the client reconnects and resumes
+ * from the ring, rather than the buffer growing for as long as it does not read. Producers
+ * skip users who are not {@link #isListening listening}, so the ring holds only events
+ * someone can still resume. Events only reach users connected to the instance that
+ * produced them. Closing completes the emitter, which waits for a send in progress, so it
+ * never happens under the channel lock or on the scheduler thread.
+ */
+@Component
+@Slf4j
+public class PushChannel {
+
+    static final String RESET = "reset";
+
+    private final long timeoutMillis;
+    private final int sendBuffer;
+    private final int maxConnectionsPerUser;
+    private final long resumeWindowNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guards the ring and the connection lists, so a reconnect's replay and its registration
+    // happen between two publishes and the client sees every event exactly once, in order
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PushEvent[] ring;
+    private final long firstId;
+    private long nextId;
+    // Connection lists are replaced, never changed, so readers need no lock
+    private final Map<UUID, List<PushConnection>> connections = new ConcurrentHashMap<>();
+    // Users whose last stream closed recently, with the System.nanoTime() it closed at
+    private final Map<UUID, Long> detached = new ConcurrentHashMap<>();
+
+    private final Counter evictedCounter;
+
+    public PushChannel(
+            MeterRegistry meterRegistry,
+            @Value("${push.timeout:PT30M}") Duration timeout,
+            @Value("${push.replay-capacity:10000}") int replayCapacity,
+            @Value("${push.send-buffer:64}") int sendBuffer,
+            @Value("${push.max-connections-per-user:5}") int maxConnectionsPerUser,
+            @Value("${push.resume-window:PT1M}") Duration resumeWindow) {
+        this.timeoutMillis = timeout.toMillis();
+        this.sendBuffer = sendBuffer;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.resumeWindowNanos = resumeWindow.toNanos();
+        this.ring = new PushEvent[replayCapacity];
+        this.firstId = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.nextId = firstId;
+
+        this.evictedCounter = Counter.builder("push.evicted")
+                .description("Streams closed because the client was not reading")
+                .register(meterRegistry);
+        Gauge.builder("push.connections", this, PushChannel::connectionCount)
+                .description("Open event streams")
+                .register(meterRegistry);
+        Gauge.builder("push.users", connections, Map::size)
+                .description("Users with at least one open event stream")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter open(UUID userId, String lastEventId) {
+        return open(userId, lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    /**
+     * Registers {@code emitter} as a stream for {@code userId} and queues whatever it
+     * missed since {@code lastEventId}, which may be null for a fresh connection.
+     */
+    public SseEmitter open(UUID userId, String lastEventId, SseEmitter emitter) {
+        PushConnection connection = new PushConnection(userId, emitter);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(error -> remove(connection));
+
+        PushConnection[] displaced = new PushConnection[1];
+        lock.lock();
+        try {
+            replay(connection, lastEventId);
+            // compute, as a stream closing concurrently removes itself without the lock
+            connections.compute(userId, (id, current) -> {
+                List<PushConnection> next = current != null ? new ArrayList<>(current) : new ArrayList<>(1);
+                if (next.size() >= maxConnectionsPerUser) {
+                    displaced[0] = next.remove(0);
+                }
+                next.add(connection);
+                return List.copyOf(next);
+            });
+            detached.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+        if (displaced[0] != null) {
+            close(displaced[0]);
+        }
+        connection.drain(executor, this::close);
+        return emitter;
+    }
+
+    /**
+     * Sends an event to every stream {@code userId} has open here; {@code data} is written
+     * as JSON. The event is kept for replay even if the user is not connected right now.
+     */
+    public void publish(UUID userId, String name, Object data) {
+        List<PushConnection> targets;
+        List<PushConnection> evicted;
+        lock.lock();
+        try {
+            PushEvent event = new PushEvent(nextId++, userId, name, data);
+            ring[(int) (event.id() % ring.length)] = event;
+            targets = connections.getOrDefault(userId, List.of());
+            evicted = offer(targets, event);
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::complete);
+        for (PushConnection connection : targets) {
+            connection.drain(executor, this::close);
+        }
+    }
+
+    /**
+     * Whether {@code userId} has a stream open here, or had one within
+     * {@code push.resume-window} and may reconnect to resume from the ring.
+     */
+    public boolean isListening(UUID userId) {
+        if (connections.containsKey(userId)) {
+            return true;
+        }
+        Long closedAt = detached.get(userId);
+        return closedAt != null && System.nanoTime() - closedAt < resumeWindowNanos;
+    }
+
+    public List<UUID> listeners() {
+        List<UUID> listeners = new ArrayList<>(connections.size() + detached.size());
+        listeners.addAll(connections.keySet());
+        for (UUID userId : detached.keySet()) {
+            if (isListening(userId)) {
+                listeners.add(userId);
+            }
+        }
+        return listeners;
+    }
+
+    public int connectionCount() {
+        int count = 0;
+        for (List<PushConnection> userConnections : connections.values()) {
+            count += userConnections.size();
+        }
+        return count;
+    }
+
+    // Keeps proxies from timing out idle streams and finds the ones whose client has gone
+    @Scheduled(fixedRateString = "${push.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        detached.values().removeIf(closedAt -> now - closedAt >= resumeWindowNanos);
+        for (List<PushConnection> userConnections : connections.values()) {
+            for (PushConnection connection : offer(userConnections, PushEvent.HEARTBEAT)) {
+                executor.execute(() -> complete(connection));
+            }
+            for (PushConnection connection : userConnections) {
+                connection.drain(executor, this::close);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Clients reconnect to another instance and get a reset there
+        for (List<PushConnection> userConnections : connections.values()) {
+            userConnections.forEach(this::close);
+        }
+        executor.shutdown();
+    }
+
+    private void replay(PushConnection connection, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        long lastId;
+        try {
+            lastId = Long.parseLong(lastEventId.strip());
+        } catch (NumberFormatException e) {
+            lastId = -1;
+        }
+        long oldest = Math.max(firstId, nextId - ring.length);
+        if (lastId < oldest - 1 || lastId >= nextId) {
+            connection.offer(new PushEvent(nextId - 1, connection.userId, RESET, Map.of()), Integer.MAX_VALUE);
+            return;
+        }
+        for (long id = lastId + 1; id < nextId; id++) {
+            PushEvent event = ring[(int) (id % ring.length)];
+            if (connection.userId.equals(event.userId())) {
+                // A long gap is allowed to exceed the send buffer once
+                connection.offer(event, Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Marks the connections whose buffer is full as closed, so later events skip them.
+     * @return those connections, for the caller to {@link #complete} outside the lock
+     */
+    private List<PushConnection> offer(List<PushConnection> targets, PushEvent event) {
+        List<PushConnection> evicted = List.of();
+        for (PushConnection connection : targets) {
+            if (!connection.offer(event, sendBuffer)) {
+                evictedCounter.increment();
+                log.debug("Closing event stream of user {}: {} events unsent", connection.userId, sendBuffer);
+                connection.close();
+                if (evicted.isEmpty()) {
+                    evicted = new ArrayList<>(1);
+                }
+                evicted.add(connection);
+            }
+        }
+        return evicted;
+    }
+
+    private void close(PushConnection connection) {
+        if (connection.isClosed()) {
+            return;
+        }
+        connection.close();
+        complete(connection);
+    }
+
+    // Second half of close, for a connection already marked closed
+    private void complete(PushConnection connection) {
+        remove(connection);
+        try {
+            connection.emitter.complete();
+        } catch (RuntimeException e) {
+            // Already completed by the container
+        }
+    }
+
+    private void remove(PushConnection connection) {
+        connection.close();
+        connections.computeIfPresent(connection.userId, (userId, current) -> {
+            if (!current.contains(connection)) {
+                return current;
+            }
+            List<PushConnection> next = new ArrayList<>(current);
+            next.remove(connection);
+            if (next.isEmpty()) {
+                detached.put(userId, System.nanoTime());
+                return null;
+            }
+            return List.copyOf(next);
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.push;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One open stream and its send buffer. Publishers only append to the buffer; a single
+ * drain task at a time writes it to the socket, so a connection never holds a thread while
+ * it is idle and a slow socket blocks only its own drain.
+ */
+final class PushConnection {
+
+    final UUID userId;
+    final SseEmitter emitter;
+
+    private final Queue<PushEvent> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    PushConnection(UUID userId, SseEmitter emitter) {
+        this.userId = userId;
+        this.emitter = emitter;
+    }
+
+    /**
+     * Appends the event, or returns false if {@code capacity} events are already waiting:
+     * the client is not reading and should be disconnected.
+     */
+    boolean offer(PushEvent event, int capacity) {
+        if (closed) {
+            return true;
+        }
+        if (buffered.incrementAndGet() > capacity) {
+            buffered.decrementAndGet();
+            return false;
+        }
+        buffer.add(event);
+        return true;
+    }
+
+    /**
+     * Starts a drain on {@code executor} unless one is already running.
+     */
+    void drain(Executor executor, Consumer<PushConnection> onFailure) {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(() -> run(executor, onFailure));
+        }
+    }
+
+    void close() {
+        closed = true;
+        buffer.clear();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private void run(Executor executor, Consumer<PushConnection> onFailure) {
+        try {
+            PushEvent event;
+            while (!closed && (event = buffer.poll()) != null) {
+                buffered.decrementAndGet();
+                send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client gone, or the emitter already completed
+            onFailure.accept(this);
+        } finally {
+            draining.set(false);
+        }
+        // An event offered after the last poll but before the flag was cleared has no drain yet
+        if (!closed && !buffer.isEmpty()) {
+            drain(executor, onFailure);
+        }
+    }
+
+    private void send(PushEvent event) throws IOException {
+        if (event == PushEvent.HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment(""));
+        } else {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(event.name())
+                    .data(event.data(), MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.push;
+
+import java.util.UUID;
+
+/**
+ * One event for one user. {@code id} is the SSE event id a client resumes from; the
+ * heartbeat has no id and is written as a comment line.
+ */
+record PushEvent(long id, UUID userId, String name, Object data) {
+
+    static final PushEvent HEARTBEAT = new PushEvent(-1, null, null, null);
+}
@@ -0,0 +1,98 @@
+package com.example.demo.ratelimit;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.exception.RateLimitExceededException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limits on login and signup, which hash a password on unauthenticated input. Each client
+ * address gets one bucket, checked by {@code AuthRateLimitFilter} before the request body
+ * is read; each email gets another, checked by the auth service before the hash, so a
+ * password spray spread over many addresses still stops at the account.
+ *
+ * <p>IPv6 clients are keyed by their /64: a single host is usually handed a whole /64,
+ * so per-address buckets would give it 2^64 of them.
+ */
+@Component
+public class AuthRateLimits {
+
+    private final RateLimiter byAddress;
+    private final RateLimiter byEmail;
+    private final Counter addressRejections;
+    private final Counter emailRejections;
+
+    public AuthRateLimits(
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.auth.address.capacity:20}") int addressCapacity,
+            @Value("${rate-limit.auth.address.period:PT1M}") Duration addressPeriod,
+            @Value("${rate-limit.auth.email.capacity:5}") int emailCapacity,
+            @Value("${rate-limit.auth.email.period:PT1M}") Duration emailPeriod,
+            @Value("${rate-limit.auth.max-keys:100000}") int maxKeys) {
+        this.byAddress = new RateLimiter(addressCapacity, addressPeriod, maxKeys);
+        this.byEmail = new RateLimiter(emailCapacity, emailPeriod, maxKeys);
+
+        this.addressRejections = Counter.builder("auth.rate_limited")
+                .tag("key", "address")
+                .description("Login and signup requests refused for exceeding a rate limit")
+                .register(meterRegistry);
+        this.emailRejections = Counter.builder("auth.rate_limited")
+                .tag("key", "email")
+                .description("Login and signup requests refused for exceeding a rate limit")
+                .register(meterRegistry);
+        Gauge.builder("auth.rate_limit.buckets", () -> byAddress.size() + byEmail.size())
+                .register(meterRegistry);
+    }
+
+    /** Seconds the client at {@code address} has to wait, or 0 if it may go ahead. */
+    public long checkAddress(String address) {
+        long wait = byAddress.tryAcquire(addressKey(address));
+        if (wait == 0) {
+            return 0;
+        }
+        addressRejections.increment();
+        return toRetryAfter(wait);
+    }
+
+    public void checkEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return;
+        }
+        long wait = byEmail.tryAcquire(email.strip().toLowerCase(Locale.ROOT));
+        if (wait != 0) {
+            emailRejections.increment();
+            throw new RateLimitExceededException("Too many attempts for this account, try again later",
+                    toRetryAfter(wait));
+        }
+    }
+
+    static String addressKey(String address) {
+        if (address == null || address.indexOf(':') < 0) {
+            return address;
+        }
+        try {
+            // A literal, as servlet containers report it, so there is no lookup
+            InetAddress parsed = InetAddress.getByName(address);
+            byte[] bytes = parsed.getAddress();
+            // IPv4-mapped addresses come back as IPv4 and share the plain address's bucket
+            return bytes.length == 16 ? HexFormat.of().formatHex(bytes, 0, 8) + "::/64" : parsed.getHostAddress();
+        } catch (UnknownHostException e) {
+            return address;
+        }
+    }
+
+    private static long toRetryAfter(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token buckets of {@code capacity} requests per {@code period}, one per key. Each bucket
+ * is a single {@link AtomicLong} holding the time at which it would be full again (the
+ * generic cell rate algorithm), so taking a token is one read and one compare-and-set and
+ * no timer ever refills anything.
+ *
+ * <p>At most {@code maxKeys} buckets are kept, in a Caffeine cache. A bucket left alone for
+ * a whole period is full again and expires; past the bound, Caffeine evicts the keys it
+ * sees least, so a flood of distinct keys costs each of them its own limit rather than
+ * locking every new client out of a shared one. An evicted key starts again with a full
+ * bucket, and a request racing with the eviction of its bucket may get one token more than
+ * it should.
+ */
+public class RateLimiter {
+
+    private final long interval;
+    private final long period;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(int capacity, Duration period, int maxKeys) {
+        this(capacity, period, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int capacity, Duration period, int maxKeys, LongSupplier clock) {
+        this.period = period.toNanos();
+        this.interval = capacity > 0 ? this.period / capacity : 0;
+        if (interval < 1) {
+            throw new IllegalArgumentException("Rate limit of " + capacity + " per " + period + " is out of range");
+        }
+        this.clock = clock;
+        // Eviction runs on the calling thread, it is a few map operations
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(this.period, TimeUnit.NANOSECONDS)
+                .ticker(clock::getAsLong)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Takes a token from the bucket of {@code key}. Returns 0 if there was one, or else
+     * how many nanoseconds until there will be.
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long fullAt = bucket.get();
+            // Compared by difference, as nano times may be negative
+            long next = (fullAt - now > 0 ? fullAt : now) + interval;
+            long wait = next - now - period;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+}
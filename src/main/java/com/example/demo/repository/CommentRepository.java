@@ -0,0 +1,78 @@
+package com.example.demo.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.entity.Comment;
+import com.example.demo.repository.projection.CommentLocation;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Thread pages are keyset ranges on the materialized path: one index range scan per page
+ * whatever the shape of the thread, instead of one query per level or per parent.
+ */
+@Repository
+public interface CommentRepository extends JpaRepository<Comment, UUID> {
+
+    String COMMENT_DTO = """
+            SELECT new com.example.demo.dto.CommentDTO(
+                c.id, c.post.id, c.parentId, c.depth, c.content, u.id, pr.username, pr.profilePhotoSmallUrl,
+                c.replyCount, c.deleted, c.createdAt, c.updatedAt, c.path)
+            FROM Comment c
+            JOIN c.user u
+            LEFT JOIN Profile pr ON pr.user = u
+            """;
+
+    @Query(COMMENT_DTO + "WHERE c.id = :id")
+    Optional<CommentDTO> findDtoById(@Param("id") UUID id);
+
+    // A whole post's thread in display order, down to maxDepth; after is "" for the first page
+    @Query(COMMENT_DTO + """
+            WHERE c.post.id = :postId AND c.path > :after AND c.depth <= :maxDepth
+            ORDER BY c.path
+            """)
+    List<CommentDTO> findThreadPage(
+            @Param("postId") UUID postId,
+            @Param("after") String after,
+            @Param("maxDepth") int maxDepth,
+            Pageable pageable);
+
+    // The subtree under one comment: paths in (after, end), end being CommentPath.subtreeEnd
+    @Query(COMMENT_DTO + """
+            WHERE c.post.id = :postId AND c.path > :after AND c.path < :end AND c.depth <= :maxDepth
+            ORDER BY c.path
+            """)
+    List<CommentDTO> findSubtreePage(
+            @Param("postId") UUID postId,
+            @Param("after") String after,
+            @Param("end") String end,
+            @Param("maxDepth") int maxDepth,
+            Pageable pageable);
+
+    @Query("""
+            SELECT new com.example.demo.repository.projection.CommentLocation(c.post.id, c.path, c.depth)
+            FROM Comment c WHERE c.id = :id
+            """)
+    Optional<CommentLocation> findLocationById(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Comment c WHERE c.id = :id")
+    Optional<Comment> findByIdForUpdate(@Param("id") UUID id);
+
+    // Native: reply_count is not updatable through the entity
+    @Modifying
+    @Query(value = "UPDATE comments SET reply_count = reply_count - 1 WHERE id = :id AND reply_count > 0",
+            nativeQuery = true)
+    int decrementReplyCount(@Param("id") UUID id);
+}
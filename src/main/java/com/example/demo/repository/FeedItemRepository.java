@@ -0,0 +1,44 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.entity.FeedItem;
+import com.example.demo.feed.FeedEntry;
+
+@Repository
+public interface FeedItemRepository extends JpaRepository<FeedItem, FeedItem.Key> {
+
+    @Query("""
+            SELECT new com.example.demo.feed.FeedEntry(f.postId, f.createdAt) FROM FeedItem f
+            WHERE f.userId = :userId
+            ORDER BY f.createdAt DESC, f.postId DESC
+            """)
+    List<FeedEntry> findNewest(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.example.demo.feed.FeedEntry(f.postId, f.createdAt) FROM FeedItem f
+            WHERE f.userId = :userId AND (f.createdAt, f.postId) < (:createdAt, :postId)
+            ORDER BY f.createdAt DESC, f.postId DESC
+            """)
+    List<FeedEntry> findBefore(
+            @Param("userId") UUID userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("postId") UUID postId,
+            Pageable pageable);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM feed_items WHERE ctid IN (
+                SELECT ctid FROM feed_items WHERE created_at < :cutoff LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
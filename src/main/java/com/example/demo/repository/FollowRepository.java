@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.entity.Follow;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, UUID> {
+
+    // Concurrent requests for the same pair insert once; the loser sees 0 rows
+    @Modifying
+    @Query(value = """
+            INSERT INTO follows (id, follower_id, following_id, created_at)
+            VALUES (gen_random_uuid(), :followerId, :followingId, now())
+            ON CONFLICT (follower_id, following_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") UUID followerId, @Param("followingId") UUID followingId);
+
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.following.id = :followingId")
+    int deleteByFollowerIdAndFollowingId(@Param("followerId") UUID followerId, @Param("followingId") UUID followingId);
+}
@@ -0,0 +1,67 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.entity.Notification;
+
+/**
+ * Rows are written by NotificationQueue in batches; this repository only reads and marks
+ * them read. Pages are keyset ranges on (updatedAt, id), served by
+ * idx_notification_recipient_updated_id, so a group that gains actors moves back to the top.
+ */
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+
+    String NOTIFICATION_DTO = """
+            SELECT new com.example.demo.dto.NotificationDTO(
+                n.id, n.type, a.id, pr.username, pr.profilePhotoSmallUrl, n.actorCount,
+                n.postId, n.commentId, n.isRead, n.createdAt, n.updatedAt)
+            FROM Notification n
+            JOIN n.actor a
+            LEFT JOIN Profile pr ON pr.user = a
+            """;
+
+    @Query(NOTIFICATION_DTO + """
+            WHERE n.recipient.id = :userId AND (:unreadOnly = false OR n.isRead = false)
+            ORDER BY n.updatedAt DESC, n.id DESC
+            """)
+    List<NotificationDTO> findPage(
+            @Param("userId") UUID userId,
+            @Param("unreadOnly") boolean unreadOnly,
+            Pageable pageable);
+
+    @Query(NOTIFICATION_DTO + """
+            WHERE n.recipient.id = :userId AND (:unreadOnly = false OR n.isRead = false)
+              AND (n.updatedAt, n.id) < (:updatedAt, :id)
+            ORDER BY n.updatedAt DESC, n.id DESC
+            """)
+    List<NotificationDTO> findPageBefore(
+            @Param("userId") UUID userId,
+            @Param("unreadOnly") boolean unreadOnly,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") UUID id,
+            Pageable pageable);
+
+    // Served by the partial unread index; only runs when UnreadCounts has no entry
+    long countByRecipientIdAndIsReadFalse(UUID recipientId);
+
+    boolean existsByIdAndRecipientId(UUID id, UUID recipientId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.recipient.id = :userId AND n.isRead = false")
+    int markRead(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") UUID userId);
+}
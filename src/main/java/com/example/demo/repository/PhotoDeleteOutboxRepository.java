@@ -0,0 +1,18 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.entity.PhotoDeleteOutbox;
+
+@Repository
+public interface PhotoDeleteOutboxRepository extends JpaRepository<PhotoDeleteOutbox, UUID> {
+
+    List<PhotoDeleteOutbox> findByNextAttemptAtBeforeOrderByNextAttemptAt(LocalDateTime now, Pageable pageable);
+
+}
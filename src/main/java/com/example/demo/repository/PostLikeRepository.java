@@ -0,0 +1,48 @@
+package com.example.demo.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dto.LikeDTO;
+import com.example.demo.entity.PostLike;
+
+@Repository
+public interface PostLikeRepository extends JpaRepository<PostLike, UUID> {
+
+    // Liking twice is a no-op; the row count says whether this call added the like
+    @Modifying
+    @Query(value = """
+            INSERT INTO likes (id, user_id, post_id, created_at)
+            VALUES (gen_random_uuid(), :userId, :postId, now())
+            ON CONFLICT (user_id, post_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("postId") UUID postId);
+
+    @Modifying
+    @Query("DELETE FROM PostLike l WHERE l.user.id = :userId AND l.post.id = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") UUID userId, @Param("postId") UUID postId);
+
+    @Query("SELECT l.post.id FROM PostLike l WHERE l.user.id = :userId")
+    List<UUID> findPostIdsByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("SELECT l.post.id FROM PostLike l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<UUID> findLikedPostIds(@Param("userId") UUID userId, @Param("postIds") Collection<UUID> postIds);
+
+    @Query("""
+            SELECT new com.example.demo.dto.LikeDTO(u.id, pr.username, pr.profilePhotoSmallUrl, l.createdAt)
+            FROM PostLike l
+            JOIN l.user u
+            LEFT JOIN Profile pr ON pr.user = u
+            WHERE l.post.id = :postId
+            ORDER BY l.createdAt DESC
+            """)
+    List<LikeDTO> findLikers(@Param("postId") UUID postId, Pageable pageable);
+}
@@ -0,0 +1,88 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dto.PostDTO;
+import com.example.demo.entity.Post;
+import com.example.demo.feed.FeedEntry;
+
+/**
+ * Reads return {@link PostDTO} projections with the author's profile joined in, so no
+ * entity or association is ever loaded for a timeline. Timelines use keyset pagination on
+ * (createdAt, id), which is served by idx_post_user_created_id at any depth.
+ */
+@Repository
+public interface PostRepository extends JpaRepository<Post, UUID> {
+
+    String POST_DTO = """
+            SELECT new com.example.demo.dto.PostDTO(
+                p.id, p.content, p.imageUrl, u.id, pr.username, pr.profilePhotoSmallUrl,
+                p.likesCount, p.commentsCount, p.createdAt, p.updatedAt)
+            FROM Post p
+            JOIN p.user u
+            LEFT JOIN Profile pr ON pr.user = u
+            """;
+
+    @Query(POST_DTO + "WHERE p.id = :id")
+    Optional<PostDTO> findDtoById(@Param("id") UUID id);
+
+    @Query(POST_DTO + "WHERE u.id = :userId ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostDTO> findTimeline(@Param("userId") UUID userId, Pageable pageable);
+
+    // Row-value comparison keeps this a single index range scan starting at the cursor
+    @Query(POST_DTO + """
+            WHERE u.id = :userId AND (p.createdAt, p.id) < (:createdAt, :id)
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostDTO> findTimelineBefore(
+            @Param("userId") UUID userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable);
+
+    @Query(POST_DTO + "WHERE p.id IN :ids")
+    List<PostDTO> findDtosByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Feed keys of accounts that are merged in at read time instead of fanned out
+    @Query("""
+            SELECT new com.example.demo.feed.FeedEntry(p.id, p.createdAt) FROM Post p
+            WHERE p.user.id IN :userIds
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<FeedEntry> findFeedEntries(@Param("userIds") Collection<UUID> userIds, Pageable pageable);
+
+    @Query("""
+            SELECT new com.example.demo.feed.FeedEntry(p.id, p.createdAt) FROM Post p
+            WHERE p.user.id IN :userIds AND (p.createdAt, p.id) < (:createdAt, :id)
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<FeedEntry> findFeedEntriesBefore(
+            @Param("userIds") Collection<UUID> userIds,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable);
+
+    @Query("SELECT p.user.id FROM Post p WHERE p.id = :id")
+    Optional<UUID> findAuthorIdById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("DELETE FROM Post p WHERE p.id = :id AND p.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // Native: the counter columns are not updatable through the entity
+    @Modifying
+    @Query(value = "UPDATE posts SET comments_count = comments_count - 1 WHERE id = :id AND comments_count > 0",
+            nativeQuery = true)
+    int decrementCommentsCount(@Param("id") UUID id);
+}
@@ -2,9 +2,17 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Profile;
 import com.example.demo.entity.User;
+import com.example.demo.graphql.ProfileNode;
+import com.example.demo.repository.projection.PublicProfile;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +21,19 @@ public interface ProfileRepository extends JpaRepository<Profile, UUID> {
     Optional<Profile> findByUser(User user);
     boolean existsByUser(User user);
     boolean existsByUsername(String username);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Profile p WHERE p.id = :id")
+    Optional<Profile> findByIdForUpdate(@Param("id") UUID id);
+
+    // Projected, so the eagerly mapped user is not loaded row by row
+    @Query("SELECT new com.example.demo.graphql.ProfileNode(p.id, p.user.id, p.username, p.bio, p.profilePhotoUrl, "
+            + "p.profilePhotoMediumUrl, p.profilePhotoSmallUrl, p.createdAt) "
+            + "FROM Profile p WHERE p.user.id IN :userIds")
+    List<ProfileNode> findNodesByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+    // One query for a screen's worth of avatars, served by the unique index on username
+    @Query("SELECT new com.example.demo.repository.projection.PublicProfile(p.user.id, p.username, p.bio, "
+            + "p.profilePhotoUrl, p.profilePhotoSmallUrl) FROM Profile p WHERE p.username IN :usernames")
+    List<PublicProfile> findAllByUsernameIn(@Param("usernames") Collection<String> usernames);
 }
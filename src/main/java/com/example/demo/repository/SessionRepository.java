@@ -1,21 +1,52 @@
 package com.example.demo.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.entity.Session;
 import com.example.demo.entity.User;
+import com.example.demo.graphql.SessionNode;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, UUID> {
 
-    Optional<Session> findByRefreshToken(String refreshToken);
+    Optional<Session> findByTokenHash(byte[] tokenHash);
 
     void deleteByUser(User user);
 
-    void deleteByRefreshToken(String refreshToken);
+    void deleteByTokenHash(byte[] tokenHash);
+
+    // Rows still keyed by the plaintext token, for the hash backfill
+    List<Session> findByTokenHashIsNull(Pageable pageable);
+
+    // Keyset page of expired session ids, for the reaper
+    @Query("SELECT s.id FROM Session s WHERE s.expiresAt < :cutoff AND s.id > :afterId ORDER BY s.id")
+    List<UUID> findExpiredIds(@Param("cutoff") LocalDateTime cutoff,
+                              @Param("afterId") UUID afterId,
+                              Pageable pageable);
+
+    long countByExpiresAtBefore(LocalDateTime cutoff);
+
+    @Query("SELECT new com.example.demo.graphql.SessionNode(s.id, s.user.id, s.createdAt, s.expiresAt) "
+            + "FROM Session s WHERE s.user.id IN :userIds AND s.expiresAt > :now ORDER BY s.createdAt DESC")
+    List<SessionNode> findActiveNodesByUserIdIn(@Param("userIds") Collection<UUID> userIds,
+                                                @Param("now") LocalDateTime now);
+
+    // Keeps the user's newest sessions and drops the rest in one statement
+    @Modifying
+    @Query(value = "DELETE FROM session WHERE user_id = :userId AND id NOT IN ("
+            + "SELECT id FROM session WHERE user_id = :userId ORDER BY created_at DESC, id DESC LIMIT :keep)",
+            nativeQuery = true)
+    int deleteOldestBeyond(@Param("userId") UUID userId, @Param("keep") int keep);
 
 }
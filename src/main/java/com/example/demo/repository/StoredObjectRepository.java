@@ -0,0 +1,55 @@
+package com.example.demo.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entity.StoredObject;
+
+@Repository
+public interface StoredObjectRepository extends JpaRepository<StoredObject, String> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO stored_object (content_hash, ref_count, uploaded, deleting, created_at)
+            VALUES (:hash, 1, false, false, now())
+            ON CONFLICT (content_hash) DO UPDATE SET ref_count = stored_object.ref_count + 1
+            WHERE NOT stored_object.deleting
+            """, nativeQuery = true)
+    int acquire(@Param("hash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE StoredObject o SET o.refCount = o.refCount - 1 WHERE o.contentHash = :hash AND o.refCount > 0")
+    int release(@Param("hash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE StoredObject o SET o.uploaded = true WHERE o.contentHash = :hash")
+    void markUploaded(@Param("hash") String contentHash);
+
+    @Query("SELECT o.refCount FROM StoredObject o WHERE o.contentHash = :hash")
+    Optional<Integer> findRefCount(@Param("hash") String contentHash);
+
+    @Query("SELECT o.uploaded FROM StoredObject o WHERE o.contentHash = :hash")
+    Optional<Boolean> findUploaded(@Param("hash") String contentHash);
+
+    // The three steps of a delete each commit on their own, so no lock is held across the storage calls
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredObject o SET o.deleting = true, o.uploaded = false WHERE o.contentHash = :hash AND o.refCount = 0")
+    int beginDelete(@Param("hash") String contentHash);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StoredObject o WHERE o.contentHash = :hash AND o.deleting = true")
+    void finishDelete(@Param("hash") String contentHash);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredObject o SET o.deleting = false WHERE o.contentHash = :hash")
+    void abortDelete(@Param("hash") String contentHash);
+}
@@ -1,9 +1,17 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.FollowUserDTO;
 import com.example.demo.entity.User;
+import com.example.demo.graphql.UserNode;
+import com.example.demo.repository.projection.UserWithProfileStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +21,37 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Single round trip for login: the user plus their profile completion flag
+    @Query("SELECT new com.example.demo.repository.projection.UserWithProfileStatus(u, COALESCE(p.isComplete, false)) "
+            + "FROM User u LEFT JOIN Profile p ON p.user = u WHERE u.email = :email")
+    Optional<UserWithProfileStatus> findWithProfileStatusByEmail(@Param("email") String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followersCount = u.followersCount + :delta WHERE u.id = :id")
+    int adjustFollowersCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followingCount = u.followingCount + :delta WHERE u.id = :id")
+    int adjustFollowingCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    // Users without a profile come back with a null username
+    @Query("SELECT new com.example.demo.dto.FollowUserDTO(u.id, p.username, p.profilePhotoSmallUrl) "
+            + "FROM User u LEFT JOIN Profile p ON p.user = u WHERE u.id IN :ids")
+    List<FollowUserDTO> findFollowUsersByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.example.demo.graphql.UserNode(u.id, u.name, u.followersCount, u.followingCount, u.createdAt) "
+            + "FROM User u WHERE u.id IN :ids")
+    List<UserNode> findNodesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.example.demo.graphql.UserNode(u.id, u.name, u.followersCount, u.followingCount, u.createdAt) "
+            + "FROM Profile p JOIN p.user u WHERE p.username = :username")
+    Optional<UserNode> findNodeByUsername(@Param("username") String username);
 }
@@ -0,0 +1,8 @@
+package com.example.demo.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Where a comment sits in its thread, enough to page its replies.
+ */
+public record CommentLocation(UUID postId, String path, int depth) {}
@@ -0,0 +1,9 @@
+package com.example.demo.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * The cacheable part of a public profile: everything except counts and viewer-specific flags.
+ */
+public record PublicProfile(UUID userId, String username, String bio, String profilePhotoUrl,
+                            String profilePhotoSmallUrl) {}
@@ -0,0 +1,8 @@
+package com.example.demo.repository.projection;
+
+import com.example.demo.entity.User;
+
+/**
+ * A user loaded together with the completion flag of their profile (false when they have none).
+ */
+public record UserWithProfileStatus(User user, Boolean profileComplete) {}
@@ -0,0 +1,110 @@
+package com.example.demo.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.repository.SessionRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes expired sessions in small batches, walking the expired rows by id so each
+ * delete is a short transaction that never holds locks on more than one batch.
+ */
+@Component
+@Slf4j
+public class ExpiredSessionReaper {
+
+    // Smallest uuid in Postgres ordering, the start of the keyset walk
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final SessionRepository sessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pause;
+
+    private final Counter reapedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public ExpiredSessionReaper(
+            SessionRepository sessionRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${session.reaper.batch-size:500}") int batchSize,
+            @Value("${session.reaper.pause:200ms}") Duration pause) {
+        this.sessionRepository = sessionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.pause = pause;
+
+        this.reapedCounter = Counter.builder("sessions.reaper.reaped")
+                .description("Expired sessions deleted by the reaper")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("sessions.reaper.batch")
+                .description("Time to select and delete one batch of expired sessions")
+                .register(meterRegistry);
+        Gauge.builder("sessions.reaper.backlog", backlog, AtomicLong::get)
+                .description("Expired sessions still present after the last run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${session.reaper.interval:PT5M}", initialDelayString = "PT1M")
+    public void reapExpiredSessions() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        UUID afterId = FIRST_ID;
+        long reaped = 0;
+
+        while (true) {
+            List<UUID> ids = deleteBatch(cutoff, afterId);
+            if (ids.isEmpty()) {
+                break;
+            }
+            reaped += ids.size();
+            afterId = ids.get(ids.size() - 1);
+
+            if (ids.size() < batchSize || !pauseBetweenBatches()) {
+                break;
+            }
+        }
+
+        backlog.set(sessionRepository.countByExpiresAtBefore(LocalDateTime.now()));
+        if (reaped > 0) {
+            log.info("Reaped {} expired sessions, {} left", reaped, backlog.get());
+        }
+    }
+
+    private List<UUID> deleteBatch(LocalDateTime cutoff, UUID afterId) {
+        return batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<UUID> ids = sessionRepository.findExpiredIds(cutoff, afterId, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                sessionRepository.deleteAllByIdInBatch(ids);
+                reapedCounter.increment(ids.size());
+            }
+            return ids;
+        }));
+    }
+
+    private boolean pauseBetweenBatches() {
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
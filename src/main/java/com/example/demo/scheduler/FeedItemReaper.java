@@ -0,0 +1,53 @@
+package com.example.demo.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.repository.FeedItemRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trims feed_items to the retention window, one short transaction per batch.
+ * Older feed pages are simply no longer reachable.
+ */
+@Component
+@Slf4j
+public class FeedItemReaper {
+
+    private final FeedItemRepository feedItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+
+    public FeedItemReaper(
+            FeedItemRepository feedItemRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${feed.retention:P30D}") Duration retention,
+            @Value("${feed.reaper.batch-size:5000}") int batchSize) {
+        this.feedItemRepository = feedItemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${feed.reaper.interval:PT1H}", initialDelayString = "PT5M")
+    public void reapOldItems() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long reaped = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> feedItemRepository.deleteOlderThan(cutoff, batchSize));
+            reaped += deleted;
+        } while (deleted == batchSize);
+
+        if (reaped > 0) {
+            log.info("Reaped {} feed items older than {}", reaped, cutoff);
+        }
+    }
+}
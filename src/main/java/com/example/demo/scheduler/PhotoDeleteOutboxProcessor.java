@@ -0,0 +1,92 @@
+package com.example.demo.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.entity.PhotoDeleteOutbox;
+import com.example.demo.repository.PhotoDeleteOutboxRepository;
+import com.example.demo.service.PhotoObjectRegistry;
+import com.example.demo.storage.StorageBackend;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the photo delete outbox. Storage deletes run outside any transaction;
+ * content-addressed ones go through {@link PhotoObjectRegistry}, which commits its row
+ * changes before and after the storage calls. Failed deletes are retried with exponential backoff and dropped
+ * after the attempt limit.
+ */
+@Component
+@Slf4j
+public class PhotoDeleteOutboxProcessor {
+
+    private final PhotoDeleteOutboxRepository outboxRepository;
+    private final StorageBackend storageBackend;
+    private final PhotoObjectRegistry photoObjectRegistry;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    public PhotoDeleteOutboxProcessor(
+            PhotoDeleteOutboxRepository outboxRepository,
+            StorageBackend storageBackend,
+            PhotoObjectRegistry photoObjectRegistry,
+            @Value("${photo.outbox.batch-size:100}") int batchSize,
+            @Value("${photo.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${photo.outbox.retry-backoff:PT30S}") Duration retryBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.storageBackend = storageBackend;
+        this.photoObjectRegistry = photoObjectRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    @Scheduled(fixedDelayString = "${photo.outbox.interval:PT30S}", initialDelayString = "PT30S")
+    public void processOutbox() {
+        List<PhotoDeleteOutbox> due = outboxRepository.findByNextAttemptAtBeforeOrderByNextAttemptAt(
+                LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<UUID> done = new ArrayList<>();
+        List<PhotoDeleteOutbox> retry = new ArrayList<>();
+        for (PhotoDeleteOutbox entry : due) {
+            if (delete(entry)) {
+                done.add(entry.getId());
+            } else if (entry.getAttempts() + 1 >= maxAttempts) {
+                log.error("Dropping delete of {} after {} attempts", entry.getFileUrl(), entry.getAttempts() + 1);
+                done.add(entry.getId());
+            } else {
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setNextAttemptAt(LocalDateTime.now()
+                        .plus(retryBackoff.multipliedBy(1L << Math.min(entry.getAttempts() - 1, 10))));
+                retry.add(entry);
+            }
+        }
+
+        if (!done.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(done);
+        }
+        if (!retry.isEmpty()) {
+            outboxRepository.saveAll(retry);
+        }
+        log.info("Photo delete outbox: {} done, {} to retry", done.size(), retry.size());
+    }
+
+    private boolean delete(PhotoDeleteOutbox entry) {
+        if (entry.getContentHash() != null) {
+            return photoObjectRegistry.deleteIfUnreferenced(entry.getContentHash());
+        }
+        return storageBackend.deleteFile(entry.getFileUrl());
+    }
+}
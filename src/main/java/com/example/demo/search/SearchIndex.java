@@ -0,0 +1,302 @@
+package com.example.demo.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.follow.FollowGraphIndex;
+import com.example.demo.search.TextIndex.Completion;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves user and post search from two {@link TextIndex}es: profiles keyed by user id
+ * (username as the completion label, bio as text) and posts keyed by post id. The tables
+ * stay the source of truth. Committed writes on this instance are applied incrementally,
+ * and a periodic rebuild picks up everything else, the same way {@link FollowGraphIndex}
+ * does, including the replay of writes that arrive while a rebuild is loading.
+ *
+ * <p>With {@code search.snapshot.path} set, the indexes are written to disk after each
+ * rebuild and on shutdown. A restart then reads the snapshot and only loads the rows
+ * changed since the snapshot's data was read from the database. Rows deleted in that
+ * window stay in the index until the next rebuild; search results are hydrated from the
+ * database, which drops them.
+ */
+@Component
+@Slf4j
+public class SearchIndex implements SmartInitializingSingleton {
+
+    private static final String LOAD_PROFILES =
+            "SELECT user_id, username, bio FROM profile WHERE username IS NOT NULL";
+    private static final String LOAD_POSTS = "SELECT id, content FROM posts";
+    private static final String CHANGED_PROFILES = LOAD_PROFILES + " AND updated_at >= ?";
+    private static final String CHANGED_POSTS = LOAD_POSTS + " WHERE updated_at >= ?";
+
+    private enum Kind { PROFILE, POST, POST_DELETED }
+
+    private record Mutation(Kind kind, UUID key, String label, String text) {
+    }
+
+    // loadedFrom: when the rows these indexes were loaded from were read
+    private record Indexes(TextIndex profiles, TextIndex posts, LocalDateTime loadedFrom) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FollowGraphIndex followGraph;
+    private final int maxPostingsScan;
+    private final int typeaheadCandidates;
+    private final Path snapshotPath;
+    private final Duration catchUpMargin;
+
+    private final ReentrantLock mutationLock = new ReentrantLock();
+    private volatile Indexes indexes;
+    // Non-null while a rebuild is loading; guarded by mutationLock
+    private List<Mutation> replay;
+
+    public SearchIndex(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            FollowGraphIndex followGraph,
+            MeterRegistry meterRegistry,
+            @Value("${search.max-postings-scan:20000}") int maxPostingsScan,
+            @Value("${search.typeahead.candidates:64}") int typeaheadCandidates,
+            @Value("${search.snapshot.path:}") String snapshotPath,
+            @Value("${search.snapshot.catch-up-margin:PT5M}") Duration catchUpMargin) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.followGraph = followGraph;
+        this.maxPostingsScan = maxPostingsScan;
+        this.typeaheadCandidates = typeaheadCandidates;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.catchUpMargin = catchUpMargin;
+        this.indexes = new Indexes(new TextIndex(maxPostingsScan), new TextIndex(maxPostingsScan), LocalDateTime.MIN);
+
+        Gauge.builder("search.index.profiles", this, index -> index.indexes.profiles().size())
+                .register(meterRegistry);
+        Gauge.builder("search.index.posts", this, index -> index.indexes.posts().size())
+                .register(meterRegistry);
+    }
+
+    // Runs before the web server starts, so no request sees an empty index
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (snapshotPath == null || !restore()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.rebuild-interval:PT6H}",
+            initialDelayString = "${search.rebuild-interval:PT6H}")
+    public void rebuild() {
+        mutationLock.lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            mutationLock.unlock();
+        }
+
+        long start = System.nanoTime();
+        Indexes next = null;
+        try {
+            // The old indexes keep serving meanwhile, so memory peaks at two copies
+            LocalDateTime loadedFrom = LocalDateTime.now();
+            next = new Indexes(loadProfiles(), loadPosts(), loadedFrom);
+        } finally {
+            mutationLock.lock();
+            try {
+                if (next != null) {
+                    for (Mutation mutation : replay) {
+                        apply(next, mutation);
+                    }
+                    indexes = next;
+                }
+                replay = null;
+            } finally {
+                mutationLock.unlock();
+            }
+        }
+        log.info("Search index loaded: {} profiles, {} posts in {} ms", next.profiles().size(),
+                next.posts().size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        writeSnapshot();
+    }
+
+    public void onProfileSaved(UUID userId, String username, String bio) {
+        afterCommit(new Mutation(Kind.PROFILE, userId, username, bio));
+    }
+
+    public void onPostSaved(UUID postId, String content) {
+        afterCommit(new Mutation(Kind.POST, postId, null, content));
+    }
+
+    public void onPostDeleted(UUID postId) {
+        afterCommit(new Mutation(Kind.POST_DELETED, postId, null, null));
+    }
+
+    public TextIndex.Result searchUsers(String query, int offset, int limit) {
+        return indexes.profiles().search(query, offset, limit);
+    }
+
+    public TextIndex.Result searchPosts(String query, int offset, int limit) {
+        return indexes.posts().search(query, offset, limit);
+    }
+
+    /**
+     * Users whose username starts with {@code prefix}: an exact match first, then the most
+     * followed among the first few candidates in name order.
+     */
+    public List<UUID> completeUsers(String prefix, int limit) {
+        List<Completion> candidates = indexes.profiles().complete(prefix, Math.max(limit, typeaheadCandidates));
+        String normalized = Tokenizer.normalizeLabel(prefix);
+        return candidates.stream()
+                .sorted(Comparator
+                        .comparing((Completion completion) -> !completion.label().equals(normalized))
+                        .thenComparing(completion -> -followGraph.followersCount(completion.key())))
+                .limit(limit)
+                .map(Completion::key)
+                .toList();
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        Indexes current = indexes;
+        long start = System.nanoTime();
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, snapshotPath.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeUTF(current.loadedFrom().toString());
+                current.profiles().writeTo(out);
+                current.posts().writeTo(out);
+            }
+            // A crash mid-write leaves the previous snapshot in place
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Search snapshot written to {} in {} ms", snapshotPath,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (IOException e) {
+            log.warn("Could not write search snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    private boolean restore() {
+        if (!Files.isReadable(snapshotPath)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotPath), 1 << 16))) {
+            LocalDateTime snapshotFrom = LocalDateTime.parse(in.readUTF());
+            TextIndex profiles = TextIndex.readFrom(in, maxPostingsScan);
+            TextIndex posts = TextIndex.readFrom(in, maxPostingsScan);
+
+            // The margin covers clock skew between instances and transactions that committed
+            // after the snapshot's rows were read but stamped updated_at before
+            LocalDateTime loadedFrom = LocalDateTime.now();
+            Timestamp since = Timestamp.valueOf(snapshotFrom.minus(catchUpMargin));
+            int changed = stream(CHANGED_PROFILES, rs -> profiles.put(
+                    rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3)), since);
+            changed += stream(CHANGED_POSTS, rs -> posts.put(
+                    rs.getObject(1, UUID.class), null, rs.getString(2)), since);
+
+            indexes = new Indexes(profiles, posts, loadedFrom);
+            log.info("Search index restored from {}: {} profiles, {} posts, {} changed rows in {} ms",
+                    snapshotPath, profiles.size(), posts.size(), changed,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore search snapshot {}, rebuilding from the database", snapshotPath, e);
+            return false;
+        }
+    }
+
+    private TextIndex loadProfiles() {
+        Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM profile", Integer.class);
+        TextIndex.Builder builder = new TextIndex.Builder(maxPostingsScan, rows != null ? rows : 0);
+        stream(LOAD_PROFILES, rs -> builder.add(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3)));
+        return builder.build();
+    }
+
+    private TextIndex loadPosts() {
+        Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM posts", Integer.class);
+        TextIndex.Builder builder = new TextIndex.Builder(maxPostingsScan, rows != null ? rows : 0);
+        stream(LOAD_POSTS, rs -> builder.add(rs.getObject(1, UUID.class), null, rs.getString(2)));
+        return builder.build();
+    }
+
+    private int stream(String sql, RowCallbackHandler handler, Object... args) {
+        int[] rows = new int[1];
+        // Postgres only streams with a cursor inside a transaction; otherwise the whole result is buffered
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(10_000);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            handler.processRow(rs);
+            rows[0]++;
+        }));
+        return rows[0];
+    }
+
+    private void afterCommit(Mutation mutation) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mutate(mutation);
+            }
+        });
+    }
+
+    private void mutate(Mutation mutation) {
+        mutationLock.lock();
+        try {
+            apply(indexes, mutation);
+            if (replay != null) {
+                replay.add(mutation);
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    private static void apply(Indexes target, Mutation mutation) {
+        switch (mutation.kind()) {
+            case PROFILE -> target.profiles().put(mutation.key(), mutation.label(), mutation.text());
+            case POST -> target.posts().put(mutation.key(), null, mutation.text());
+            case POST_DELETED -> target.posts().remove(mutation.key());
+        }
+    }
+}
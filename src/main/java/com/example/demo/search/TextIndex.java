@@ -0,0 +1,713 @@
+package com.example.demo.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over short documents keyed by UUID, with tf-idf ranked search
+ * and prefix completion on an optional per-document label such as a username.
+ *
+ * <p>Documents get dense int ids in insertion order, so every postings list is sorted by
+ * id: new postings are appended and membership is a binary search. Re-indexing a document
+ * retires its old id and gives it a new one; retired ids are skipped at query time and
+ * disappear at the next rebuild or snapshot. Completion walks a sorted label array built
+ * once, merged with a TreeMap of the labels set since.
+ */
+public final class TextIndex {
+
+    public record Hit(UUID key, float score) {
+    }
+
+    public record Result(List<Hit> hits, int totalMatches) {
+    }
+
+    public record Completion(UUID key, String label) {
+    }
+
+    // Label terms count this many times, so a name match outranks a passing mention
+    static final int LABEL_BOOST = 3;
+
+    private static final int SNAPSHOT_MAGIC = 0x54584958;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int MAX_FREQUENCY = 255;
+    private static final int NO_DOC = -1;
+    private static final Result NO_RESULT = new Result(List.of(), 0);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxPostingsScan;
+
+    // Indexed by document id
+    private long[] keyMsb;
+    private long[] keyLsb;
+    private float[] norms;
+    private String[] labels;
+    private final BitSet live = new BitSet();
+    private int docCount;
+    private int liveCount;
+
+    // Key to latest document id + 1, 0 being empty. Probes compare against keyMsb/keyLsb,
+    // so a slot is 4 bytes; keys of removed documents keep their slot until the next rebuild
+    private int[] table;
+    private int tableUsed;
+
+    private final HashMap<String, Postings> terms = new HashMap<>();
+
+    private String[] sortedLabels = new String[0];
+    private int[] sortedLabelDocs = new int[0];
+    private final TreeMap<String, Integer> recentLabels = new TreeMap<>();
+
+    /**
+     * @param maxPostingsScan postings scanned per query term; documents matching only terms
+     *                        more common than this are found among the newest ones alone
+     */
+    public TextIndex(int maxPostingsScan) {
+        this(maxPostingsScan, 1024);
+    }
+
+    private TextIndex(int maxPostingsScan, int expectedDocs) {
+        int capacity = Math.max(16, expectedDocs);
+        this.maxPostingsScan = maxPostingsScan;
+        this.keyMsb = new long[capacity];
+        this.keyLsb = new long[capacity];
+        this.norms = new float[capacity];
+        this.labels = new String[capacity];
+        this.table = new int[tableSizeFor(capacity)];
+    }
+
+    /**
+     * Adds the document, or replaces it if the key is already indexed.
+     */
+    public void put(UUID key, String label, String text) {
+        String normalized = label != null ? Tokenizer.normalizeLabel(label) : null;
+        Map<String, Integer> frequencies = analyze(label, text);
+        lock.writeLock().lock();
+        try {
+            add(key, normalized, frequencies);
+            if (normalized != null && !normalized.isEmpty()) {
+                recentLabels.put(normalized, docCount - 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(UUID key) {
+        lock.writeLock().lock();
+        try {
+            int doc = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            if (doc == NO_DOC) {
+                return false;
+            }
+            retire(doc);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Documents matching any query term, best tf-idf score first; ties go to the newer document.
+     */
+    public Result search(String query, int offset, int limit) {
+        List<String> queryTerms = Tokenizer.tokenize(query).stream().distinct().toList();
+        int wanted = offset + limit;
+        if (queryTerms.isEmpty() || limit <= 0 || offset < 0) {
+            return NO_RESULT;
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                Postings postings = terms.get(term);
+                if (postings != null) {
+                    lists.add(postings);
+                }
+            }
+            if (lists.isEmpty()) {
+                return NO_RESULT;
+            }
+            // Rarest first: they carry the most weight and bound the candidate set
+            lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+            ScoreTable scores = new ScoreTable(Math.min(lists.get(0).size, maxPostingsScan));
+            for (int i = 0; i < lists.size(); i++) {
+                Postings postings = lists.get(i);
+                float idf = idf(postings.size);
+                float weight = idf * idf;
+                if (i == 0 || postings.size <= maxPostingsScan) {
+                    // Newest first, so a capped scan keeps the most recent documents
+                    int stop = Math.max(0, postings.size - maxPostingsScan);
+                    for (int j = postings.size - 1; j >= stop; j--) {
+                        int doc = postings.docs[j];
+                        if (live.get(doc)) {
+                            scores.add(doc, termScore(postings.frequencies[j], weight, doc));
+                        }
+                    }
+                } else {
+                    // Too common to scan; it only adds to documents the rarer terms matched
+                    for (int slot = 0; slot < scores.docs.length; slot++) {
+                        int doc = scores.docs[slot] - 1;
+                        if (doc >= 0) {
+                            int index = postings.indexOf(doc);
+                            if (index >= 0) {
+                                scores.values[slot] += termScore(postings.frequencies[index], weight, doc);
+                            }
+                        }
+                    }
+                }
+            }
+            return new Result(top(scores, offset, wanted), scores.size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} documents whose label starts with {@code prefix}, in label order.
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        String normalized = Tokenizer.normalizeLabel(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Completion> result = new ArrayList<>(Math.min(limit, 64));
+            int i = lowerBound(sortedLabels, normalized);
+            Iterator<Map.Entry<String, Integer>> recent =
+                    recentLabels.tailMap(normalized, true).entrySet().iterator();
+            Map.Entry<String, Integer> nextRecent = nextMatch(recent, normalized);
+
+            while (result.size() < limit) {
+                boolean sortedMatch = i < sortedLabels.length && sortedLabels[i].startsWith(normalized);
+                if (!sortedMatch && nextRecent == null) {
+                    break;
+                }
+                String label;
+                int doc;
+                if (sortedMatch && (nextRecent == null || sortedLabels[i].compareTo(nextRecent.getKey()) <= 0)) {
+                    label = sortedLabels[i];
+                    doc = sortedLabelDocs[i++];
+                } else {
+                    label = nextRecent.getKey();
+                    doc = nextRecent.getValue();
+                    nextRecent = nextMatch(recent, normalized);
+                }
+                // Sorted entries go stale when their document is retired
+                if (live.get(doc) && label.equals(labels[doc])) {
+                    result.add(new Completion(key(doc), label));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the live documents, renumbered densely. The renumbering preserves order, so the
+     * postings are written sorted and load back without any sorting or tokenizing.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            int[] remap = new int[docCount];
+            int next = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                remap[doc] = live.get(doc) ? next++ : NO_DOC;
+            }
+
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(next);
+            for (int doc = live.nextSetBit(0); doc >= 0 && doc < docCount; doc = live.nextSetBit(doc + 1)) {
+                out.writeLong(keyMsb[doc]);
+                out.writeLong(keyLsb[doc]);
+                out.writeFloat(norms[doc]);
+                out.writeBoolean(labels[doc] != null);
+                if (labels[doc] != null) {
+                    out.writeUTF(labels[doc]);
+                }
+            }
+
+            int[] labelOrder = labelOrder();
+            out.writeInt(labelOrder.length);
+            for (int doc : labelOrder) {
+                out.writeInt(remap[doc]);
+            }
+
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                Postings postings = entry.getValue();
+                int count = 0;
+                for (int j = 0; j < postings.size; j++) {
+                    if (remap[postings.docs[j]] != NO_DOC) {
+                        count++;
+                    }
+                }
+                if (count == 0) {
+                    continue;
+                }
+                out.writeBoolean(true);
+                out.writeUTF(entry.getKey());
+                out.writeInt(count);
+                int previous = -1;
+                for (int j = 0; j < postings.size; j++) {
+                    int doc = remap[postings.docs[j]];
+                    if (doc != NO_DOC) {
+                        writeVarInt(out, doc - previous);
+                        out.writeByte(postings.frequencies[j]);
+                        previous = doc;
+                    }
+                }
+            }
+            out.writeBoolean(false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static TextIndex readFrom(DataInputStream in, int maxPostingsScan) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Not a text index snapshot, or written by another version");
+        }
+        int docs = in.readInt();
+        TextIndex index = new TextIndex(maxPostingsScan, docs);
+        for (int doc = 0; doc < docs; doc++) {
+            long msb = in.readLong();
+            long lsb = in.readLong();
+            float norm = in.readFloat();
+            String label = in.readBoolean() ? in.readUTF() : null;
+            index.addDocument(msb, lsb, label, norm);
+        }
+
+        int labelled = in.readInt();
+        index.sortedLabelDocs = new int[labelled];
+        index.sortedLabels = new String[labelled];
+        for (int i = 0; i < labelled; i++) {
+            int doc = in.readInt();
+            index.sortedLabelDocs[i] = doc;
+            index.sortedLabels[i] = index.labels[doc];
+        }
+
+        while (in.readBoolean()) {
+            String term = in.readUTF();
+            int count = in.readInt();
+            Postings postings = new Postings(count);
+            int doc = -1;
+            for (int j = 0; j < count; j++) {
+                doc += readVarInt(in);
+                postings.add(doc, in.readUnsignedByte());
+            }
+            index.terms.put(term, postings);
+        }
+        return index;
+    }
+
+    /**
+     * Bulk load without the per-label TreeMap inserts; labels are sorted once in {@link #build()}.
+     * Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final TextIndex index;
+
+        public Builder(int maxPostingsScan, int expectedDocs) {
+            this.index = new TextIndex(maxPostingsScan, expectedDocs);
+        }
+
+        public Builder add(UUID key, String label, String text) {
+            String normalized = label != null ? Tokenizer.normalizeLabel(label) : null;
+            index.add(key, normalized, analyze(label, text));
+            return this;
+        }
+
+        public TextIndex build() {
+            index.sealLabels();
+            return index;
+        }
+    }
+
+    private static Map<String, Integer> analyze(String label, String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        if (label != null) {
+            for (String term : Tokenizer.tokenize(label)) {
+                frequencies.merge(term, LABEL_BOOST, Integer::sum);
+            }
+        }
+        for (String term : Tokenizer.tokenize(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private void add(UUID key, String normalizedLabel, Map<String, Integer> frequencies) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        int previous = find(msb, lsb);
+        if (previous != NO_DOC) {
+            retire(previous);
+        }
+
+        int length = 0;
+        for (int frequency : frequencies.values()) {
+            length += frequency;
+        }
+        String label = normalizedLabel != null && !normalizedLabel.isEmpty() ? normalizedLabel : null;
+        int doc = addDocument(msb, lsb, label, (float) (1 / Math.sqrt(Math.max(1, length))));
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), term -> new Postings(2)).add(doc, entry.getValue());
+        }
+    }
+
+    private int addDocument(long msb, long lsb, String label, float norm) {
+        if (docCount == keyMsb.length) {
+            int capacity = keyMsb.length * 2;
+            keyMsb = Arrays.copyOf(keyMsb, capacity);
+            keyLsb = Arrays.copyOf(keyLsb, capacity);
+            norms = Arrays.copyOf(norms, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+        }
+        int doc = docCount++;
+        keyMsb[doc] = msb;
+        keyLsb[doc] = lsb;
+        norms[doc] = norm;
+        labels[doc] = label;
+        live.set(doc);
+        liveCount++;
+
+        int slot = slotOf(msb, lsb);
+        if (table[slot] == 0) {
+            tableUsed++;
+        }
+        table[slot] = doc + 1;
+        if (tableUsed * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return doc;
+    }
+
+    private void retire(int doc) {
+        live.clear(doc);
+        liveCount--;
+        if (labels[doc] != null) {
+            recentLabels.remove(labels[doc], doc);
+        }
+    }
+
+    private UUID key(int doc) {
+        return new UUID(keyMsb[doc], keyLsb[doc]);
+    }
+
+    private int find(long msb, long lsb) {
+        int doc = table[slotOf(msb, lsb)] - 1;
+        return doc >= 0 && live.get(doc) ? doc : NO_DOC;
+    }
+
+    // The slot holding this key, or the empty slot where it belongs
+    private int slotOf(long msb, long lsb) {
+        int mask = table.length - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (table[slot] != 0) {
+            int doc = table[slot] - 1;
+            if (keyMsb[doc] == msb && keyLsb[doc] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int size) {
+        int[] old = table;
+        table = new int[size];
+        for (int entry : old) {
+            if (entry != 0) {
+                table[slotOf(keyMsb[entry - 1], keyLsb[entry - 1])] = entry;
+            }
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int docs) {
+        return Integer.highestOneBit(Math.max(8, docs) * 2 - 1) << 1;
+    }
+
+    private void sealLabels() {
+        int[] order = labelOrder();
+        String[] ordered = new String[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ordered[i] = labels[order[i]];
+        }
+        sortedLabels = ordered;
+        sortedLabelDocs = order;
+        recentLabels.clear();
+    }
+
+    // Live labelled documents in label order, from the sorted array and the recent labels
+    private int[] labelOrder() {
+        if (recentLabels.isEmpty() && sortedLabels.length == 0) {
+            // Straight after a bulk load: nothing sorted yet
+            List<Integer> docs = new ArrayList<>();
+            for (int doc = live.nextSetBit(0); doc >= 0 && doc < docCount; doc = live.nextSetBit(doc + 1)) {
+                if (labels[doc] != null) {
+                    docs.add(doc);
+                }
+            }
+            Integer[] order = docs.toArray(new Integer[0]);
+            Arrays.parallelSort(order, Comparator.comparing((Integer doc) -> labels[doc]));
+            return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+        }
+        int[] order = new int[sortedLabels.length + recentLabels.size()];
+        int count = 0;
+        int i = 0;
+        Iterator<Map.Entry<String, Integer>> recent = recentLabels.entrySet().iterator();
+        Map.Entry<String, Integer> nextRecent = recent.hasNext() ? recent.next() : null;
+        while (i < sortedLabels.length || nextRecent != null) {
+            int doc;
+            String label;
+            if (i < sortedLabels.length
+                    && (nextRecent == null || sortedLabels[i].compareTo(nextRecent.getKey()) <= 0)) {
+                label = sortedLabels[i];
+                doc = sortedLabelDocs[i++];
+            } else {
+                label = nextRecent.getKey();
+                doc = nextRecent.getValue();
+                nextRecent = recent.hasNext() ? recent.next() : null;
+            }
+            if (live.get(doc) && label.equals(labels[doc])) {
+                order[count++] = doc;
+            }
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    private static Map.Entry<String, Integer> nextMatch(Iterator<Map.Entry<String, Integer>> entries, String prefix) {
+        if (!entries.hasNext()) {
+            return null;
+        }
+        Map.Entry<String, Integer> entry = entries.next();
+        return entry.getKey().startsWith(prefix) ? entry : null;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.max(0.1, 1 + Math.log((double) liveCount / (documentFrequency + 1)));
+    }
+
+    private float termScore(byte frequency, float weight, int doc) {
+        return (float) Math.sqrt(frequency & 0xFF) * weight * norms[doc];
+    }
+
+    private List<Hit> top(ScoreTable scores, int offset, int wanted) {
+        // Non-negative float bits order like the floats, so score and doc id pack into one
+        // long that sorts by score, then by doc id (newer wins a tie)
+        long[] heap = new long[Math.min(wanted, scores.size)];
+        int size = 0;
+        for (int slot = 0; slot < scores.docs.length; slot++) {
+            int doc = scores.docs[slot] - 1;
+            if (doc < 0) {
+                continue;
+            }
+            long packed = ((long) Float.floatToIntBits(scores.values[slot]) << 32) | doc;
+            if (size < heap.length) {
+                heap[size++] = packed;
+                siftUp(heap, size - 1);
+            } else if (heap.length > 0 && packed > heap[0]) {
+                heap[0] = packed;
+                siftDown(heap, size);
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        List<Hit> hits = new ArrayList<>(Math.max(0, size - offset));
+        for (int i = size - 1 - offset; i >= 0; i--) {
+            long packed = heap[i];
+            hits.add(new Hit(key((int) packed), Float.intBitsToFloat((int) (packed >>> 32))));
+        }
+        return hits;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            long swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            long swap = heap[smallest];
+            heap[smallest] = heap[index];
+            heap[index] = swap;
+            index = smallest;
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] docs;
+        private byte[] frequencies;
+        private int size;
+
+        Postings(int capacity) {
+            this.docs = new int[Math.max(1, capacity)];
+            this.frequencies = new byte[Math.max(1, capacity)];
+        }
+
+        // Document ids only grow, so appending keeps the list sorted
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                int capacity = size + (size >> 1) + 1;
+                docs = Arrays.copyOf(docs, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            docs[size] = doc;
+            frequencies[size] = (byte) Math.min(frequency, MAX_FREQUENCY);
+            size++;
+        }
+
+        int indexOf(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            return index >= 0 ? index : -1;
+        }
+    }
+
+    // Open addressing from document id (+1) to its accumulated score
+    private static final class ScoreTable {
+
+        private int[] docs;
+        private float[] values;
+        private int size;
+
+        ScoreTable(int expected) {
+            int capacity = tableSizeFor(expected);
+            this.docs = new int[capacity];
+            this.values = new float[capacity];
+        }
+
+        void add(int doc, float score) {
+            int mask = docs.length - 1;
+            int slot = mix(doc) & mask;
+            while (docs[slot] != 0) {
+                if (docs[slot] == doc + 1) {
+                    values[slot] += score;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            docs[slot] = doc + 1;
+            values[slot] = score;
+            if (++size * 2 > docs.length) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            int[] oldDocs = docs;
+            float[] oldValues = values;
+            docs = new int[oldDocs.length * 2];
+            values = new float[oldDocs.length * 2];
+            int mask = docs.length - 1;
+            for (int i = 0; i < oldDocs.length; i++) {
+                if (oldDocs[i] != 0) {
+                    int slot = mix(oldDocs[i] - 1) & mask;
+                    while (docs[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    docs[slot] = oldDocs[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int mix(int doc) {
+            int h = doc * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
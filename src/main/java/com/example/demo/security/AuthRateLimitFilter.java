@@ -0,0 +1,65 @@
+package com.example.demo.security;
+
+import com.example.demo.exception.GlobalExceptionHandler.ErrorResponse;
+import com.example.demo.ratelimit.AuthRateLimits;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Refuses login and signup requests from a client address over its limit with a 429,
+ * before the body is parsed or a password hashed. Every other request passes after two
+ * string comparisons. The address is the connection's peer; behind a proxy, set
+ * {@code server.forward-headers-strategy} so it is the client's instead of the proxy's.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private final AuthRateLimits authRateLimits;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // Decoded and normalized by the container, as the dispatcher matches it; the raw
+        // request URI would let /api/auth/%6Cogin reach login unlimited
+        String servletPath = request.getServletPath();
+        String path = request.getPathInfo() != null ? servletPath + request.getPathInfo() : servletPath;
+        return !"POST".equals(request.getMethod())
+                || !(path.equals("/api/auth/login") || path.equals("/api/auth/signup"));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long retryAfter = authRateLimits.checkAddress(request.getRemoteAddr());
+        if (retryAfter == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many attempts, try again later",
+                LocalDateTime.now()
+        ));
+    }
+}
@@ -15,6 +15,13 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return userRepository.findWithProfileStatusByEmail(email)
+                .map(row -> new UserPrincipal(row.user(), row.profileComplete()))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
+
+    // Bearer requests never read the profile flag, so they load the user without the join
+    public UserDetails loadUserWithoutProfileStatus(String email) throws UsernameNotFoundException {
         return userRepository.findByEmail(email)
                 .map(UserPrincipal::new)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
@@ -5,11 +5,11 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,7 +21,12 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+
+    // When enabled, the principal is built from the token claims instead of loaded from the database
+    @Value("${jwt.stateless-auth:false}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(
@@ -31,7 +36,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -41,12 +45,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
-
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = statelessAuth
+                        ? loadFromClaims(jwt)
+                        : loadFromDatabase(jwt);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -63,4 +67,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails loadFromDatabase(String jwt) {
+        final String userEmail = jwtService.extractUsername(jwt);
+        if (userEmail == null) {
+            return null;
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserWithoutProfileStatus(userEmail);
+        return jwtService.isTokenValid(jwt, userDetails) ? userDetails : null;
+    }
+
+    private UserDetails loadFromClaims(String jwt) {
+        UserPrincipal userPrincipal = jwtService.extractPrincipal(jwt);
+        if (userPrincipal == null) {
+            // Token issued before the id/role claims existed
+            return loadFromDatabase(jwt);
+        }
+        boolean current = tokenVersionService.isCurrent(
+                userPrincipal.getUser().getId(),
+                userPrincipal.getUser().getTokenVersion()
+        );
+        return current ? userPrincipal : null;
+    }
 }
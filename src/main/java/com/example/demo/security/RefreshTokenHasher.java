@@ -0,0 +1,23 @@
+package com.example.demo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Derives the fixed-size session lookup key from a refresh token.
+ */
+public final class RefreshTokenHasher {
+
+    private RefreshTokenHasher() {
+    }
+
+    public static byte[] hash(String refreshToken) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
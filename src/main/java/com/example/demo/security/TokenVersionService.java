@@ -0,0 +1,73 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Tracks the current token version per user so stateless JWT authentication can
+ * reject revoked tokens without loading the user on every request.
+ * A revocation on another node reaches this one when the cached version expires,
+ * after at most {@code jwt.token-version.ttl}.
+ */
+@Service
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+
+    private final Cache<UUID, Integer> versions;
+
+    public TokenVersionService(
+            UserRepository userRepository,
+            @Value("${jwt.token-version.max-size:100000}") long maxSize,
+            @Value("${jwt.token-version.ttl:PT30S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Checks a token version against the user's current one. The version is read from the
+     * database when it is not cached on this node.
+     * @return false if the token was revoked or the user no longer exists
+     */
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        Integer current = versions.getIfPresent(userId);
+        if (current == null) {
+            // Loaded outside the map lock (no pinned virtual thread during the query);
+            // max() keeps a concurrent revocation from being overwritten by an older read
+            Integer loaded = userRepository.findTokenVersionById(userId).orElse(null);
+            current = loaded == null ? null : versions.asMap().merge(userId, loaded, Math::max);
+        }
+        return current != null && current == tokenVersion;
+    }
+
+    /**
+     * Revokes every token issued to the user so far by bumping their token version.
+     * The cached version is only updated once the bump has committed.
+     */
+    @Transactional
+    public void revokeAll(User user) {
+        UUID userId = user.getId();
+        userRepository.incrementTokenVersion(userId);
+        int newVersion = userRepository.findTokenVersionById(userId).orElse(0);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.asMap().merge(userId, newVersion, Math::max);
+            }
+        });
+    }
+}
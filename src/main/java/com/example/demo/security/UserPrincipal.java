@@ -1,6 +1,7 @@
 package com.example.demo.security;
 
 import com.example.demo.entity.User;
+import com.example.demo.enums.Role;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -11,6 +12,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @RequiredArgsConstructor
 @Getter
@@ -18,6 +20,13 @@ public class UserPrincipal implements UserDetails {
 
     private final User user;
 
+    // Profile completion as loaded alongside the user; false when not loaded
+    private final boolean profileComplete;
+
+    public UserPrincipal(User user) {
+        this(user, false);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
@@ -53,6 +62,20 @@ public class UserPrincipal implements UserDetails {
         return true; // Change to: return user.isEmailVerified(); when implementing email verification
     }
 
+    /**
+     * Builds a principal straight from verified JWT claims, without a database lookup.
+     * Only id, email, role and token version are populated on the wrapped User.
+     */
+    public static UserPrincipal fromClaims(UUID id, String email, Role role, int tokenVersion) {
+        User user = User.builder()
+                .id(id)
+                .email(email)
+                .role(role)
+                .tokenVersion(tokenVersion)
+                .build();
+        return new UserPrincipal(user);
+    }
+
     /**
      * Helper method to get the currently authenticated User from Spring Security context
      * @return the authenticated User entity
@@ -62,4 +85,16 @@ public class UserPrincipal implements UserDetails {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         return userPrincipal.getUser();
     }
+
+    /**
+     * For endpoints where authentication is optional.
+     * @return the authenticated user's id, or null for anonymous requests
+     */
+    public static UUID getCurrentUserIdOrNull() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getUser().getId();
+        }
+        return null;
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded memo of tokens whose signature has already been verified, so repeated
+ * requests with the same token skip the HMAC check and JSON parsing.
+ * Entries are only served until the token itself expires.
+ */
+final class VerifiedTokenCache {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long lastSweep;
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the cached claims, or null if the token is unknown or has expired
+     */
+    Claims get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    void put(String token, Claims claims) {
+        if (maxSize <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            sweepExpired();
+            if (entries.size() >= maxSize) {
+                // Still full of live tokens: skip caching rather than evicting at random
+                return;
+            }
+        }
+        entries.put(token, new Entry(claims, claims.getExpiration().getTime()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void sweepExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep < SWEEP_INTERVAL_MILLIS) {
+            return;
+        }
+        lastSweep = now;
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+    }
+
+    private record Entry(Claims claims, long expiresAt) {}
+}
@@ -0,0 +1,80 @@
+package com.example.demo.seed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seeds users, profiles and millions of posts for timeline load tests, entirely in SQL
+ * with generate_series. Post authors are skewed so a few users get very deep timelines.
+ * Only active with the "seed" profile:
+ * mvn spring-boot:run -Dspring-boot.run.profiles=seed -Dspring-boot.run.arguments=--seed.posts=5000000
+ * Seeded users log in as seed{n}@example.com with password "password123".
+ */
+@Component
+@Profile("seed")
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineSeeder implements ApplicationRunner {
+
+    private static final int POSTS_PER_TRANSACTION = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${seed.users:1000}")
+    private int users;
+
+    @Value("${seed.posts:2000000}")
+    private long posts;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String password = passwordEncoder.encode("password123");
+
+        int createdUsers = jdbcTemplate.update("""
+                INSERT INTO users (id, name, email, password, role, email_verified, token_version, created_at, updated_at)
+                SELECT gen_random_uuid(), 'Seed User ' || g, 'seed' || g || '@example.com', ?, 'USER', true, 0, now(), now()
+                FROM generate_series(1, ?) g
+                ON CONFLICT (email) DO NOTHING
+                """, password, users);
+
+        jdbcTemplate.update("""
+                INSERT INTO profile (id, user_id, username, bio, photo_version, is_complete, created_at)
+                SELECT gen_random_uuid(), u.id, 'seed_' || split_part(u.email, '@', 1), 'Seeded profile', 0, true, now()
+                FROM users u
+                WHERE u.email LIKE 'seed%@example.com'
+                  AND NOT EXISTS (SELECT 1 FROM profile p WHERE p.user_id = u.id)
+                """);
+
+        long start = System.nanoTime();
+        for (long from = 1; from <= posts; from += POSTS_PER_TRANSACTION) {
+            long to = Math.min(posts, from + POSTS_PER_TRANSACTION - 1);
+            // power(random(), 3) puts most posts on the first few users
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("""
+                    INSERT INTO posts (id, content, user_id, likes_count, comments_count, created_at, updated_at)
+                    SELECT gen_random_uuid(), 'Seed post ' || g,
+                           s.ids[1 + floor(cardinality(s.ids) * power(random(), 3))::int],
+                           0, 0, t.ts, t.ts
+                    FROM (SELECT array_agg(id ORDER BY email) AS ids
+                          FROM users WHERE email LIKE 'seed%@example.com') s,
+                         generate_series(?::bigint, ?::bigint) g,
+                         LATERAL (SELECT now() - g * interval '1 second') t(ts)
+                    """, from, to));
+            log.info("Seeded {} / {} posts", to, posts);
+        }
+
+        jdbcTemplate.execute("ANALYZE posts");
+        log.info("Seeded {} new users and {} posts in {} s",
+                createdUsers, posts, (System.nanoTime() - start) / 1_000_000_000);
+    }
+}
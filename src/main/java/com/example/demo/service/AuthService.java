@@ -15,4 +15,6 @@ public interface AuthService{
 
     void logout(String refreshToken);
 
+    void logoutAll();
+
 }
\ No newline at end of file
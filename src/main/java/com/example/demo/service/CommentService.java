@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import java.util.UUID;
+
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.dto.CreateCommentRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UpdateCommentRequest;
+
+public interface CommentService {
+    CommentDTO addComment(UUID postId, CreateCommentRequest request);
+    CursorPage<CommentDTO> getComments(UUID postId, String cursor, int size, int depth);
+    CursorPage<CommentDTO> getReplies(UUID commentId, String cursor, int size, int depth);
+    CommentDTO updateComment(UUID commentId, UpdateCommentRequest request);
+    void deleteComment(UUID commentId);
+}
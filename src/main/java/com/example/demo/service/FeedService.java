@@ -0,0 +1,8 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.PostDTO;
+
+public interface FeedService {
+    CursorPage<PostDTO> getFeed(String cursor, int size);
+}
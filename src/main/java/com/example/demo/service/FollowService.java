@@ -0,0 +1,17 @@
+package com.example.demo.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.example.demo.dto.FollowStatusDTO;
+import com.example.demo.dto.FollowUserDTO;
+import com.example.demo.dto.PagedResponse;
+
+public interface FollowService {
+    void follow(UUID userId);
+    void unfollow(UUID userId);
+    PagedResponse<FollowUserDTO> getFollowers(UUID userId, int page, int size);
+    PagedResponse<FollowUserDTO> getFollowing(UUID userId, int page, int size);
+    FollowStatusDTO getFollowStatus(UUID userId);
+    List<FollowUserDTO> getSuggestions(int limit);
+}
@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.example.demo.dto.LikeDTO;
+import com.example.demo.dto.PagedResponse;
+import com.example.demo.dto.PostDTO;
+
+public interface LikeService {
+    void like(UUID postId);
+    void unlike(UUID postId);
+    PagedResponse<LikeDTO> getLikes(UUID postId, int page, int size);
+
+    /**
+     * Adds like counts not yet flushed and, for authenticated callers, whether they liked each post.
+     */
+    void decorate(List<PostDTO> posts);
+}
@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import java.util.UUID;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.dto.UnreadCountDTO;
+
+public interface NotificationService {
+    CursorPage<NotificationDTO> getNotifications(String cursor, int size, boolean unreadOnly);
+    void markRead(UUID notificationId);
+    void markAllRead();
+    UnreadCountDTO getUnreadCount();
+}
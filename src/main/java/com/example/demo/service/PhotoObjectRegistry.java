@@ -0,0 +1,117 @@
+package com.example.demo.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entity.PhotoDeleteOutbox;
+import com.example.demo.repository.PhotoDeleteOutboxRepository;
+import com.example.demo.repository.StoredObjectRepository;
+import com.example.demo.service.PhotoTranscoder.Variant;
+import com.example.demo.storage.StorageBackend;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reference counts for content-addressed photos. Objects are named by the SHA-256 of the
+ * original upload, so identical photos share one set of variants in storage.
+ *
+ * <p>A reference is taken before uploading and released when a profile stops pointing at
+ * the object. When the count drops to zero the object is queued in the delete outbox.
+ * The delete first marks the row as deleting, if the count is still zero, and commits;
+ * the storage calls then run with no transaction open, and the row is removed once they
+ * succeed. An upload of the same bytes cannot take a reference while the row is marked,
+ * so it never races the delete for the same object paths.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhotoObjectRegistry {
+
+    private final StoredObjectRepository storedObjectRepository;
+    private final PhotoDeleteOutboxRepository outboxRepository;
+    private final StorageBackend storageBackend;
+
+    public enum Acquired {
+        // Referenced, and the variants are already in storage
+        STORED,
+        // Referenced; the caller has to upload the variants
+        NOT_STORED,
+        // Not referenced: the object is being deleted, try again once the delete is done
+        BEING_DELETED
+    }
+
+    /**
+     * Takes a reference on the object, unless a delete of it is in progress.
+     */
+    @Transactional
+    public Acquired acquire(String contentHash) {
+        if (storedObjectRepository.acquire(contentHash) == 0) {
+            return Acquired.BEING_DELETED;
+        }
+        return storedObjectRepository.findUploaded(contentHash).orElse(false) ? Acquired.STORED : Acquired.NOT_STORED;
+    }
+
+    @Transactional
+    public void markUploaded(String contentHash) {
+        storedObjectRepository.markUploaded(contentHash);
+    }
+
+    /**
+     * Drops a reference, queueing the object for deletion if it was the last one.
+     * Joins the caller's transaction so the release commits with the profile change.
+     */
+    @Transactional
+    public void release(String contentHash) {
+        if (storedObjectRepository.release(contentHash) == 0) {
+            return;
+        }
+        if (storedObjectRepository.findRefCount(contentHash).orElse(0) == 0) {
+            outboxRepository.save(PhotoDeleteOutbox.builder()
+                    .fileUrl(urls(contentHash).get(Variant.LARGE))
+                    .contentHash(contentHash)
+                    .build());
+        }
+    }
+
+    /**
+     * Deletes the object's variants if it is still unreferenced. Not transactional: each
+     * step commits on its own and the storage calls hold no lock or connection. A failed
+     * delete clears the mark, so uploads of the same bytes are only held off while a
+     * delete is actually running.
+     * @return true if the outbox entry is done, false if the delete should be retried
+     */
+    public boolean deleteIfUnreferenced(String contentHash) {
+        if (storedObjectRepository.beginDelete(contentHash) == 0) {
+            // Already gone, or referenced again since it was queued
+            return true;
+        }
+
+        boolean deleted = true;
+        for (String url : urls(contentHash).values()) {
+            deleted &= storageBackend.deleteFile(url);
+        }
+        if (deleted) {
+            storedObjectRepository.finishDelete(contentHash);
+        } else {
+            // Some variants may be gone; uploaded stays false, so the next acquirer uploads them again
+            storedObjectRepository.abortDelete(contentHash);
+        }
+        return deleted;
+    }
+
+    public Map<Variant, String> urls(String contentHash) {
+        Map<Variant, String> urls = new EnumMap<>(Variant.class);
+        for (Variant variant : Variant.values()) {
+            urls.put(variant, storageBackend.publicUrl(objectPath(contentHash, variant)));
+        }
+        return urls;
+    }
+
+    public static String objectPath(String contentHash, Variant variant) {
+        return "photos/" + contentHash + "-" + variant.size() + ".jpg";
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.demo.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.exception.FileUploadException;
+
+/**
+ * Decodes an uploaded photo once and re-encodes it as a fixed set of JPEG variants.
+ * Re-encoding drops all source metadata (EXIF, GPS, ICC), so a JPEG's EXIF orientation
+ * is applied to the pixels first; phone cameras store most photos sideways and rely on
+ * that tag. WebP decoding comes from the TwelveMonkeys ImageIO plugin; everything else
+ * is the JDK's own ImageIO.
+ *
+ * <p>Memory per job is bounded by decoding with source subsampling: the decoded raster
+ * is never larger than twice the largest variant on its longest side, whatever the
+ * upload's dimensions.
+ */
+@Component
+public class PhotoTranscoder {
+
+    public enum Variant {
+        SMALL(64),
+        MEDIUM(256),
+        LARGE(1024);
+
+        private final int size;
+
+        Variant(int size) {
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    public record ImageInfo(String format, int width, int height) {
+    }
+
+    private static final Set<String> ALLOWED_FORMATS = Set.of("jpeg", "png", "webp");
+
+    static {
+        // Encode into memory directly instead of through a temp-file cache
+        ImageIO.setUseCache(false);
+    }
+
+    private final long maxSourcePixels;
+    private final float jpegQuality;
+
+    public PhotoTranscoder(
+            @Value("${photo.transcode.max-source-pixels:40000000}") long maxSourcePixels,
+            @Value("${photo.transcode.jpeg-quality:0.85}") float jpegQuality) {
+        this.maxSourcePixels = maxSourcePixels;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * Reads only the image header, so bad uploads are rejected before anything is queued.
+     * The format is sniffed from the bytes rather than trusted from the request.
+     */
+    public ImageInfo probe(Path file) {
+        return withReader(file, reader -> {
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            if ((long) width * height > maxSourcePixels) {
+                throw new FileUploadException("Image dimensions are too large");
+            }
+            return new ImageInfo(reader.getFormatName().toLowerCase(), width, height);
+        });
+    }
+
+    /**
+     * Produces every variant, largest first, each one scaled down from the previous.
+     * Variants are never upscaled past the source size.
+     */
+    public Map<Variant, byte[]> transcode(Path file) {
+        BufferedImage current = orient(withReader(file, this::decodeSubsampled), exifOrientation(file));
+
+        Map<Variant, byte[]> variants = new EnumMap<>(Variant.class);
+        Variant[] largestFirst = Variant.values();
+        for (int i = largestFirst.length - 1; i >= 0; i--) {
+            Variant variant = largestFirst[i];
+            current = scaleToFit(current, variant.size());
+            variants.put(variant, encodeJpeg(current));
+        }
+        return variants;
+    }
+
+    private BufferedImage decodeSubsampled(ImageReader reader) throws IOException {
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > maxSourcePixels) {
+            throw new FileUploadException("Image dimensions are too large");
+        }
+
+        // Keep the decoded longest side between 1x and 2x the largest variant
+        int step = Math.max(1, Math.max(width, height) / Variant.LARGE.size());
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        return reader.read(0, param);
+    }
+
+    /**
+     * Turns the decoded pixels upright for an EXIF orientation (1 to 8). Orientations 5 to 8
+     * swap width and height.
+     */
+    static BufferedImage orient(BufferedImage source, int orientation) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        // Maps source pixel edges onto the upright image: x' = m00 x + m01 y + m02, y' = m10 x + m11 y + m12
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> null;
+        };
+        if (transform == null) {
+            return source;
+        }
+
+        boolean swapped = orientation >= 5;
+        BufferedImage target = new BufferedImage(swapped ? h : w, swapped ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, target.getWidth(), target.getHeight());
+            g.drawImage(source, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * The orientation tag from a JPEG's EXIF segment, or 1 (upright) when the file is not a
+     * JPEG or has no readable tag. Only the marker segments before the image data are read.
+     */
+    static int exifOrientation(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            DataInputStream data = new DataInputStream(in);
+            if (data.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = data.readUnsignedShort();
+                // Start of scan or end of image: no more metadata
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;
+                }
+                int length = data.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker != 0xFFE1) {
+                    data.skipNBytes(length);
+                    continue;
+                }
+                byte[] segment = data.readNBytes(length);
+                if (segment.length == length && length > 6
+                        && new String(segment, 0, 6, StandardCharsets.ISO_8859_1).equals("Exif\0\0")) {
+                    return tiffOrientation(ByteBuffer.wrap(segment, 6, length - 6).slice());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    private static int tiffOrientation(ByteBuffer tiff) {
+        if (tiff.remaining() < 8) {
+            return 1;
+        }
+        short byteOrder = tiff.getShort(0);
+        if (byteOrder == 0x4949) {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (byteOrder != 0x4D4D) {
+            return 1;
+        }
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd + 2 > tiff.limit()) {
+            return 1;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                return 1;
+            }
+            // Orientation, type SHORT: the value sits in the first two bytes of the value field
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == 0x0112 && tiff.getShort(entry + 2) == 3) {
+                int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Halves the image until it is within 2x of the target, then does one final bilinear
+     * step. Single-step bilinear from a much larger image skips most source pixels.
+     * The result is always opaque RGB; transparency is flattened onto white.
+     */
+    static BufferedImage scaleToFit(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        do {
+            width = width / 2 >= targetWidth ? width / 2 : targetWidth;
+            height = height / 2 >= targetHeight ? height / 2 : targetHeight;
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            // No metadata passed in, so none is written
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to encode image: " + e.getMessage(), e);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private interface ReaderFunction<T> {
+        T apply(ImageReader reader) throws IOException;
+    }
+
+    private static <T> T withReader(Path file, ReaderFunction<T> function) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new FileUploadException("Invalid file type. Only JPEG, PNG, and WebP images are allowed");
+            }
+            ImageReader reader = readers.next();
+            try {
+                if (!ALLOWED_FORMATS.contains(reader.getFormatName().toLowerCase())) {
+                    throw new FileUploadException("Invalid file type. Only JPEG, PNG, and WebP images are allowed");
+                }
+                reader.setInput(in, true, true);
+                return function.apply(reader);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to read image: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import java.util.UUID;
+
+import com.example.demo.dto.CreatePostRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.PostDTO;
+import com.example.demo.dto.UpdatePostRequest;
+
+public interface PostService {
+    PostDTO createPost(CreatePostRequest request);
+    PostDTO getPost(UUID postId);
+    CursorPage<PostDTO> getUserPosts(UUID userId, String cursor, int size);
+    PostDTO updatePost(UUID postId, UpdatePostRequest request);
+    void deletePost(UUID postId);
+}
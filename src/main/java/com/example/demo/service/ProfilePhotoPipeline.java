@@ -0,0 +1,339 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.demo.cache.ProfileCache;
+import com.example.demo.entity.PhotoDeleteOutbox;
+import com.example.demo.entity.Profile;
+import com.example.demo.exception.FileUploadException;
+import com.example.demo.exception.PhotoPipelineBusyException;
+import com.example.demo.repository.PhotoDeleteOutboxRepository;
+import com.example.demo.repository.ProfileRepository;
+import com.example.demo.service.PhotoObjectRegistry.Acquired;
+import com.example.demo.service.PhotoTranscoder.Variant;
+import com.example.demo.storage.StorageBackend;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves profile photo uploads out of the request transaction. The request only stages the
+ * file on local disk; after commit the photo is transcoded into its size variants on the
+ * CPU pool, uploaded from the I/O pool, and the resulting URLs are written back in a short
+ * transaction of their own. Stored photos are shared by content hash and reference
+ * counted in {@link PhotoObjectRegistry}; nothing is deleted inline.
+ */
+@Service
+@Slf4j
+public class ProfilePhotoPipeline {
+
+    private static final List<String> ALLOWED_CONTENT_TYPES = List.of(
+            "image/jpeg",
+            "image/jpg",
+            "image/png",
+            "image/webp"
+    );
+
+    private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
+
+    private final StorageBackend storageBackend;
+    private final PhotoTranscoder transcoder;
+    private final PhotoObjectRegistry photoObjectRegistry;
+    private final ProfileRepository profileRepository;
+    private final PhotoDeleteOutboxRepository outboxRepository;
+    private final ProfileCache profileCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final ThreadPoolTaskExecutor transcodeExecutor;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    public ProfilePhotoPipeline(
+            StorageBackend storageBackend,
+            PhotoTranscoder transcoder,
+            PhotoObjectRegistry photoObjectRegistry,
+            ProfileRepository profileRepository,
+            PhotoDeleteOutboxRepository outboxRepository,
+            ProfileCache profileCache,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("photoUploadExecutor") ThreadPoolTaskExecutor executor,
+            @Qualifier("photoTranscodeExecutor") ThreadPoolTaskExecutor transcodeExecutor,
+            @Value("${photo.pipeline.max-attempts:3}") int maxAttempts,
+            @Value("${photo.pipeline.retry-backoff:500ms}") Duration retryBackoff) {
+        this.storageBackend = storageBackend;
+        this.transcoder = transcoder;
+        this.photoObjectRegistry = photoObjectRegistry;
+        this.profileRepository = profileRepository;
+        this.outboxRepository = outboxRepository;
+        this.profileCache = profileCache;
+        // Uploads normally run on a worker, but the write-back must never join a request
+        // transaction that is still bound to the thread, even one that has committed
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.transcodeExecutor = transcodeExecutor;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * A validated photo copied out of the multipart request, owned by the pipeline from here on.
+     */
+    public record StagedPhoto(Path file, String contentHash) {
+    }
+
+    /**
+     * Validates the photo and copies it out of the request's multipart storage,
+     * which is cleaned up as soon as the request ends. The content hash that names the
+     * stored object is computed during that copy. The image header is probed
+     * here so that undecodable or oversized images fail the request, not the worker.
+     * Called before the request's transaction starts, so none of this holds a connection;
+     * the caller hands the file over with {@link #discardOnRollback} once it has one.
+     */
+    public StagedPhoto stage(MultipartFile photo) {
+        validateFile(photo);
+        if (executor.getThreadPoolExecutor().getQueue().remainingCapacity() == 0) {
+            throw new PhotoPipelineBusyException("Too many photo uploads in progress, try again shortly");
+        }
+        Path file = null;
+        String contentHash;
+        try {
+            file = Files.createTempFile("profile-photo-", ".upload");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(photo.getInputStream(), digest)) {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            contentHash = HexFormat.of().formatHex(digest.digest());
+            transcoder.probe(file);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new FileUploadException("Failed to read profile photo: " + e.getMessage(), e);
+        } catch (NoSuchAlgorithmException e) {
+            deleteQuietly(file);
+            throw new IllegalStateException("SHA-256 not available", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        return new StagedPhoto(file, contentHash);
+    }
+
+    /**
+     * Discards the staged file if the surrounding transaction rolls back.
+     */
+    public void discardOnRollback(StagedPhoto photo) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    deleteQuietly(photo.file());
+                }
+            }
+        });
+    }
+
+    /**
+     * Discards a staged file that never made it into a transaction.
+     */
+    public void discard(StagedPhoto photo) {
+        deleteQuietly(photo.file());
+    }
+
+    /**
+     * Cheap first check on the declared size and type; the image itself is probed
+     * by {@link PhotoTranscoder} once staged.
+     */
+    private static void validateFile(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new FileUploadException("File cannot be empty");
+        }
+
+        // Check file size
+        if (file.getSize() > MAX_FILE_SIZE) {
+            throw new FileUploadException("File size exceeds maximum limit of 5MB");
+        }
+
+        // Check content type
+        String contentType = file.getContentType();
+        if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase())) {
+            throw new FileUploadException(
+                    "Invalid file type. Only JPEG, PNG, and WebP images are allowed"
+            );
+        }
+    }
+
+    /**
+     * Schedules the upload to start once the surrounding transaction commits.
+     */
+    public void uploadAfterCommit(UUID profileId, UUID userId, int photoVersion, StagedPhoto photo) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    executor.execute(() -> upload(profileId, userId, photoVersion, photo));
+                } catch (TaskRejectedException e) {
+                    // Only when the queue filled up between stage() and this commit
+                    log.error("Photo upload queue full, dropping photo for profile {}", profileId);
+                    deleteQuietly(photo.file());
+                }
+            }
+        });
+    }
+
+    private void upload(UUID profileId, UUID userId, int photoVersion, StagedPhoto photo) {
+        String contentHash = photo.contentHash();
+        boolean acquired = false;
+        try {
+            Acquired reference = acquire(contentHash);
+            acquired = true;
+            if (reference == Acquired.NOT_STORED) {
+                storeVariants(contentHash, photo);
+                photoObjectRegistry.markUploaded(contentHash);
+            } else {
+                log.debug("Photo {} already stored, skipping upload", contentHash);
+            }
+
+            writeBack(profileId, photoVersion, contentHash);
+            // The reference now belongs to the profile (or was released as stale)
+            acquired = false;
+            profileCache.evict(userId);
+        } catch (RuntimeException e) {
+            log.error("Photo pipeline failed for profile {}", profileId, e);
+            if (acquired) {
+                releaseQuietly(contentHash);
+            }
+        } finally {
+            deleteQuietly(photo.file());
+        }
+    }
+
+    /**
+     * Takes a reference on the stored object, waiting out a delete of the same bytes that
+     * is in progress; that only takes as long as the storage calls of one delete.
+     */
+    private Acquired acquire(String contentHash) {
+        for (int attempt = 1; ; attempt++) {
+            Acquired reference = photoObjectRegistry.acquire(contentHash);
+            if (reference != Acquired.BEING_DELETED) {
+                return reference;
+            }
+            if (attempt >= maxAttempts || !sleep(retryBackoff.multipliedBy(1L << (attempt - 1)))) {
+                throw new FileUploadException("Stored photo " + contentHash + " is still being deleted");
+            }
+        }
+    }
+
+    private void storeVariants(String contentHash, StagedPhoto photo) {
+        Map<Variant, byte[]> variants = CompletableFuture
+                .supplyAsync(() -> transcoder.transcode(photo.file()), transcodeExecutor)
+                .join();
+        for (Map.Entry<Variant, byte[]> variant : variants.entrySet()) {
+            uploadWithRetry(PhotoObjectRegistry.objectPath(contentHash, variant.getKey()), variant.getValue());
+        }
+    }
+
+    private String uploadWithRetry(String objectPath, byte[] content) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return storageBackend.upload(objectPath, content, MediaType.IMAGE_JPEG);
+            } catch (FileUploadException e) {
+                if (attempt >= maxAttempts || !sleep(retryBackoff.multipliedBy(1L << (attempt - 1)))) {
+                    throw e;
+                }
+                log.warn("Photo upload attempt {} for {} failed, retrying", attempt, objectPath);
+            }
+        }
+    }
+
+    /**
+     * Points the profile at the stored photo unless a newer photo was submitted meanwhile.
+     * Whichever reference loses is released in the same transaction.
+     */
+    private void writeBack(UUID profileId, int photoVersion, String contentHash) {
+        Map<Variant, String> urls = photoObjectRegistry.urls(contentHash);
+        transactionTemplate.executeWithoutResult(status -> {
+            Profile profile = profileRepository.findByIdForUpdate(profileId).orElse(null);
+            if (profile == null || profile.getPhotoVersion() != photoVersion) {
+                photoObjectRegistry.release(contentHash);
+                return;
+            }
+
+            String previousHash = profile.getProfilePhotoHash();
+            List<String> previousUrls = Stream.of(
+                            profile.getProfilePhotoSmallUrl(),
+                            profile.getProfilePhotoMediumUrl(),
+                            profile.getProfilePhotoUrl())
+                    .filter(url -> url != null && !url.isEmpty())
+                    .toList();
+
+            profile.setProfilePhotoHash(contentHash);
+            profile.setProfilePhotoSmallUrl(urls.get(Variant.SMALL));
+            profile.setProfilePhotoMediumUrl(urls.get(Variant.MEDIUM));
+            profile.setProfilePhotoUrl(urls.get(Variant.LARGE));
+
+            if (previousHash != null) {
+                photoObjectRegistry.release(previousHash);
+            } else if (!previousUrls.isEmpty()) {
+                // Photos stored before content addressing belong to this profile alone
+                outboxRepository.saveAll(previousUrls.stream()
+                        .map(url -> PhotoDeleteOutbox.builder().fileUrl(url).build())
+                        .toList());
+            }
+        });
+    }
+
+    private void releaseQuietly(String contentHash) {
+        try {
+            photoObjectRegistry.release(contentHash);
+        } catch (RuntimeException e) {
+            log.error("Could not release photo {}", contentHash, e);
+        }
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete staged photo {}", file, e);
+        }
+    }
+}
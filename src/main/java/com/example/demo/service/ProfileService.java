@@ -1,12 +1,22 @@
 package com.example.demo.service;
 
+import java.util.List;
+
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.demo.dto.ProfileRequest;
 import com.example.demo.dto.ProfileDTO;
+import com.example.demo.dto.PublicProfileDTO;
 
 public interface ProfileService {
     ProfileDTO createProfile(ProfileRequest profileRequest, MultipartFile profilePhoto);
     ProfileDTO getProfile();
     ProfileDTO updateProfile(ProfileRequest profileRequest, MultipartFile profilePhoto);
+    PublicProfileDTO getPublicProfile(String username);
+
+    /**
+     * The profiles of the given usernames in request order, each at most once; unknown
+     * usernames are left out.
+     */
+    List<PublicProfileDTO> getPublicProfiles(List<String> usernames);
 }
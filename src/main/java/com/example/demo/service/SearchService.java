@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import java.util.List;
+
+import com.example.demo.dto.FollowUserDTO;
+import com.example.demo.dto.PagedResponse;
+import com.example.demo.dto.PostDTO;
+
+public interface SearchService {
+    PagedResponse<FollowUserDTO> searchUsers(String query, int page, int size);
+    List<FollowUserDTO> completeUsers(String prefix, int limit);
+    PagedResponse<PostDTO> searchPosts(String query, int page, int size);
+}
@@ -9,14 +9,16 @@ import com.example.demo.entity.User;
 import com.example.demo.enums.Role;
 import com.example.demo.exception.EmailAlreadyExistsException;
 import com.example.demo.exception.InvalidCredentialsException;
-import com.example.demo.repository.ProfileRepository;
+import com.example.demo.mapper.UserMapper;
+import com.example.demo.ratelimit.AuthRateLimits;
 import com.example.demo.repository.SessionRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.JwtService;
+import com.example.demo.security.RefreshTokenHasher;
+import com.example.demo.security.TokenVersionService;
 import com.example.demo.security.UserPrincipal;
 import com.example.demo.service.AuthService;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -34,31 +36,38 @@ public class AuthServiceImpl implements AuthService {
 
    private final UserRepository userRepository;
    private final SessionRepository sessionRepository;
-   private final ProfileRepository profileRepository;
-   private final ModelMapper modelMapper;
+   private final UserMapper userMapper;
    private final PasswordEncoder passwordEncoder;
    private final AuthenticationManager authenticationManager;
    private final JwtService jwtService;
+   private final TokenVersionService tokenVersionService;
+   private final AuthRateLimits authRateLimits;
 
    @Value("${jwt.refreshExpiration}")
    private long refreshExpiration;
 
+   @Value("${session.max-per-user:5}")
+   private int maxSessionsPerUser;
+
    @Override
    @Transactional
    public UserDTO signup(SignupRequest signupRequest) {
+      authRateLimits.checkEmail(signupRequest.getEmail());
       if (userRepository.findByEmail(signupRequest.getEmail()).isPresent()) {
          throw new EmailAlreadyExistsException("Email already exists");
       }
-      User user = modelMapper.map(signupRequest, User.class);
+      User user = userMapper.toEntity(signupRequest);
       user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
       user.setRole(Role.USER);
       User savedUser = userRepository.save(user);
-      return modelMapper.map(savedUser, UserDTO.class);
+      return userMapper.toDto(savedUser);
    }
 
    @Override
    @Transactional
    public LoginResponse login(LoginRequest loginRequest) {
+      // Before the password hash, which is what the limit protects
+      authRateLimits.checkEmail(loginRequest.getEmail());
       try {
          Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
@@ -71,19 +80,16 @@ public class AuthServiceImpl implements AuthService {
 
          Session session = Session.builder()
             .user(user)
-            .refreshToken(refreshToken)
+            .tokenHash(RefreshTokenHasher.hash(refreshToken))
             .expiresAt(LocalDateTime.now().plusSeconds(refreshExpiration / 1000))
             .build();
-         sessionRepository.save(session);
-
-         // Check if user has a complete profile
-         boolean profileComplete = profileRepository.findByUser(user)
-            .map(profile -> profile.getIsComplete())
-            .orElse(false);
+         // Insert now so the cap below sees it, then evict the oldest sessions over the limit
+         sessionRepository.saveAndFlush(session);
+         sessionRepository.deleteOldestBeyond(user.getId(), maxSessionsPerUser);
 
          // Map user to DTO and add profile status
-         UserDTO userDTO = modelMapper.map(user, UserDTO.class);
-         userDTO.setProfileComplete(profileComplete);
+         UserDTO userDTO = userMapper.toDto(user);
+         userDTO.setProfileComplete(userPrincipal.isProfileComplete());
 
          return new LoginResponse(accessToken, refreshToken, userDTO);
       } catch (BadCredentialsException e) {
@@ -93,7 +99,7 @@ public class AuthServiceImpl implements AuthService {
 
    @Override
    public String refreshToken(String refreshToken) {
-      Session session = sessionRepository.findByRefreshToken(refreshToken)
+      Session session = sessionRepository.findByTokenHash(RefreshTokenHasher.hash(refreshToken))
          .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
 
       if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
@@ -112,6 +118,14 @@ public class AuthServiceImpl implements AuthService {
    @Override
    @Transactional
    public void logout(String refreshToken) {
-      sessionRepository.deleteByRefreshToken(refreshToken);
+      sessionRepository.deleteByTokenHash(RefreshTokenHasher.hash(refreshToken));
+   }
+
+   @Override
+   @Transactional
+   public void logoutAll() {
+      User user = UserPrincipal.getCurrentUser();
+      sessionRepository.deleteByUser(user);
+      tokenVersionService.revokeAll(user);
    }
 }
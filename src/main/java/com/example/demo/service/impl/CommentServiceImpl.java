@@ -0,0 +1,227 @@
+package com.example.demo.service.impl;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.comment.CommentPath;
+import com.example.demo.comment.CommentSlots;
+import com.example.demo.comment.CommentSlots.ReplySlot;
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.dto.CreateCommentRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UpdateCommentRequest;
+import com.example.demo.entity.Comment;
+import com.example.demo.exception.CommentDepthExceededException;
+import com.example.demo.exception.CommentNotFoundException;
+import com.example.demo.exception.InvalidCursorException;
+import com.example.demo.exception.PostNotFoundException;
+import com.example.demo.exception.UnauthorizedAccessException;
+import com.example.demo.notification.NotificationQueue;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.projection.CommentLocation;
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.CommentService;
+
+@Service
+public class CommentServiceImpl implements CommentService {
+
+    private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final CommentSlots commentSlots;
+    private final NotificationQueue notificationQueue;
+    private final int maxPageSize;
+
+    public CommentServiceImpl(
+            CommentRepository commentRepository,
+            PostRepository postRepository,
+            UserRepository userRepository,
+            CommentSlots commentSlots,
+            NotificationQueue notificationQueue,
+            @Value("${comments.max-page-size:100}") int maxPageSize) {
+        this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.commentSlots = commentSlots;
+        this.notificationQueue = notificationQueue;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @Transactional
+    public CommentDTO addComment(UUID postId, CreateCommentRequest request) {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+        UUID parentId = request.getParentId();
+
+        String path;
+        int depth;
+        if (parentId == null) {
+            long sequence = commentSlots.nextRoot(postId)
+                    .orElseThrow(() -> new PostNotFoundException("Post not found"));
+            path = CommentPath.root(sequence);
+            depth = 0;
+        } else {
+            CommentLocation parent = commentRepository.findLocationById(parentId)
+                    .filter(location -> location.postId().equals(postId))
+                    .orElseThrow(() -> new CommentNotFoundException("Comment not found"));
+            if (parent.depth() >= CommentPath.MAX_DEPTH) {
+                throw new CommentDepthExceededException(
+                        "Replies can be nested at most " + CommentPath.MAX_DEPTH + " levels deep");
+            }
+            ReplySlot slot = commentSlots.nextReply(postId, parentId)
+                    .orElseThrow(() -> new CommentNotFoundException("Comment not found"));
+            path = slot.path();
+            depth = slot.depth();
+        }
+
+        Comment comment = Comment.builder()
+                .post(postRepository.getReferenceById(postId))
+                .user(userRepository.getReferenceById(userId))
+                .parentId(parentId)
+                .path(path)
+                .depth(depth)
+                .content(request.getContent())
+                .build();
+        Comment saved = commentRepository.save(comment);
+        if (parentId == null) {
+            notificationQueue.onCommentAdded(userId, postId, saved.getId());
+        } else {
+            notificationQueue.onReplyAdded(userId, postId, parentId, saved.getId());
+        }
+
+        return commentRepository.findDtoById(saved.getId())
+                .map(dto -> decorate(dto, userId))
+                .orElseThrow(() -> new CommentNotFoundException("Comment not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentDTO> getComments(UUID postId, String cursor, int size, int depth) {
+        int pageSize = clampSize(size);
+        String after = cursor == null || cursor.isEmpty() ? "" : decodeCursor(cursor);
+
+        List<CommentDTO> rows = commentRepository.findThreadPage(
+                postId, after, clampDepth(depth), PageRequest.of(0, pageSize + 1));
+        if (rows.isEmpty() && after.isEmpty() && !postRepository.existsById(postId)) {
+            throw new PostNotFoundException("Post not found");
+        }
+        return toPage(rows, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentDTO> getReplies(UUID commentId, String cursor, int size, int depth) {
+        CommentLocation parent = commentRepository.findLocationById(commentId)
+                .orElseThrow(() -> new CommentNotFoundException("Comment not found"));
+        int pageSize = clampSize(size);
+
+        String after = parent.path();
+        if (cursor != null && !cursor.isEmpty()) {
+            after = decodeCursor(cursor);
+            if (!after.startsWith(parent.path())) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+        }
+        // depth is relative to the parent here
+        int maxDepth = Math.min(CommentPath.MAX_DEPTH, parent.depth() + clampDepth(depth));
+
+        List<CommentDTO> rows = commentRepository.findSubtreePage(
+                parent.postId(), after, CommentPath.subtreeEnd(parent.path()), maxDepth,
+                PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize);
+    }
+
+    @Override
+    @Transactional
+    public CommentDTO updateComment(UUID commentId, UpdateCommentRequest request) {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+        Comment comment = commentRepository.findById(commentId)
+                .filter(found -> !found.isDeleted())
+                .orElseThrow(() -> new CommentNotFoundException("Comment not found"));
+
+        if (!comment.getUser().getId().equals(userId)) {
+            throw new UnauthorizedAccessException("You can only edit your own comments");
+        }
+
+        comment.setContent(request.getContent());
+        commentRepository.saveAndFlush(comment);
+
+        return commentRepository.findDtoById(commentId)
+                .map(dto -> decorate(dto, userId))
+                .orElseThrow(() -> new CommentNotFoundException("Comment not found"));
+    }
+
+    @Override
+    @Transactional
+    public void deleteComment(UUID commentId) {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+        // The row lock keeps a concurrent reply from landing between the reply count check and the delete
+        Comment comment = commentRepository.findByIdForUpdate(commentId)
+                .filter(found -> !found.isDeleted())
+                .orElseThrow(() -> new CommentNotFoundException("Comment not found"));
+
+        UUID postId = comment.getPost().getId();
+        if (!comment.getUser().getId().equals(userId)
+                && !postRepository.findAuthorIdById(postId).map(userId::equals).orElse(false)) {
+            throw new UnauthorizedAccessException("You can only delete your own comments or comments on your posts");
+        }
+
+        if (comment.getReplyCount() > 0) {
+            // Keep the node so its replies stay in the thread
+            comment.setDeleted(true);
+            comment.setContent("");
+        } else {
+            commentRepository.delete(comment);
+            if (comment.getParentId() != null) {
+                commentRepository.decrementReplyCount(comment.getParentId());
+            }
+        }
+        postRepository.decrementCommentsCount(postId);
+    }
+
+    private CursorPage<CommentDTO> toPage(List<CommentDTO> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<CommentDTO> content = hasMore ? rows.subList(0, pageSize) : rows;
+
+        UUID viewer = UserPrincipal.getCurrentUserIdOrNull();
+        content.forEach(comment -> decorate(comment, viewer));
+
+        // Paths are base36, URL-safe as they are
+        String nextCursor = hasMore ? content.get(content.size() - 1).getPath() : null;
+        return new CursorPage<>(List.copyOf(content), nextCursor, hasMore);
+    }
+
+    private static CommentDTO decorate(CommentDTO comment, UUID viewer) {
+        if (comment.isDeleted()) {
+            comment.setContent(null);
+            comment.setAuthorId(null);
+            comment.setAuthorUsername(null);
+            comment.setAuthorPhotoUrl(null);
+        } else if (viewer != null) {
+            comment.setIsAuthor(viewer.equals(comment.getAuthorId()));
+        }
+        return comment;
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (!CommentPath.isValid(cursor)) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        return cursor;
+    }
+
+    private int clampSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private static int clampDepth(int depth) {
+        return Math.max(0, Math.min(depth, CommentPath.MAX_DEPTH));
+    }
+}
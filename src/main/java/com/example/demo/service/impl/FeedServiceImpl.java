@@ -0,0 +1,103 @@
+package com.example.demo.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.PostDTO;
+import com.example.demo.feed.FeedEntry;
+import com.example.demo.feed.FeedInboxStore;
+import com.example.demo.follow.FollowGraphIndex;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.FeedService;
+import com.example.demo.service.LikeService;
+
+/**
+ * Home feed = the user's fanned-out inbox merged with the recent posts of any followed
+ * accounts above the celebrity threshold. Every step is bounded by the page size, never
+ * by the number of accounts followed or posts they wrote.
+ */
+@Service
+public class FeedServiceImpl implements FeedService {
+
+    private final FeedInboxStore feedInboxStore;
+    private final FollowGraphIndex followGraph;
+    private final PostRepository postRepository;
+    private final LikeService likeService;
+    private final int celebrityThreshold;
+    private final int maxPageSize;
+
+    public FeedServiceImpl(
+            FeedInboxStore feedInboxStore,
+            FollowGraphIndex followGraph,
+            PostRepository postRepository,
+            LikeService likeService,
+            @Value("${feed.celebrity-threshold:10000}") int celebrityThreshold,
+            @Value("${posts.max-page-size:50}") int maxPageSize) {
+        this.feedInboxStore = feedInboxStore;
+        this.followGraph = followGraph;
+        this.postRepository = postRepository;
+        this.likeService = likeService;
+        this.celebrityThreshold = celebrityThreshold;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public CursorPage<PostDTO> getFeed(String cursor, int size) {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        int limit = pageSize + 1;
+
+        FeedEntry before = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            PostCursor after = PostCursor.decode(cursor);
+            before = new FeedEntry(after.id(), after.createdAt());
+        }
+
+        List<FeedEntry> candidates = new ArrayList<>(feedInboxStore.page(userId, before, limit));
+
+        List<UUID> celebrityIds = followGraph.followingWithMoreFollowersThan(userId, celebrityThreshold);
+        if (!celebrityIds.isEmpty()) {
+            PageRequest page = PageRequest.of(0, limit);
+            candidates.addAll(before == null
+                    ? postRepository.findFeedEntries(celebrityIds, page)
+                    : postRepository.findFeedEntriesBefore(celebrityIds, before.createdAt(), before.postId(), page));
+        }
+
+        // An account that crossed the threshold may have posts in both sources
+        List<FeedEntry> merged = new ArrayList<>(new LinkedHashSet<>(candidates));
+        merged.sort(FeedEntry.NEWEST_FIRST);
+
+        boolean hasMore = merged.size() > pageSize;
+        List<FeedEntry> entries = hasMore ? merged.subList(0, pageSize) : merged;
+
+        Map<UUID, PostDTO> posts = new HashMap<>();
+        if (!entries.isEmpty()) {
+            for (PostDTO post : postRepository.findDtosByIdIn(entries.stream().map(FeedEntry::postId).toList())) {
+                posts.put(post.getId(), post);
+            }
+        }
+        // Deleted posts drop out here; the cursor still advances past them
+        List<PostDTO> content = entries.stream()
+                .map(entry -> posts.get(entry.postId()))
+                .filter(post -> post != null)
+                .toList();
+        likeService.decorate(content);
+
+        String nextCursor = null;
+        if (hasMore) {
+            FeedEntry last = entries.get(entries.size() - 1);
+            nextCursor = new PostCursor(last.createdAt(), last.postId()).encode();
+        }
+        return new CursorPage<>(content, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.dto.FollowStatusDTO;
+import com.example.demo.dto.FollowUserDTO;
+import com.example.demo.dto.PagedResponse;
+import com.example.demo.exception.AlreadyFollowingException;
+import com.example.demo.exception.CannotFollowSelfException;
+import com.example.demo.exception.NotFollowingException;
+import com.example.demo.exception.UserNotFoundException;
+import com.example.demo.follow.FollowGraphIndex;
+import com.example.demo.notification.NotificationQueue;
+import com.example.demo.repository.FollowRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.FollowService;
+
+/**
+ * Writes go to Postgres and reach the follow graph after commit; reads are served by the
+ * graph and only touch the database to fetch usernames for the page being returned.
+ */
+@Service
+public class FollowServiceImpl implements FollowService {
+
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final FollowGraphIndex followGraph;
+    private final NotificationQueue notificationQueue;
+    private final int maxPageSize;
+
+    public FollowServiceImpl(
+            FollowRepository followRepository,
+            UserRepository userRepository,
+            FollowGraphIndex followGraph,
+            NotificationQueue notificationQueue,
+            @Value("${follows.max-page-size:50}") int maxPageSize) {
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.followGraph = followGraph;
+        this.notificationQueue = notificationQueue;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @Transactional
+    public void follow(UUID userId) {
+        UUID me = UserPrincipal.getCurrentUser().getId();
+        if (me.equals(userId)) {
+            throw new CannotFollowSelfException("You cannot follow yourself");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found");
+        }
+        if (followRepository.insertIfAbsent(me, userId) == 0) {
+            throw new AlreadyFollowingException("You already follow this user");
+        }
+        userRepository.adjustFollowingCount(me, 1);
+        userRepository.adjustFollowersCount(userId, 1);
+        afterCommit(() -> followGraph.follow(me, userId));
+        notificationQueue.onFollowed(me, userId);
+    }
+
+    @Override
+    @Transactional
+    public void unfollow(UUID userId) {
+        UUID me = UserPrincipal.getCurrentUser().getId();
+        if (followRepository.deleteByFollowerIdAndFollowingId(me, userId) == 0) {
+            throw new NotFollowingException("You do not follow this user");
+        }
+        userRepository.adjustFollowingCount(me, -1);
+        userRepository.adjustFollowersCount(userId, -1);
+        afterCommit(() -> followGraph.unfollow(me, userId));
+    }
+
+    @Override
+    public PagedResponse<FollowUserDTO> getFollowers(UUID userId, int page, int size) {
+        int pageSize = clamp(size);
+        int offset = Math.max(0, page) * pageSize;
+        List<UUID> ids = followGraph.followers(userId, offset, pageSize);
+        return toPage(ids, page, pageSize, followGraph.followersCount(userId));
+    }
+
+    @Override
+    public PagedResponse<FollowUserDTO> getFollowing(UUID userId, int page, int size) {
+        int pageSize = clamp(size);
+        int offset = Math.max(0, page) * pageSize;
+        List<UUID> ids = followGraph.following(userId, offset, pageSize);
+        return toPage(ids, page, pageSize, followGraph.followingCount(userId));
+    }
+
+    @Override
+    public FollowStatusDTO getFollowStatus(UUID userId) {
+        FollowStatusDTO status = new FollowStatusDTO();
+        status.setUserId(userId);
+        status.setFollowersCount(followGraph.followersCount(userId));
+        status.setFollowingCount(followGraph.followingCount(userId));
+
+        UUID viewer = UserPrincipal.getCurrentUserIdOrNull();
+        if (viewer != null && !viewer.equals(userId)) {
+            boolean following = followGraph.isFollowing(viewer, userId);
+            boolean followedBy = followGraph.isFollowing(userId, viewer);
+            status.setFollowing(following);
+            status.setFollowedBy(followedBy);
+            status.setMutual(following && followedBy);
+        }
+        return status;
+    }
+
+    @Override
+    public List<FollowUserDTO> getSuggestions(int limit) {
+        UUID me = UserPrincipal.getCurrentUser().getId();
+        List<UUID> ids = followGraph.suggestions(me, clamp(limit));
+        // Suggestions are by definition not followed yet
+        return loadUsers(ids, null);
+    }
+
+    private PagedResponse<FollowUserDTO> toPage(List<UUID> ids, int page, int pageSize, int total) {
+        List<FollowUserDTO> content = loadUsers(ids, UserPrincipal.getCurrentUserIdOrNull());
+        int pageNumber = Math.max(0, page);
+        boolean hasNext = (long) (pageNumber + 1) * pageSize < total;
+        return new PagedResponse<>(content, pageNumber, pageSize, total, hasNext);
+    }
+
+    /**
+     * One query for the whole page, returned in the order of {@code ids}.
+     */
+    private List<FollowUserDTO> loadUsers(List<UUID> ids, UUID viewer) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, FollowUserDTO> users = new HashMap<>();
+        for (FollowUserDTO user : userRepository.findFollowUsersByIdIn(ids)) {
+            users.put(user.getUserId(), user);
+        }
+        List<FollowUserDTO> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            FollowUserDTO user = users.get(id);
+            // Missing if the account was deleted since the graph was loaded
+            if (user == null) {
+                continue;
+            }
+            if (viewer != null) {
+                user.setFollowedByCurrentUser(followGraph.isFollowing(viewer, id));
+            }
+            result.add(user);
+        }
+        return result;
+    }
+
+    private int clamp(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
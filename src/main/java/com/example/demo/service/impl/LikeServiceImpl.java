@@ -0,0 +1,128 @@
+package com.example.demo.service.impl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.dto.LikeDTO;
+import com.example.demo.dto.PagedResponse;
+import com.example.demo.dto.PostDTO;
+import com.example.demo.exception.PostNotFoundException;
+import com.example.demo.like.LikeCounters;
+import com.example.demo.like.LikedPostsCache;
+import com.example.demo.notification.NotificationQueue;
+import com.example.demo.repository.PostLikeRepository;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.LikeService;
+
+/**
+ * A like is one idempotent insert into the likes table. The post's counter is not touched
+ * in the request: the delta goes to {@link LikeCounters} after commit and reaches
+ * posts.likes_count with the next flush.
+ */
+@Service
+public class LikeServiceImpl implements LikeService {
+
+    private final PostLikeRepository likeRepository;
+    private final PostRepository postRepository;
+    private final LikeCounters likeCounters;
+    private final LikedPostsCache likedPostsCache;
+    private final NotificationQueue notificationQueue;
+    private final int maxPageSize;
+
+    public LikeServiceImpl(
+            PostLikeRepository likeRepository,
+            PostRepository postRepository,
+            LikeCounters likeCounters,
+            LikedPostsCache likedPostsCache,
+            NotificationQueue notificationQueue,
+            @Value("${likes.max-page-size:50}") int maxPageSize) {
+        this.likeRepository = likeRepository;
+        this.postRepository = postRepository;
+        this.likeCounters = likeCounters;
+        this.likedPostsCache = likedPostsCache;
+        this.notificationQueue = notificationQueue;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @Transactional
+    public void like(UUID postId) {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+        if (!postRepository.existsById(postId)) {
+            throw new PostNotFoundException("Post not found");
+        }
+        if (likeRepository.insertIfAbsent(userId, postId) == 1) {
+            afterCommit(() -> {
+                likeCounters.add(postId, 1);
+                likedPostsCache.onLiked(userId, postId);
+            });
+            notificationQueue.onPostLiked(userId, postId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void unlike(UUID postId) {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+        if (likeRepository.deleteByUserIdAndPostId(userId, postId) == 1) {
+            afterCommit(() -> {
+                likeCounters.add(postId, -1);
+                likedPostsCache.onUnliked(userId, postId);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<LikeDTO> getLikes(UUID postId, int page, int size) {
+        PostDTO post = postRepository.findDtoById(postId)
+                .orElseThrow(() -> new PostNotFoundException("Post not found"));
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        int pageNumber = Math.max(0, page);
+
+        List<LikeDTO> likes = likeRepository.findLikers(postId, PageRequest.of(pageNumber, pageSize));
+        // The flushed counter plus this instance's pending delta stands in for a count query
+        long total = Math.max(0, post.getLikesCount() + likeCounters.pending(postId));
+        boolean hasNext = (long) (pageNumber + 1) * pageSize < total;
+        return new PagedResponse<>(likes, pageNumber, pageSize, total, hasNext);
+    }
+
+    @Override
+    public void decorate(List<PostDTO> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        for (PostDTO post : posts) {
+            long pending = likeCounters.pending(post.getId());
+            if (pending != 0) {
+                post.setLikesCount((int) Math.max(0, post.getLikesCount() + pending));
+            }
+        }
+
+        UUID viewer = UserPrincipal.getCurrentUserIdOrNull();
+        if (viewer != null) {
+            Set<UUID> liked = likedPostsCache.likedAmong(viewer, posts.stream().map(PostDTO::getId).toList());
+            for (PostDTO post : posts) {
+                post.setLikedByCurrentUser(liked.contains(post.getId()));
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
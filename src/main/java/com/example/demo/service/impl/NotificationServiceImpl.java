@@ -0,0 +1,115 @@
+package com.example.demo.service.impl;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.dto.UnreadCountDTO;
+import com.example.demo.exception.NotificationNotFoundException;
+import com.example.demo.notification.UnreadCounts;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.NotificationService;
+
+@Service
+public class NotificationServiceImpl implements NotificationService {
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadCounts unreadCounts;
+    private final int maxPageSize;
+
+    public NotificationServiceImpl(
+            NotificationRepository notificationRepository,
+            UnreadCounts unreadCounts,
+            @Value("${notifications.max-page-size:50}") int maxPageSize) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCounts = unreadCounts;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDTO> getNotifications(String cursor, int size, boolean unreadOnly) {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<NotificationDTO> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = notificationRepository.findPage(userId, unreadOnly, limit);
+        } else {
+            // Same (timestamp, id) cursor as post timelines, on updatedAt here
+            PostCursor after = PostCursor.decode(cursor);
+            rows = notificationRepository.findPageBefore(userId, unreadOnly, after.createdAt(), after.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationDTO> content = hasMore ? rows.subList(0, pageSize) : rows;
+        content.forEach(notification -> notification.setMessage(message(notification)));
+
+        String nextCursor = null;
+        if (hasMore) {
+            NotificationDTO last = content.get(content.size() - 1);
+            nextCursor = new PostCursor(last.getUpdatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(List.copyOf(content), nextCursor, hasMore);
+    }
+
+    @Override
+    @Transactional
+    public void markRead(UUID notificationId) {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+        if (notificationRepository.markRead(notificationId, userId) == 1) {
+            afterCommit(() -> unreadCounts.onRead(userId));
+        } else if (!notificationRepository.existsByIdAndRecipientId(notificationId, userId)) {
+            throw new NotificationNotFoundException("Notification not found");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void markAllRead() {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+        if (notificationRepository.markAllRead(userId) > 0) {
+            afterCommit(() -> unreadCounts.onAllRead(userId));
+        }
+    }
+
+    @Override
+    public UnreadCountDTO getUnreadCount() {
+        return new UnreadCountDTO(unreadCounts.get(UserPrincipal.getCurrentUser().getId()));
+    }
+
+    private static String message(NotificationDTO notification) {
+        String actors = notification.getActorUsername() != null ? notification.getActorUsername() : "Someone";
+        int others = notification.getActorCount() - 1;
+        if (others == 1) {
+            actors += " and 1 other";
+        } else if (others > 1) {
+            actors += " and " + others + " others";
+        }
+        return switch (notification.getType()) {
+            case LIKE -> actors + " liked your post";
+            case COMMENT -> actors + " commented on your post";
+            case REPLY -> actors + " replied to your comment";
+            case FOLLOW -> actors + " started following you";
+        };
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.service.impl;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.CreatePostRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.PostDTO;
+import com.example.demo.dto.UpdatePostRequest;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.example.demo.exception.PostNotFoundException;
+import com.example.demo.exception.UnauthorizedAccessException;
+import com.example.demo.feed.FeedFanout;
+import com.example.demo.mapper.PostMapper;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.search.SearchIndex;
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.LikeService;
+import com.example.demo.service.PostService;
+
+@Service
+public class PostServiceImpl implements PostService {
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final PostMapper postMapper;
+    private final FeedFanout feedFanout;
+    private final LikeService likeService;
+    private final SearchIndex searchIndex;
+    private final int maxPageSize;
+
+    public PostServiceImpl(
+            PostRepository postRepository,
+            UserRepository userRepository,
+            PostMapper postMapper,
+            FeedFanout feedFanout,
+            LikeService likeService,
+            SearchIndex searchIndex,
+            @Value("${posts.max-page-size:50}") int maxPageSize) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.postMapper = postMapper;
+        this.feedFanout = feedFanout;
+        this.likeService = likeService;
+        this.searchIndex = searchIndex;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @Transactional
+    public PostDTO createPost(CreatePostRequest request) {
+        User user = UserPrincipal.getCurrentUser();
+
+        Post post = postMapper.toEntity(request);
+        // Only the foreign key is needed, so don't load the user row
+        post.setUser(userRepository.getReferenceById(user.getId()));
+
+        Post savedPost = postRepository.save(post);
+        feedFanout.onPostCreated(savedPost.getId(), user.getId(), savedPost.getCreatedAt());
+        searchIndex.onPostSaved(savedPost.getId(), savedPost.getContent());
+
+        return postRepository.findDtoById(savedPost.getId())
+                .orElseThrow(() -> new PostNotFoundException("Post not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PostDTO getPost(UUID postId) {
+        PostDTO post = postRepository.findDtoById(postId)
+                .orElseThrow(() -> new PostNotFoundException("Post not found"));
+        likeService.decorate(List.of(post));
+        return post;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostDTO> getUserPosts(UUID userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // One extra row tells us whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<PostDTO> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = postRepository.findTimeline(userId, limit);
+        } else {
+            PostCursor after = PostCursor.decode(cursor);
+            rows = postRepository.findTimelineBefore(userId, after.createdAt(), after.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<PostDTO> content = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            PostDTO last = content.get(content.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        likeService.decorate(content);
+        return new CursorPage<>(List.copyOf(content), nextCursor, hasMore);
+    }
+
+    @Override
+    @Transactional
+    public PostDTO updatePost(UUID postId, UpdatePostRequest request) {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new PostNotFoundException("Post not found"));
+
+        // The author's id is read off the lazy proxy without loading the user
+        if (!post.getUser().getId().equals(UserPrincipal.getCurrentUser().getId())) {
+            throw new UnauthorizedAccessException("You can only edit your own posts");
+        }
+
+        postMapper.update(post, request);
+        postRepository.saveAndFlush(post);
+        searchIndex.onPostSaved(postId, post.getContent());
+
+        PostDTO updated = postRepository.findDtoById(postId)
+                .orElseThrow(() -> new PostNotFoundException("Post not found"));
+        likeService.decorate(List.of(updated));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public void deletePost(UUID postId) {
+        UUID userId = UserPrincipal.getCurrentUser().getId();
+
+        // Ownership is part of the delete itself; only a miss needs a second look
+        if (postRepository.deleteByIdAndUserId(postId, userId) == 0) {
+            if (postRepository.findAuthorIdById(postId).isPresent()) {
+                throw new UnauthorizedAccessException("You can only delete your own posts");
+            }
+            throw new PostNotFoundException("Post not found");
+        }
+        searchIndex.onPostDeleted(postId);
+    }
+}
@@ -1,123 +1,263 @@
 package com.example.demo.service.impl;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.demo.cache.ProfileCache;
+import com.example.demo.cache.PublicProfileCache;
 import com.example.demo.dto.ProfileRequest;
 import com.example.demo.dto.ProfileDTO;
+import com.example.demo.dto.PublicProfileDTO;
 import com.example.demo.entity.Profile;
 import com.example.demo.entity.User;
-import com.example.demo.exception.FileUploadException;
+import com.example.demo.exception.BatchTooLargeException;
 import com.example.demo.exception.ProfileAlreadyExistsException;
 import com.example.demo.exception.ProfileNotFoundException;
 import com.example.demo.exception.UsernameAlreadyExistsException;
+import com.example.demo.follow.FollowGraphIndex;
+import com.example.demo.mapper.ProfileMapper;
 import com.example.demo.repository.ProfileRepository;
+import com.example.demo.repository.projection.PublicProfile;
+import com.example.demo.search.SearchIndex;
 import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.ProfilePhotoPipeline;
+import com.example.demo.service.ProfilePhotoPipeline.StagedPhoto;
 import com.example.demo.service.ProfileService;
-import com.example.demo.service.SupabaseStorageService;
-
-import lombok.RequiredArgsConstructor;
 
 @Service
-@RequiredArgsConstructor
 public class ProfileServiceImpl implements ProfileService {
 
 
     private final ProfileRepository profileRepository;
-    private final ModelMapper modelMapper;
-    private final SupabaseStorageService supabaseStorageService;
+    private final ProfileMapper profileMapper;
+    private final ProfilePhotoPipeline photoPipeline;
+    private final ProfileCache profileCache;
+    private final PublicProfileCache publicProfileCache;
+    private final SearchIndex searchIndex;
+    private final FollowGraphIndex followGraph;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+
+    public ProfileServiceImpl(
+            ProfileRepository profileRepository,
+            ProfileMapper profileMapper,
+            ProfilePhotoPipeline photoPipeline,
+            ProfileCache profileCache,
+            PublicProfileCache publicProfileCache,
+            SearchIndex searchIndex,
+            FollowGraphIndex followGraph,
+            TransactionTemplate transactionTemplate,
+            @Value("${users.profiles.max-batch:100}") int maxBatchSize) {
+        this.profileRepository = profileRepository;
+        this.profileMapper = profileMapper;
+        this.photoPipeline = photoPipeline;
+        this.profileCache = profileCache;
+        this.publicProfileCache = publicProfileCache;
+        this.searchIndex = searchIndex;
+        this.followGraph = followGraph;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+    }
 
     @Override
-    @Transactional
     public ProfileDTO createProfile(ProfileRequest profileRequest, MultipartFile profilePhoto) {
         User user = UserPrincipal.getCurrentUser();
 
-        // Check if user already has a profile
-        if (profileRepository.existsByUser(user)) {
-            throw new ProfileAlreadyExistsException("Profile already exists for this user");
-        }
+        // Stage profile photo if provided, before a connection is checked out; it is uploaded after commit
+        StagedPhoto stagedPhoto = stagePhoto(profilePhoto);
 
-        if(profileRepository.existsByUsername(profileRequest.getUsername())){
-            throw new UsernameAlreadyExistsException("Username already exist");
-        }
+        return inTransaction(stagedPhoto, () -> {
+            // Check if user already has a profile
+            if (profileRepository.existsByUser(user)) {
+                throw new ProfileAlreadyExistsException("Profile already exists for this user");
+            }
 
-        // Map request to profile entity
-        Profile profile = modelMapper.map(profileRequest, Profile.class);
-        profile.setUser(user);           // Link profile to user
-        profile.setIsComplete(true);     // Mark profile as complete
-
-        // Upload profile photo if provided
-        if (profilePhoto != null && !profilePhoto.isEmpty()) {
-            try {
-                String photoUrl = supabaseStorageService.uploadProfilePhoto(profilePhoto);
-                profile.setProfilePhotoUrl(photoUrl);
-            } catch (IOException e) {
-                throw new FileUploadException("Failed to upload profile photo: " + e.getMessage(), e);
+            if(profileRepository.existsByUsername(profileRequest.getUsername())){
+                throw new UsernameAlreadyExistsException("Username already exist");
             }
-        }
 
-        Profile savedProfile = profileRepository.save(profile);
+            // Map request to profile entity
+            Profile profile = profileMapper.toEntity(profileRequest);
+            profile.setUser(user);           // Link profile to user
+            profile.setIsComplete(true);     // Mark profile as complete
+            claimPhotoVersion(profile, stagedPhoto);
+
+            Profile savedProfile = profileRepository.save(profile);
+            // Drops a cached "no such username"
+            evictAfterCommit(user.getId(), savedProfile.getUsername());
+            searchIndex.onProfileSaved(user.getId(), savedProfile.getUsername(), savedProfile.getBio());
 
-        return modelMapper.map(savedProfile, ProfileDTO.class);
+            return toDto(savedProfile, user, stagedPhoto);
+        });
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ProfileDTO getProfile() {
         // Get current authenticated user from JWT token via SecurityContext
         User user = UserPrincipal.getCurrentUser();
 
-        // Find profile by user
-        Profile profile = profileRepository.findByUser(user)
-                .orElseThrow(() -> new ProfileNotFoundException("Profile not found for this user"));
-
-        // Map to DTO and return
-        return modelMapper.map(profile, ProfileDTO.class);
+        // Served from cache; the repository lookup runs in its own read transaction on a miss
+        return profileCache.get(user.getId(), userId -> profileRepository.findByUser(user)
+                .map(profileMapper::toDto)
+                .orElseThrow(() -> new ProfileNotFoundException("Profile not found for this user")));
     }
 
     @Override
-    @Transactional
     public ProfileDTO updateProfile(ProfileRequest profileRequest, MultipartFile profilePhoto) {
         User user = UserPrincipal.getCurrentUser();
 
-        // Fetch existing profile
-        Profile profile = profileRepository.findByUser(user)
-                .orElseThrow(() -> new ProfileNotFoundException("Profile not found for this user"));
+        // Stage new profile photo if provided, before a connection is checked out; the old one
+        // is queued for deletion once the new URL lands
+        StagedPhoto stagedPhoto = stagePhoto(profilePhoto);
+
+        return inTransaction(stagedPhoto, () -> {
+            // Fetch existing profile
+            Profile profile = profileRepository.findByUser(user)
+                    .orElseThrow(() -> new ProfileNotFoundException("Profile not found for this user"));
+
+            // Check if new username is taken by another user
+            if (!profile.getUsername().equals(profileRequest.getUsername())
+                && profileRepository.existsByUsername(profileRequest.getUsername())) {
+                throw new UsernameAlreadyExistsException("Username already exist");
+            }
+
+            String previousUsername = profile.getUsername();
+
+            // Update profile fields
+            profile.setUsername(profileRequest.getUsername());
+            profile.setBio(profileRequest.getBio());
+            claimPhotoVersion(profile, stagedPhoto);
+
+            Profile savedProfile = profileRepository.save(profile);
+            evictAfterCommit(user.getId(), previousUsername, savedProfile.getUsername());
+            searchIndex.onProfileSaved(user.getId(), savedProfile.getUsername(), savedProfile.getBio());
+
+            return toDto(savedProfile, user, stagedPhoto);
+        });
+    }
+
+    @Override
+    public PublicProfileDTO getPublicProfile(String username) {
+        List<PublicProfileDTO> found = getPublicProfiles(List.of(username));
+        if (found.isEmpty()) {
+            throw new ProfileNotFoundException("Profile not found");
+        }
+        return found.get(0);
+    }
+
+    @Override
+    public List<PublicProfileDTO> getPublicProfiles(List<String> usernames) {
+        // A screen repeats the same few authors, so each is looked up once
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String username : usernames) {
+            if (username != null && !username.isBlank()) {
+                wanted.add(username.strip());
+            }
+        }
+        if (wanted.size() > maxBatchSize) {
+            throw new BatchTooLargeException("At most " + maxBatchSize + " usernames per request");
+        }
+        if (wanted.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, PublicProfile> profiles = publicProfileCache.getAll(wanted, misses ->
+                profileRepository.findAllByUsernameIn(misses).stream()
+                        .collect(Collectors.toMap(PublicProfile::username, Function.identity())));
 
-        // Check if new username is taken by another user
-        if (!profile.getUsername().equals(profileRequest.getUsername())
-            && profileRepository.existsByUsername(profileRequest.getUsername())) {
-            throw new UsernameAlreadyExistsException("Username already exist");
+        // Counts come from the follow graph, so they are current even when the profile is cached
+        UUID viewer = UserPrincipal.getCurrentUserIdOrNull();
+        List<PublicProfileDTO> result = new ArrayList<>(profiles.size());
+        for (String username : wanted) {
+            PublicProfile profile = profiles.get(username);
+            if (profile == null) {
+                continue;
+            }
+            UUID userId = profile.userId();
+            Boolean followed = viewer == null || viewer.equals(userId) ? null : followGraph.isFollowing(viewer, userId);
+            result.add(new PublicProfileDTO(userId, profile.username(), profile.bio(), profile.profilePhotoUrl(),
+                    profile.profilePhotoSmallUrl(), followGraph.followersCount(userId),
+                    followGraph.followingCount(userId), followed));
         }
+        return result;
+    }
 
-        // Update profile fields
-        profile.setUsername(profileRequest.getUsername());
-        profile.setBio(profileRequest.getBio());
+    private StagedPhoto stagePhoto(MultipartFile profilePhoto) {
+        if (profilePhoto == null || profilePhoto.isEmpty()) {
+            return null;
+        }
+        return photoPipeline.stage(profilePhoto);
+    }
 
-        // Upload new profile photo if provided
-        if (profilePhoto != null && !profilePhoto.isEmpty()) {
-            try {
-                // Delete old photo if exists
-                if (profile.getProfilePhotoUrl() != null && !profile.getProfilePhotoUrl().isEmpty()) {
-                    supabaseStorageService.deleteFile(profile.getProfilePhotoUrl());
+    /**
+     * Runs the profile write in its own transaction, which takes over the staged photo
+     * before anything else can fail: a rollback discards it, a commit uploads it.
+     */
+    private ProfileDTO inTransaction(StagedPhoto stagedPhoto, Supplier<ProfileDTO> write) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (stagedPhoto != null) {
+                    photoPipeline.discardOnRollback(stagedPhoto);
                 }
-
-                // Upload new photo
-                String photoUrl = supabaseStorageService.uploadProfilePhoto(profilePhoto);
-                profile.setProfilePhotoUrl(photoUrl);
-            } catch (IOException e) {
-                throw new FileUploadException("Failed to upload profile photo: " + e.getMessage(), e);
+                return write.get();
+            });
+        } catch (CannotCreateTransactionException e) {
+            // No connection, so the transaction never took the file
+            if (stagedPhoto != null) {
+                photoPipeline.discard(stagedPhoto);
             }
+            throw e;
         }
+    }
 
-        Profile savedProfile = profileRepository.save(profile);
+    /**
+     * Claims a new photo version, so an older upload still in flight can no longer
+     * overwrite the URL.
+     */
+    private static void claimPhotoVersion(Profile profile, StagedPhoto stagedPhoto) {
+        if (stagedPhoto != null) {
+            profile.setPhotoVersion(profile.getPhotoVersion() + 1);
+        }
+    }
 
-        return modelMapper.map(savedProfile, ProfileDTO.class);
+    private ProfileDTO toDto(Profile savedProfile, User user, StagedPhoto stagedPhoto) {
+        ProfileDTO dto = profileMapper.toDto(savedProfile);
+        if (stagedPhoto != null) {
+            photoPipeline.uploadAfterCommit(
+                    savedProfile.getId(), user.getId(), savedProfile.getPhotoVersion(), stagedPhoto);
+            dto.setPhotoUploadPending(true);
+        }
+        return dto;
     }
-    
 
+    /**
+     * Drops the cached profile once the write is visible to other transactions,
+     * so a concurrent reader cannot cache the pre-update row.
+     */
+    private void evictAfterCommit(UUID userId, String... usernames) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                profileCache.evict(userId);
+                for (String username : usernames) {
+                    publicProfileCache.evict(username);
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,151 @@
+package com.example.demo.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.FollowUserDTO;
+import com.example.demo.dto.PagedResponse;
+import com.example.demo.dto.PostDTO;
+import com.example.demo.follow.FollowGraphIndex;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.search.SearchIndex;
+import com.example.demo.search.TextIndex;
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.LikeService;
+import com.example.demo.service.SearchService;
+
+/**
+ * Matching and ranking happen in {@link SearchIndex}; the database is only asked for the
+ * rows on the page being returned.
+ */
+@Service
+public class SearchServiceImpl implements SearchService {
+
+    private final SearchIndex searchIndex;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final FollowGraphIndex followGraph;
+    private final LikeService likeService;
+    private final int maxPageSize;
+    private final int maxResults;
+
+    public SearchServiceImpl(
+            SearchIndex searchIndex,
+            UserRepository userRepository,
+            PostRepository postRepository,
+            FollowGraphIndex followGraph,
+            LikeService likeService,
+            @Value("${search.max-page-size:50}") int maxPageSize,
+            @Value("${search.max-results:1000}") int maxResults) {
+        this.searchIndex = searchIndex;
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.followGraph = followGraph;
+        this.likeService = likeService;
+        this.maxPageSize = maxPageSize;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public PagedResponse<FollowUserDTO> searchUsers(String query, int page, int size) {
+        int pageSize = clamp(size);
+        int pageNumber = Math.max(0, page);
+        TextIndex.Result result = search(query, pageNumber, pageSize, true);
+        List<FollowUserDTO> content = loadUsers(keys(result));
+        return toPage(content, pageNumber, pageSize, result.totalMatches());
+    }
+
+    @Override
+    public List<FollowUserDTO> completeUsers(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return loadUsers(searchIndex.completeUsers(prefix, clamp(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<PostDTO> searchPosts(String query, int page, int size) {
+        int pageSize = clamp(size);
+        int pageNumber = Math.max(0, page);
+        TextIndex.Result result = search(query, pageNumber, pageSize, false);
+
+        List<UUID> ids = keys(result);
+        List<PostDTO> content = new ArrayList<>(ids.size());
+        if (!ids.isEmpty()) {
+            Map<UUID, PostDTO> posts = new HashMap<>();
+            for (PostDTO post : postRepository.findDtosByIdIn(ids)) {
+                posts.put(post.getId(), post);
+            }
+            for (UUID id : ids) {
+                // Missing if the post was deleted on another instance since the last rebuild
+                PostDTO post = posts.get(id);
+                if (post != null) {
+                    content.add(post);
+                }
+            }
+            likeService.decorate(content);
+        }
+        return toPage(content, pageNumber, pageSize, result.totalMatches());
+    }
+
+    private TextIndex.Result search(String query, int page, int pageSize, boolean users) {
+        long offset = (long) page * pageSize;
+        // Deep pages of a relevance ranking are never read, and each costs a bigger top-k
+        if (query == null || query.isBlank() || offset >= maxResults) {
+            return new TextIndex.Result(List.of(), 0);
+        }
+        int limit = (int) Math.min(pageSize, maxResults - offset);
+        return users
+                ? searchIndex.searchUsers(query, (int) offset, limit)
+                : searchIndex.searchPosts(query, (int) offset, limit);
+    }
+
+    private <T> PagedResponse<T> toPage(List<T> content, int page, int pageSize, int totalMatches) {
+        long total = Math.min(totalMatches, maxResults);
+        boolean hasNext = (long) (page + 1) * pageSize < total;
+        return new PagedResponse<>(content, page, pageSize, total, hasNext);
+    }
+
+    /**
+     * One query for the whole page, returned in the order of {@code ids}.
+     */
+    private List<FollowUserDTO> loadUsers(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, FollowUserDTO> users = new HashMap<>();
+        for (FollowUserDTO user : userRepository.findFollowUsersByIdIn(ids)) {
+            users.put(user.getUserId(), user);
+        }
+        UUID viewer = UserPrincipal.getCurrentUserIdOrNull();
+        List<FollowUserDTO> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            FollowUserDTO user = users.get(id);
+            if (user == null) {
+                continue;
+            }
+            if (viewer != null) {
+                user.setFollowedByCurrentUser(followGraph.isFollowing(viewer, id));
+            }
+            result.add(user);
+        }
+        return result;
+    }
+
+    private static List<UUID> keys(TextIndex.Result result) {
+        return result.hits().stream().map(TextIndex.Hit::key).toList();
+    }
+
+    private int clamp(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.exception.FileUploadException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps objects on local disk under {@code storage.local.root} and serves them through
+ * {@code MediaController}. Used for offline load tests and for edge nodes that serve
+ * media themselves.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+@Slf4j
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalStorageBackend(
+            @Value("${storage.local.root:./media}") String root,
+            @Value("${storage.local.base-url:/api/media}") String baseUrl) throws IOException {
+        this.root = Files.createDirectories(Path.of(root)).toRealPath();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * Writes to a temp file next to the target with {@link FileChannel#transferFrom}, then
+     * renames it into place, so readers never see a partially written object.
+     */
+    @Override
+    public String upload(String objectPath, byte[] content, MediaType contentType) {
+        Path target = resolve(objectPath);
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try (ReadableByteChannel source = Channels.newChannel(new ByteArrayInputStream(content));
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (position < content.length) {
+                    position += out.transferFrom(source, position, content.length - position);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Stored object at path: {}", objectPath);
+            return publicUrl(objectPath);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new FileUploadException("Failed to store object locally: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String publicUrl(String objectPath) {
+        return baseUrl + "/" + objectPath;
+    }
+
+    @Override
+    public boolean deleteFile(String fileUrl) {
+        try {
+            String objectPath = fileUrl.startsWith(baseUrl + "/") ? fileUrl.substring(baseUrl.length() + 1) : fileUrl;
+            Files.deleteIfExists(resolve(objectPath));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Error deleting local object {}", fileUrl, e);
+            return false;
+        }
+    }
+
+    /**
+     * Maps an object path onto the storage root, rejecting anything that escapes it.
+     */
+    public Path resolve(String objectPath) {
+        Path path = root.resolve(objectPath).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid object path: " + objectPath);
+        }
+        return path;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temp file {}", file, e);
+        }
+    }
+}
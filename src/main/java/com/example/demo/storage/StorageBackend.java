@@ -0,0 +1,33 @@
+package com.example.demo.storage;
+
+import org.springframework.http.MediaType;
+
+import com.example.demo.exception.FileUploadException;
+
+/**
+ * Where photo objects live. One implementation is active, chosen by {@code storage.backend}
+ * ({@code supabase} by default, or {@code local} to keep everything on this node's disk).
+ */
+public interface StorageBackend {
+
+    /**
+     * Stores the object, replacing any existing object at the same path.
+     * @param objectPath Path of the object, relative to the backend's root
+     * @param content The object's bytes
+     * @param contentType The object's content type
+     * @return The public URL of the stored object
+     * @throws FileUploadException If the object could not be stored
+     */
+    String upload(String objectPath, byte[] content, MediaType contentType);
+
+    /**
+     * @return The URL clients use to fetch the object
+     */
+    String publicUrl(String objectPath);
+
+    /**
+     * Deletes the object behind a URL returned by this backend. Never throws.
+     * @return true if the object is gone (deleted now or already missing), false if the delete should be retried
+     */
+    boolean deleteFile(String fileUrl);
+}
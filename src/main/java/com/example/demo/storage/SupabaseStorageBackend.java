@@ -0,0 +1,105 @@
+package com.example.demo.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.demo.exception.FileUploadException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "supabase", matchIfMissing = true)
+@Slf4j
+public class SupabaseStorageBackend implements StorageBackend {
+
+    @Value("${supabase.url}")
+    private String supabaseUrl;
+
+    @Value("${supabase.service-key}")
+    private String supabaseServiceKey;
+
+    @Value("${supabase.bucket.name}")
+    private String bucketName;
+
+    private final WebClient webClient;
+
+    public SupabaseStorageBackend(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.build();
+    }
+
+    /**
+     * Uploads an object to Supabase Storage.
+     * Object paths are content-addressed, so the upload overwrites rather than conflicts
+     * and the object can be cached as immutable.
+     */
+    @Override
+    public String upload(String objectPath, byte[] content, MediaType contentType) {
+        try {
+            // Upload to Supabase Storage
+            webClient.post()
+                    .uri(supabaseUrl + "/storage/v1/object/" + bucketName + "/" + objectPath)
+                    .header("Authorization", "Bearer " + supabaseServiceKey)
+                    .header("x-upsert", "true")
+                    .header(HttpHeaders.CACHE_CONTROL, "max-age=31536000")
+                    .contentType(contentType)
+                    .bodyValue(content)
+                    .retrieve()
+                    .onStatus(
+                            status -> status.value() >= 400,
+                            clientResponse -> clientResponse.bodyToMono(String.class)
+                                    .map(body -> new FileUploadException("Failed to upload image: " + body))
+                    )
+                    .bodyToMono(String.class)
+                    .block();
+
+            log.info("Successfully uploaded image to path: {}", objectPath);
+
+            return publicUrl(objectPath);
+
+        } catch (Exception e) {
+            log.error("Error uploading file to Supabase: ", e);
+            throw new FileUploadException("Failed to upload image to storage: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String publicUrl(String objectPath) {
+        return supabaseUrl + "/storage/v1/object/public/" + bucketName + "/" + objectPath;
+    }
+
+    /**
+     * Deletes a file from Supabase Storage; a 404 counts as deleted
+     */
+    @Override
+    public boolean deleteFile(String fileUrl) {
+        try {
+            // Extract file path from URL
+            String filePath = fileUrl.replace(
+                    supabaseUrl + "/storage/v1/object/public/" + bucketName + "/", ""
+            );
+
+            webClient.delete()
+                    .uri(supabaseUrl + "/storage/v1/object/" + bucketName + "/" + filePath)
+                    .header("Authorization", "Bearer " + supabaseServiceKey)
+                    .retrieve()
+                    .onStatus(
+                            status -> status.value() >= 400 && status.value() != 404,
+                            clientResponse -> clientResponse.bodyToMono(String.class)
+                                    .map(body -> new FileUploadException("Failed to delete image: " + body))
+                    )
+                    .bodyToMono(String.class)
+                    .block();
+
+            log.info("Successfully deleted image at path: {}", filePath);
+            return true;
+
+        } catch (Exception e) {
+            log.error("Error deleting file from Supabase: ", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.ProfileDTO;
+import com.example.demo.exception.ProfileNotFoundException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CaffeineProfileCacheTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private MeterRegistry meterRegistry;
+    private CaffeineProfileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CaffeineProfileCache(2, Duration.ofMinutes(10), meterRegistry);
+    }
+
+    @Test
+    void loadsOnceAndServesHits() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<UUID, ProfileDTO> loader = id -> {
+            loads.incrementAndGet();
+            return profile("alice");
+        };
+
+        cache.get(USER_ID, loader);
+        cache.get(USER_ID, loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void loaderFailureIsPropagatedAndNotCached() {
+        Function<UUID, ProfileDTO> missing = id -> {
+            throw new ProfileNotFoundException("Profile not found for this user");
+        };
+
+        assertThatThrownBy(() -> cache.get(USER_ID, missing)).isInstanceOf(ProfileNotFoundException.class);
+        assertThat(cache.get(USER_ID, id -> profile("bob")).getUsername()).isEqualTo("bob");
+    }
+
+    @Test
+    void loaderErrorDoesNotLeaveThePlaceholderPending() {
+        Function<UUID, ProfileDTO> failing = id -> {
+            throw new StackOverflowError();
+        };
+
+        assertThatThrownBy(() -> cache.get(USER_ID, failing)).isInstanceOf(StackOverflowError.class);
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertThat(cache.get(USER_ID, id -> profile("bob")).getUsername()).isEqualTo("bob"));
+    }
+
+    @Test
+    void evictsBeyondMaximumSize() {
+        for (int i = 0; i < 5; i++) {
+            String username = "user" + i;
+            cache.get(UUID.randomUUID(), id -> profile(username));
+        }
+        cache.cleanUp();
+
+        assertThat(meterRegistry.get("cache.size").gauge().value()).isLessThanOrEqualTo(2);
+        assertThat(meterRegistry.get("cache.evictions").functionCounter().count()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void concurrentReadersNeverResurrectValueReplacedBeforeEvict() throws Exception {
+        AtomicReference<ProfileDTO> database = new AtomicReference<>(profile("v0"));
+        Function<UUID, ProfileDTO> loader = id -> {
+            ProfileDTO row = database.get();
+            Thread.yield(); // widen the window between reading the row and caching it
+            return row;
+        };
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            readers.submit(() -> {
+                while (running.get()) {
+                    cache.get(USER_ID, loader);
+                }
+            });
+        }
+
+        try {
+            for (int version = 1; version <= 500; version++) {
+                // Mirrors updateProfile: commit the row, then evict after commit
+                database.set(profile("v" + version));
+                cache.evict(USER_ID);
+
+                assertThat(cache.get(USER_ID, loader).getUsername()).isEqualTo("v" + version);
+            }
+        } finally {
+            running.set(false);
+            readers.shutdown();
+            assertThat(readers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private static ProfileDTO profile(String username) {
+        ProfileDTO profile = new ProfileDTO();
+        profile.setId(UUID.randomUUID());
+        profile.setUsername(username);
+        profile.setBio("bio");
+        profile.setCreatedAt(LocalDateTime.now());
+        return profile;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class FeedInboxTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    void entriesAddedInAnyOrderAreReadBackNewestFirst() {
+        Random random = new Random(42);
+        List<FeedEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            // Few distinct timestamps, so most ordering comes down to the post id
+            entries.add(new FeedEntry(new UUID(random.nextLong(), random.nextLong()), T0.plusNanos(random.nextInt(5) * 1_000L)));
+        }
+        FeedInbox inbox = new FeedInbox(100);
+        for (FeedEntry entry : entries) {
+            assertThat(inbox.add(entry)).isTrue();
+        }
+
+        List<FeedEntry> expected = new ArrayList<>(entries);
+        expected.sort(FeedEntry.NEWEST_FIRST);
+        FeedInbox.Page page = inbox.page(null, 100);
+        assertThat(page.entries()).containsExactlyElementsOf(expected);
+        assertThat(page.complete()).isTrue();
+    }
+
+    @Test
+    void postIdsCompareUnsignedLikePostgres() {
+        // Signed comparison would put the 0xFF... id first
+        FeedEntry high = new FeedEntry(new UUID(0xFFFF_0000_0000_0000L, 0), T0);
+        FeedEntry low = new FeedEntry(new UUID(0x0FFF_0000_0000_0000L, 0), T0);
+        FeedInbox inbox = new FeedInbox(4);
+        inbox.add(low);
+        inbox.add(high);
+
+        assertThat(inbox.page(null, 4).entries()).containsExactly(high, low);
+    }
+
+    @Test
+    void duplicateIsIgnored() {
+        FeedEntry entry = entry(1);
+        FeedInbox inbox = new FeedInbox(4);
+
+        assertThat(inbox.add(entry)).isTrue();
+        assertThat(inbox.add(new FeedEntry(entry.postId(), entry.createdAt()))).isFalse();
+        assertThat(inbox.page(null, 4).entries()).containsExactly(entry);
+    }
+
+    @Test
+    void fullInboxDropsItsOldestEntryAndSendsReadersToTheTable() {
+        FeedInbox inbox = new FeedInbox(3);
+        inbox.add(entry(1));
+        inbox.add(entry(2));
+        inbox.add(entry(3));
+        assertThat(inbox.page(null, 10).complete()).isTrue();
+
+        assertThat(inbox.add(entry(4))).isTrue();
+
+        FeedInbox.Page page = inbox.page(null, 10);
+        assertThat(page.entries()).containsExactly(entry(4), entry(3), entry(2));
+        assertThat(page.complete()).isFalse();
+    }
+
+    @Test
+    void entryOlderThanAFullInboxIsNotAdded() {
+        FeedInbox inbox = new FeedInbox(2);
+        inbox.add(entry(5));
+        inbox.add(entry(6));
+
+        assertThat(inbox.add(entry(1))).isFalse();
+
+        FeedInbox.Page page = inbox.page(null, 10);
+        assertThat(page.entries()).containsExactly(entry(6), entry(5));
+        assertThat(page.complete()).isFalse();
+    }
+
+    @Test
+    void pageContinuesStrictlyAfterTheCursor() {
+        FeedInbox inbox = new FeedInbox(10);
+        for (int i = 1; i <= 5; i++) {
+            inbox.add(entry(i));
+        }
+
+        FeedInbox.Page first = inbox.page(null, 2);
+        assertThat(first.entries()).containsExactly(entry(5), entry(4));
+        assertThat(first.complete()).isTrue();
+
+        assertThat(inbox.page(entry(4), 2).entries()).containsExactly(entry(3), entry(2));
+        assertThat(inbox.page(entry(2), 2).entries()).containsExactly(entry(1));
+        // A cursor that is not in the inbox starts at the next older entry
+        FeedEntry between = new FeedEntry(new UUID(0, 0), T0.plusSeconds(3).plusNanos(500_000));
+        assertThat(inbox.page(between, 1).entries()).containsExactly(entry(3));
+    }
+
+    @Test
+    void coldLoadMergesWithEntriesPushedBeforeIt() {
+        FeedInbox inbox = new FeedInbox(3);
+        inbox.add(entry(10));
+
+        inbox.ensureLoaded(() -> List.of(entry(9), entry(8), entry(7)));
+        // Runs once
+        inbox.ensureLoaded(() -> List.of(entry(1)));
+
+        FeedInbox.Page page = inbox.page(null, 10);
+        assertThat(page.entries()).containsExactly(entry(10), entry(9), entry(8));
+        assertThat(page.complete()).isFalse();
+    }
+
+    @Test
+    void coldLoadShorterThanCapacityLeavesTheInboxComplete() {
+        FeedInbox inbox = new FeedInbox(5);
+        List<FeedEntry> loaded = new ArrayList<>(List.of(entry(1), entry(3), entry(2)));
+        Collections.shuffle(loaded, new Random(7));
+
+        inbox.ensureLoaded(() -> loaded);
+
+        FeedInbox.Page page = inbox.page(null, 10);
+        assertThat(page.entries()).containsExactly(entry(3), entry(2), entry(1));
+        assertThat(page.complete()).isTrue();
+    }
+
+    // A fixed post id per second, so equal arguments give equal entries
+    private static FeedEntry entry(int second) {
+        return new FeedEntry(new UUID(second, second), T0.plusSeconds(second));
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.demo.follow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class FollowGraphTest {
+
+    // Postgres order for uuids: both halves compared unsigned
+    private static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private record Edge(UUID follower, UUID followee) {
+    }
+
+    private final Random random = new Random(42);
+
+    @Test
+    void randomFollowsAndUnfollowsMatchASetOfEdges() {
+        List<UUID> users = users(300);
+        // Starts far too small, so ids, rows and the hash table all grow along the way
+        FollowGraph graph = new FollowGraph(1);
+        Set<Edge> edges = new HashSet<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            Edge edge = new Edge(pick(users), pick(users));
+            if (random.nextInt(3) == 0) {
+                assertThat(graph.unfollow(edge.follower(), edge.followee())).isEqualTo(edges.remove(edge));
+            } else {
+                assertThat(graph.follow(edge.follower(), edge.followee())).isEqualTo(edges.add(edge));
+            }
+        }
+
+        assertThat(graph.edgeCount()).isEqualTo(edges.size());
+        assertMatches(graph, users, edges);
+    }
+
+    @Test
+    void builderMatchesTheSameEdgesFollowedOneByOne() {
+        List<UUID> users = users(200);
+        Set<Edge> edges = new HashSet<>();
+        FollowGraph.Builder builder = new FollowGraph.Builder(10);
+        for (int i = 0; i < 3_000; i++) {
+            Edge edge = new Edge(pick(users), pick(users));
+            edges.add(edge);
+            // Duplicate rows are collapsed by the build
+            builder.addEdge(edge.follower(), edge.followee());
+            if (i % 10 == 0) {
+                builder.addEdge(edge.follower(), edge.followee());
+            }
+        }
+        FollowGraph built = builder.build();
+
+        assertThat(built.edgeCount()).isEqualTo(edges.size());
+        assertMatches(built, users, edges);
+    }
+
+    @Test
+    void pagesAreInUserIdOrderWhateverTheLoadOrder() {
+        UUID celebrity = UUID.randomUUID();
+        List<UUID> fans = users(50);
+        // High bit set on some ids, which a signed comparison would put first
+        fans.add(new UUID(0x8000_0000_0000_0000L, 1));
+        fans.add(new UUID(0x7FFF_FFFF_FFFF_FFFFL, 1));
+
+        List<UUID> shuffled = new ArrayList<>(fans);
+        Collections.shuffle(shuffled, random);
+        FollowGraph.Builder builder = new FollowGraph.Builder(fans.size());
+        for (UUID fan : shuffled) {
+            builder.addEdge(fan, celebrity);
+        }
+        FollowGraph built = builder.build();
+
+        FollowGraph incremental = new FollowGraph();
+        Collections.shuffle(shuffled, random);
+        for (UUID fan : shuffled) {
+            incremental.follow(fan, celebrity);
+        }
+
+        List<UUID> expected = new ArrayList<>(fans);
+        expected.sort(UUID_ORDER);
+        assertThat(built.followers(celebrity, 0, 100)).containsExactlyElementsOf(expected);
+        assertThat(incremental.followers(celebrity, 0, 100)).containsExactlyElementsOf(expected);
+        assertThat(built.followers(celebrity, 10, 5)).containsExactlyElementsOf(expected.subList(10, 15));
+    }
+
+    @Test
+    void usersFollowedAfterABuildKeepRowsInUserIdOrder() {
+        List<UUID> users = users(20);
+        UUID celebrity = users.get(0);
+        FollowGraph.Builder builder = new FollowGraph.Builder(users.size());
+        for (UUID user : users.subList(1, 10)) {
+            builder.addEdge(user, celebrity);
+        }
+        FollowGraph graph = builder.build();
+
+        // Interned after the build, so their dense ids are out of uuid order
+        for (UUID user : users.subList(10, 20)) {
+            graph.follow(user, celebrity);
+        }
+        graph.unfollow(users.get(3), celebrity);
+
+        List<UUID> expected = new ArrayList<>(users.subList(1, 20));
+        expected.remove(users.get(3));
+        expected.sort(UUID_ORDER);
+        assertThat(graph.followers(celebrity, 0, 100)).containsExactlyElementsOf(expected);
+        assertThat(graph.isFollowing(users.get(15), celebrity)).isTrue();
+        assertThat(graph.isFollowing(users.get(3), celebrity)).isFalse();
+    }
+
+    @Test
+    void rowsShrinkAfterMostFollowersLeave() {
+        UUID celebrity = UUID.randomUUID();
+        List<UUID> fans = users(1_000);
+        FollowGraph graph = new FollowGraph();
+        fans.forEach(fan -> graph.follow(fan, celebrity));
+        fans.subList(0, 990).forEach(fan -> graph.unfollow(fan, celebrity));
+
+        List<UUID> expected = new ArrayList<>(fans.subList(990, 1_000));
+        expected.sort(UUID_ORDER);
+        assertThat(graph.followersCount(celebrity)).isEqualTo(10);
+        assertThat(graph.followers(celebrity, 0, 100)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void unknownUsersHaveNoEdges() {
+        FollowGraph graph = new FollowGraph();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        graph.follow(a, b);
+
+        UUID stranger = UUID.randomUUID();
+        assertThat(graph.isFollowing(stranger, b)).isFalse();
+        assertThat(graph.unfollow(stranger, b)).isFalse();
+        assertThat(graph.followersCount(stranger)).isZero();
+        assertThat(graph.followers(stranger, 0, 10)).isEmpty();
+        assertThat(graph.followers(b, 5, 10)).isEmpty();
+    }
+
+    @Test
+    void suggestionsRankAccountsByHowManyFollowedAccountsFollowThem() {
+        UUID me = UUID.randomUUID();
+        UUID friend1 = UUID.randomUUID();
+        UUID friend2 = UUID.randomUUID();
+        UUID both = UUID.randomUUID();
+        UUID one = UUID.randomUUID();
+        FollowGraph graph = new FollowGraph();
+        graph.follow(me, friend1);
+        graph.follow(me, friend2);
+        graph.follow(friend1, both);
+        graph.follow(friend2, both);
+        graph.follow(friend1, one);
+        // Already followed, and me, are never suggested
+        graph.follow(friend1, friend2);
+        graph.follow(friend2, me);
+
+        assertThat(graph.suggestions(me, 10, 1_000)).containsExactly(both, one);
+        assertThat(graph.suggestions(me, 1, 1_000)).containsExactly(both);
+    }
+
+    @Test
+    void mostFollowedIsOrderedByFollowerCount() {
+        List<UUID> users = users(4);
+        FollowGraph graph = new FollowGraph();
+        graph.follow(users.get(0), users.get(1));
+        graph.follow(users.get(2), users.get(1));
+        graph.follow(users.get(3), users.get(1));
+        graph.follow(users.get(0), users.get(2));
+        graph.follow(users.get(3), users.get(2));
+        graph.follow(users.get(0), users.get(3));
+
+        assertThat(graph.mostFollowed(2)).containsExactly(users.get(1), users.get(2));
+        assertThat(graph.followingWithMoreFollowersThan(users.get(0), 1))
+                .containsExactlyInAnyOrder(users.get(1), users.get(2));
+    }
+
+    private void assertMatches(FollowGraph graph, List<UUID> users, Set<Edge> edges) {
+        for (UUID user : users) {
+            List<UUID> followers = new ArrayList<>();
+            List<UUID> following = new ArrayList<>();
+            for (Edge edge : edges) {
+                if (edge.followee().equals(user)) {
+                    followers.add(edge.follower());
+                }
+                if (edge.follower().equals(user)) {
+                    following.add(edge.followee());
+                }
+            }
+            followers.sort(UUID_ORDER);
+            following.sort(UUID_ORDER);
+
+            assertThat(graph.followersCount(user)).isEqualTo(followers.size());
+            assertThat(graph.followingCount(user)).isEqualTo(following.size());
+            assertThat(graph.followers(user, 0, Integer.MAX_VALUE)).containsExactlyElementsOf(followers);
+            assertThat(graph.following(user, 0, Integer.MAX_VALUE)).containsExactlyElementsOf(following);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            UUID a = pick(users);
+            UUID b = pick(users);
+            assertThat(graph.isFollowing(a, b)).isEqualTo(edges.contains(new Edge(a, b)));
+            assertThat(graph.isMutual(a, b)).isEqualTo(edges.contains(new Edge(a, b)) && edges.contains(new Edge(b, a)));
+        }
+    }
+
+    private List<UUID> users(int count) {
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return users;
+    }
+
+    private UUID pick(List<UUID> users) {
+        return users.get(random.nextInt(users.size()));
+    }
+}
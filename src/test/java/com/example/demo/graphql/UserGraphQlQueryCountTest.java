@@ -0,0 +1,106 @@
+package com.example.demo.graphql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureHttpGraphQlTester;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.HttpGraphQlTester;
+
+import com.example.demo.entity.Profile;
+import com.example.demo.entity.User;
+import com.example.demo.repository.ProfileRepository;
+import com.example.demo.repository.UserRepository;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.demo.graphql.UserGraphQlQueryCountTest$CountingInspector")
+@AutoConfigureMockMvc
+@AutoConfigureHttpGraphQlTester
+class UserGraphQlQueryCountTest {
+
+    private static final int USERS = 100;
+
+    // Counts only statements issued on the test thread, which MockMvc runs the request on,
+    // so scheduled jobs in the background do not disturb the count
+    public static class CountingInspector implements StatementInspector {
+
+        static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            int[] statements = STATEMENTS.get();
+            if (statements != null) {
+                statements[0]++;
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private HttpGraphQlTester graphQlTester;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    private final List<UUID> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void createUsers() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(User.builder()
+                    .name("GraphQL " + i)
+                    .email("graphql-" + run + "-" + i + "@example.com")
+                    .password("unused")
+                    .build());
+            profileRepository.save(Profile.builder()
+                    .user(user)
+                    .username("gql_" + run + "_" + i)
+                    .isComplete(true)
+                    .build());
+            userIds.add(user.getId());
+        }
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        // Profiles reference their user, so they go first
+        profileRepository.deleteAllById(profileRepository.findNodesByUserIdIn(userIds).stream()
+                .map(ProfileNode::id)
+                .toList());
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void nestedQueryOverHundredUsersRunsOneStatementPerLevel() {
+        int[] statements = new int[1];
+        CountingInspector.STATEMENTS.set(statements);
+        try {
+            graphQlTester.document("""
+                            query($ids: [ID!]!) {
+                              users(ids: $ids) { name profile { username user { name followersCount } } }
+                            }
+                            """)
+                    .variable("ids", userIds.stream().map(UUID::toString).toList())
+                    .execute()
+                    .path("users[*].profile.user.name").entityList(String.class).hasSize(USERS);
+        } finally {
+            CountingInspector.STATEMENTS.remove();
+        }
+
+        // users, their profiles, the profiles' users
+        assertThat(statements[0]).isEqualTo(3);
+    }
+}
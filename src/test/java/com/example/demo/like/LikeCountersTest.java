@@ -0,0 +1,100 @@
+package com.example.demo.like;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class LikeCountersTest {
+
+    private static final UUID POST_ID = UUID.randomUUID();
+
+    private final LikeCounters counters = new LikeCounters();
+
+    @Test
+    void concurrentLikesOnOnePostAreAllFlushedWhileDraining() throws Exception {
+        int likers = 5_000;
+        AtomicLong flushed = new AtomicLong();
+        AtomicBoolean liking = new AtomicBoolean(true);
+
+        // Stands in for the scheduled flusher, draining while the likes land
+        Thread flusher = new Thread(() -> {
+            while (liking.get()) {
+                flushed.addAndGet(counters.drain().getOrDefault(POST_ID, 0L));
+            }
+        });
+        flusher.start();
+
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < likers; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    counters.add(POST_ID, 1);
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        liking.set(false);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+
+        flushed.addAndGet(counters.drain().getOrDefault(POST_ID, 0L));
+        assertThat(flushed).hasValue(likers);
+        assertThat(counters.pending(POST_ID)).isZero();
+    }
+
+    @Test
+    void likesAndUnlikesNetOutAcrossDrains() throws Exception {
+        int pairs = 2_000;
+        AtomicLong flushed = new AtomicLong();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < pairs; i++) {
+                executor.submit(() -> counters.add(POST_ID, 1));
+                executor.submit(() -> counters.add(POST_ID, -1));
+                if (i % 100 == 0) {
+                    flushed.addAndGet(counters.drain().getOrDefault(POST_ID, 0L));
+                }
+            }
+        }
+
+        flushed.addAndGet(counters.drain().getOrDefault(POST_ID, 0L));
+        assertThat(flushed).hasValue(0);
+    }
+
+    @Test
+    void idlePostIsRetiredAndLaterLikesStartAFreshCounter() {
+        counters.add(POST_ID, 3);
+        assertThat(counters.drain()).containsEntry(POST_ID, 3L);
+
+        // Two idle drains remove the post from the live map
+        assertThat(counters.drain()).isEmpty();
+        assertThat(counters.drain()).isEmpty();
+        assertThat(counters.size()).isZero();
+
+        counters.add(POST_ID, 2);
+        Map<UUID, Long> deltas = counters.drain();
+        assertThat(deltas).containsEntry(POST_ID, 2L);
+        assertThat(counters.drain()).isEmpty();
+    }
+
+    @Test
+    void pendingReflectsUndrainedDelta() {
+        counters.add(POST_ID, 1);
+        counters.add(POST_ID, 1);
+        counters.add(POST_ID, -1);
+
+        assertThat(counters.pending(POST_ID)).isEqualTo(1);
+        counters.drain();
+        assertThat(counters.pending(POST_ID)).isZero();
+    }
+}
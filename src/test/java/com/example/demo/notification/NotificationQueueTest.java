@@ -0,0 +1,123 @@
+package com.example.demo.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.User;
+import com.example.demo.enums.NotificationType;
+import com.example.demo.enums.Role;
+import com.example.demo.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// A tiny queue, so a third event overflows it; the scheduled flush stays out of the way
+@SpringBootTest(properties = {
+        "notifications.queue-capacity=2",
+        "notifications.flush-interval=PT1H",
+        "notifications.max-attempts=3"})
+class NotificationQueueTest {
+
+    @Autowired
+    private NotificationQueue notificationQueue;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void emptyQueue() {
+        notificationQueue.flush();
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        // Their notifications go with them
+        users.forEach(user -> userRepository.deleteById(user.getId()));
+    }
+
+    @Test
+    void overflowInsideACommittedTransactionIsWritten() {
+        User recipient = user();
+        List<User> actors = List.of(user(), user(), user());
+
+        // The third afterCommit finds the queue full and flushes on this thread, which is
+        // still bound to the committed transaction
+        transactionTemplate.executeWithoutResult(status -> actors.forEach(
+                actor -> notificationQueue.onFollowed(actor.getId(), recipient.getId())));
+
+        assertThat(actorCount(recipient)).isEqualTo(2);
+
+        notificationQueue.flush();
+        assertThat(actorCount(recipient)).isEqualTo(3);
+    }
+
+    @Test
+    void batchThatKeepsFailingIsSplitUntilTheBadEventIsDropped() {
+        User recipient = user();
+        User actor = user();
+        double failedBefore = meterRegistry.get("notifications.failed").counter().count();
+
+        notificationQueue.enqueue(follow(actor.getId(), recipient.getId()));
+        // No such user, so the row breaks the recipient foreign key on every attempt
+        notificationQueue.enqueue(follow(actor.getId(), UUID.randomUUID()));
+
+        // 3 failures as a pair, then the good half, then 3 failures alone
+        for (int i = 0; i < 7; i++) {
+            notificationQueue.flush();
+        }
+
+        assertThat(actorCount(recipient)).isEqualTo(1);
+        assertThat(meterRegistry.get("notifications.failed").counter().count()).isEqualTo(failedBefore + 1);
+
+        // Nothing is left in front of new events
+        User other = user();
+        notificationQueue.enqueue(follow(actor.getId(), other.getId()));
+        notificationQueue.flush();
+        assertThat(actorCount(other)).isEqualTo(1);
+    }
+
+    private static NotificationEvent follow(UUID actorId, UUID recipientId) {
+        return new NotificationEvent(NotificationType.FOLLOW, actorId, recipientId, recipientId, null, null,
+                LocalDateTime.now());
+    }
+
+    private int actorCount(User recipient) {
+        List<Integer> counts = jdbcTemplate.queryForList(
+                "SELECT actor_count FROM notifications WHERE recipient_id = ?", Integer.class, recipient.getId());
+        return counts.stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private User user() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(User.builder()
+                .name("Notified " + suffix)
+                .email("notified-" + suffix + "@example.com")
+                .password("unused")
+                .role(Role.USER)
+                .build());
+        users.add(user);
+        return user;
+    }
+}
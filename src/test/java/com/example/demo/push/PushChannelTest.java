@@ -0,0 +1,168 @@
+package com.example.demo.push;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PushChannelTest {
+
+    private static final UUID ALICE = UUID.randomUUID();
+    private static final UUID BOB = UUID.randomUUID();
+    private static final int SEND_BUFFER = 4;
+
+    private final PushChannel channel = new PushChannel(new SimpleMeterRegistry(), Duration.ofMinutes(1),
+            8, SEND_BUFFER, 2, Duration.ofMinutes(1));
+
+    // Keeps each event as "id event", or "reset" for a reset
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        volatile boolean disconnected;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            String raw = text.toString();
+            if (raw.contains("event:" + PushChannel.RESET)) {
+                events.add(PushChannel.RESET);
+            } else if (raw.startsWith("id:")) {
+                events.add(raw.substring(3, raw.indexOf('\n')) + " " + raw.substring(raw.indexOf("event:") + 6,
+                        raw.indexOf('\n', raw.indexOf("event:"))));
+            }
+        }
+    }
+
+    @Test
+    void reconnectReplaysOnlyTheUsersMissedEventsInOrder() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        channel.open(ALICE, null, first);
+        channel.publish(ALICE, "a1", Map.of());
+        await(() -> first.events.size() == 1);
+        String lastId = first.events.get(0).split(" ")[0];
+
+        // The write of a2 finds the connection gone
+        first.disconnected = true;
+        channel.publish(ALICE, "a2", Map.of());
+        await(() -> channel.connectionCount() == 0);
+        channel.publish(BOB, "b1", Map.of());
+        channel.publish(ALICE, "a3", Map.of());
+        assertThat(channel.isListening(ALICE)).isTrue();
+
+        RecordingEmitter second = new RecordingEmitter();
+        channel.open(ALICE, lastId, second);
+        await(() -> second.events.size() == 2);
+        assertThat(second.events).extracting(event -> event.split(" ")[1]).containsExactly("a2", "a3");
+    }
+
+    @Test
+    void resumingFromAnIdNoLongerInTheRingGetsAReset() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        channel.open(ALICE, null, first);
+        channel.publish(ALICE, "old", Map.of());
+        await(() -> first.events.size() == 1);
+        String lastId = first.events.get(0).split(" ")[0];
+
+        // Overruns the ring of 8
+        for (int i = 0; i < 10; i++) {
+            channel.publish(BOB, "b" + i, Map.of());
+        }
+
+        RecordingEmitter second = new RecordingEmitter();
+        channel.open(ALICE, lastId, second);
+        await(() -> !second.events.isEmpty());
+        assertThat(second.events).containsExactly(PushChannel.RESET);
+    }
+
+    @Test
+    void streamThatStopsReadingIsClosed() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        SseEmitter stuck = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        channel.open(ALICE, null, stuck);
+
+        // One event is held by the blocked drain, the rest fill the buffer and one more overflows it
+        for (int i = 0; i < SEND_BUFFER + 2; i++) {
+            channel.publish(ALICE, "e" + i, Map.of());
+        }
+        assertThat(channel.connectionCount()).isZero();
+        blocked.countDown();
+    }
+
+    @Test
+    void closingAStuckStreamDoesNotHoldUpOtherUsers() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch completing = new CountDownLatch(1);
+        // complete() waits for the send in progress, as the real emitter's lock makes it
+        SseEmitter stuck = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                await(blocked);
+            }
+
+            @Override
+            public void complete() {
+                completing.countDown();
+                await(blocked);
+            }
+        };
+        channel.open(ALICE, null, stuck);
+        RecordingEmitter bob = new RecordingEmitter();
+        channel.open(BOB, null, bob);
+
+        Thread overflowing = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < SEND_BUFFER + 2; i++) {
+                channel.publish(ALICE, "e" + i, Map.of());
+            }
+        });
+        assertThat(completing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Used to wait on the channel lock, held by the publisher stuck in complete()
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> channel.publish(BOB, "b1", Map.of()));
+        await(() -> bob.events.size() == 1);
+
+        blocked.countDown();
+        overflowing.join();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuthRateLimitsTest {
+
+    private final AuthRateLimits limits = new AuthRateLimits(new SimpleMeterRegistry(),
+            1, Duration.ofMinutes(1), 1, Duration.ofMinutes(1), 1000);
+
+    @Test
+    void ipv6AddressesInOneSlash64ShareABucket() {
+        assertThat(limits.checkAddress("2001:db8:1:2::1")).isZero();
+        assertThat(limits.checkAddress("2001:db8:1:2:ffff:ffff:ffff:ffff")).isPositive();
+        assertThat(limits.checkAddress("2001:db8:1:3::1")).isZero();
+    }
+
+    @Test
+    void ipv4AddressesHaveABucketEach() {
+        assertThat(limits.checkAddress("192.0.2.1")).isZero();
+        assertThat(limits.checkAddress("192.0.2.1")).isPositive();
+        assertThat(limits.checkAddress("192.0.2.2")).isZero();
+    }
+
+    @Test
+    void addressKeyIgnoresTheLower64BitsAndHowTheAddressIsWritten() {
+        assertThat(AuthRateLimits.addressKey("2001:db8::1"))
+                .isEqualTo(AuthRateLimits.addressKey("2001:0db8:0:0:abcd::9"))
+                .isEqualTo("20010db800000000::/64");
+        assertThat(AuthRateLimits.addressKey("::ffff:192.0.2.1")).isEqualTo("192.0.2.1");
+        assertThat(AuthRateLimits.addressKey("192.0.2.1")).isEqualTo("192.0.2.1");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void concurrentRequestsGetExactlyTheCapacity() throws Exception {
+        RateLimiter limiter = new RateLimiter(50, Duration.ofMinutes(1), 1000, now::get);
+        AtomicInteger admitted = new AtomicInteger();
+
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 10_000; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    if (limiter.tryAcquire("10.0.0.1") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(admitted).hasValue(50);
+    }
+
+    @Test
+    void waitIsUntilTheNextTokenAndTokensRefillOverThePeriod() {
+        RateLimiter limiter = new RateLimiter(2, Duration.ofSeconds(10), 1000, now::get);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(TimeUnit.SECONDS.toNanos(5));
+        assertThat(limiter.tryAcquire("b")).isZero();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void floodOfNewKeysEvictsOldBucketsInsteadOfLockingOutNewClients() {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofSeconds(10), 100, now::get);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(limiter.tryAcquire("flood-" + i)).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("newcomer")).isZero();
+        assertThat(limiter.tryAcquire("newcomer")).isPositive();
+        limiter.cleanUp();
+        assertThat(limiter.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void bucketsExpireOnceIdleForAPeriod() {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofSeconds(10), 100, now::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        assertThat(limiter.size()).isEqualTo(2);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        limiter.tryAcquire("b");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        limiter.cleanUp();
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("a")).isZero();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class TextIndexTest {
+
+    private static final UUID ALICE = UUID.randomUUID();
+    private static final UUID ALINA = UUID.randomUUID();
+    private static final UUID BOB = UUID.randomUUID();
+
+    @Test
+    void usernameMatchOutranksBioMention() {
+        TextIndex index = new TextIndex(1000);
+        index.put(ALICE, "alice", "Photographer in Lisbon");
+        index.put(BOB, "bob", "Travelling with alice and friends");
+
+        assertThat(index.search("Alice", 0, 10).hits())
+                .extracting(TextIndex.Hit::key)
+                .containsExactly(ALICE, BOB);
+    }
+
+    @Test
+    void completionMergesSortedAndRecentLabelsAndSkipsRenamedOnes() {
+        TextIndex index = new TextIndex.Builder(1000, 4)
+                .add(ALICE, "alice", null)
+                .add(BOB, "bob", null)
+                .build();
+        index.put(ALINA, "Alina", null);
+        index.put(ALICE, "bobby", null);
+
+        assertThat(index.complete("ali", 10))
+                .extracting(TextIndex.Completion::key)
+                .containsExactly(ALINA);
+        assertThat(index.complete("bob", 10))
+                .extracting(TextIndex.Completion::label)
+                .containsExactly("bob", "bobby");
+    }
+
+    @Test
+    void removedDocumentsAreNotFound() {
+        TextIndex index = new TextIndex(1000);
+        index.put(ALICE, "alice", "café owner");
+        index.remove(ALICE);
+
+        assertThat(index.search("cafe", 0, 10).hits()).isEmpty();
+        assertThat(index.complete("al", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void snapshotRoundTripKeepsOnlyLiveDocuments() throws Exception {
+        TextIndex index = new TextIndex(1000);
+        index.put(ALICE, "alice", "first bio");
+        index.put(ALICE, "alice", "second bio");
+        index.put(BOB, "bob", "first post");
+        index.remove(BOB);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        TextIndex restored = TextIndex.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 1000);
+
+        assertThat(restored.size()).isEqualTo(1);
+        assertThat(restored.search("first", 0, 10).hits()).isEmpty();
+        assertThat(restored.search("second", 0, 10).hits())
+                .extracting(TextIndex.Hit::key)
+                .containsExactly(ALICE);
+        assertThat(restored.complete("a", 10))
+                .extracting(TextIndex.Completion::key)
+                .containsExactly(ALICE);
+    }
+}
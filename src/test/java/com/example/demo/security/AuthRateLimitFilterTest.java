@@ -0,0 +1,60 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest(properties = {
+        "rate-limit.auth.address.capacity=1",
+        "rate-limit.auth.address.period=PT1H"})
+@AutoConfigureMockMvc
+class AuthRateLimitFilterTest {
+
+    private static final String BODY = "{\"email\":\"nobody@example.com\",\"password\":\"wrong\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void percentEncodedLoginPathIsLimitedLikeThePlainOne() throws Exception {
+        int first = mockMvc.perform(postFrom(URI.create("/api/auth/login"), "198.51.100.1"))
+                .andReturn().getResponse().getStatus();
+        assertThat(first).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+
+        // Reaches the same handler once decoded, so it has to take from the same bucket
+        mockMvc.perform(postFrom(URI.create("/api/auth/%6Cogin"), "198.51.100.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void otherAuthEndpointsAreNotLimited() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            int status = mockMvc.perform(postFrom(URI.create("/api/auth/refresh"), "198.51.100.2"))
+                    .andReturn().getResponse().getStatus();
+            assertThat(status).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        }
+    }
+
+    private static MockHttpServletRequestBuilder postFrom(URI uri, String address) {
+        return post(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BODY)
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                });
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.User;
+import com.example.demo.enums.Role;
+import com.example.demo.repository.SessionRepository;
+import com.example.demo.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.demo.security.LoginStatementCountTest$RecordingInspector")
+@AutoConfigureMockMvc
+class LoginStatementCountTest {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    // Records only statements issued on the test thread, which MockMvc runs the request on
+    public static class RecordingInspector implements StatementInspector {
+
+        static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql.toLowerCase());
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = userRepository.save(User.builder()
+                .name("Login")
+                .email("login-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(Role.USER)
+                .build());
+    }
+
+    @AfterEach
+    void deleteUser() {
+        transactionTemplate.executeWithoutResult(status -> sessionRepository.deleteByUser(user));
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void loginLoadsUserWithProfileStatusThenInsertsAndCapsSessions() throws Exception {
+        List<String> statements = record(() -> login());
+
+        // Before: user, session insert, then a separate profile select, and no cap on sessions
+        assertThat(statements).hasSize(3);
+        assertThat(statements.get(0)).startsWith("select").contains("profile");
+        assertThat(statements.get(1)).startsWith("insert into session");
+        assertThat(statements.get(2)).startsWith("delete from session");
+    }
+
+    @Test
+    void bearerRequestLoadsUserWithoutProfileJoin() throws Exception {
+        String accessToken = login();
+
+        List<String> statements = record(() -> {
+            mockMvc.perform(get("/api/users/profile")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken));
+            return null;
+        });
+
+        assertThat(statements).isNotEmpty();
+        assertThat(statements.get(0)).startsWith("select").contains("from users").doesNotContain("profile");
+    }
+
+    private String login() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + user.getEmail() + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.accessToken");
+    }
+
+    private interface Request {
+        Object perform() throws Exception;
+    }
+
+    private static List<String> record(Request request) throws Exception {
+        List<String> statements = new ArrayList<>();
+        RecordingInspector.STATEMENTS.set(statements);
+        try {
+            request.perform();
+        } finally {
+            RecordingInspector.STATEMENTS.remove();
+        }
+        return statements;
+    }
+}
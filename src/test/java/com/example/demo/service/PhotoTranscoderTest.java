@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.demo.service.PhotoTranscoder.Variant;
+
+class PhotoTranscoderTest {
+
+    private final PhotoTranscoder transcoder = new PhotoTranscoder(40_000_000, 0.9f);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rotatedPhoneJpegComesOutUpright() throws Exception {
+        // Stored landscape, red on the left; orientation 6 means "turn 90 degrees clockwise to view"
+        Path file = dir.resolve("rotated.jpg");
+        Files.write(file, withExifOrientation(halves(400, 200, Color.RED, Color.BLUE), 6));
+
+        assertThat(PhotoTranscoder.exifOrientation(file)).isEqualTo(6);
+        Map<Variant, byte[]> variants = transcoder.transcode(file);
+
+        BufferedImage large = ImageIO.read(new ByteArrayInputStream(variants.get(Variant.LARGE)));
+        assertThat(large.getWidth()).isEqualTo(200);
+        assertThat(large.getHeight()).isEqualTo(400);
+        // The left of the stored image is the top of the upright one
+        assertThat(isRed(large.getRGB(100, 50))).isTrue();
+        assertThat(isRed(large.getRGB(100, 350))).isFalse();
+    }
+
+    @Test
+    void everyOrientationMapsTheTopLeftCornerAsSpecified() {
+        BufferedImage source = new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB);
+        source.setRGB(0, 0, 0xFF0000);
+
+        // Where the stored top-left pixel ends up once upright, per EXIF orientation
+        int[][] corner = {{0, 0}, {0, 0}, {3, 0}, {3, 1}, {0, 1}, {0, 0}, {1, 0}, {1, 3}, {0, 3}};
+        for (int orientation = 1; orientation <= 8; orientation++) {
+            BufferedImage upright = PhotoTranscoder.orient(source, orientation);
+            assertThat(upright.getWidth()).isEqualTo(orientation >= 5 ? 2 : 4);
+            assertThat(upright.getRGB(corner[orientation][0], corner[orientation][1]) & 0xFFFFFF)
+                    .as("orientation %d", orientation)
+                    .isEqualTo(0xFF0000);
+        }
+    }
+
+    @Test
+    void filesWithoutExifAreUpright() throws Exception {
+        Path file = dir.resolve("plain.jpg");
+        Files.write(file, halves(40, 20, Color.RED, Color.BLUE));
+
+        assertThat(PhotoTranscoder.exifOrientation(file)).isEqualTo(1);
+    }
+
+    private static byte[] halves(int width, int height, Color left, Color right) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(left);
+        g.fillRect(0, 0, width / 2, height);
+        g.setColor(right);
+        g.fillRect(width / 2, 0, width - width / 2, height);
+        g.dispose();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", bytes);
+        return bytes.toByteArray();
+    }
+
+    // Inserts an APP1 segment holding a big-endian TIFF header with one IFD entry: Orientation
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        ByteBuffer app1 = ByteBuffer.allocate(2 + 2 + 6 + 8 + 2 + 12 + 4);
+        app1.putShort((short) 0xFFE1).putShort((short) (app1.capacity() - 2));
+        app1.put("Exif\0\0".getBytes());
+        app1.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        app1.putShort((short) 1);
+        app1.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        app1.putInt(0);
+
+        byte[] result = new byte[jpeg.length + app1.capacity()];
+        System.arraycopy(jpeg, 0, result, 0, 2);
+        System.arraycopy(app1.array(), 0, result, 2, app1.capacity());
+        System.arraycopy(jpeg, 2, result, 2 + app1.capacity(), jpeg.length - 2);
+        return result;
+    }
+
+    private static boolean isRed(int rgb) {
+        int red = rgb >> 16 & 0xFF;
+        int blue = rgb & 0xFF;
+        return red > 200 && blue < 80;
+    }
+}
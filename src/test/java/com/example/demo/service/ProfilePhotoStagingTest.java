@@ -0,0 +1,100 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.demo.cache.ProfileCache;
+import com.example.demo.repository.PhotoDeleteOutboxRepository;
+import com.example.demo.repository.ProfileRepository;
+import com.example.demo.service.ProfilePhotoPipeline.StagedPhoto;
+import com.example.demo.storage.StorageBackend;
+
+/**
+ * The request-side half of a photo upload streams the multipart body to a staged file;
+ * the whole photo must never be held on the heap, however large it is.
+ */
+class ProfilePhotoStagingTest {
+
+    private final ProfilePhotoPipeline pipeline = new ProfilePhotoPipeline(
+            mock(StorageBackend.class),
+            new PhotoTranscoder(40_000_000, 0.85f),
+            mock(PhotoObjectRegistry.class),
+            mock(ProfileRepository.class),
+            mock(PhotoDeleteOutboxRepository.class),
+            mock(ProfileCache.class),
+            mock(PlatformTransactionManager.class),
+            uploadExecutor(),
+            mock(ThreadPoolTaskExecutor.class),
+            3,
+            Duration.ofMillis(500));
+
+    @BeforeEach
+    void startTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void endTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void stagingAllocatesAFractionOfThePhotoSize() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("photo", "photo.jpg", "image/jpeg", noiseJpeg(2400, 1800));
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // The first run loads the ImageIO plugins, which allocate once per JVM
+        Files.delete(pipeline.stage(photo).file());
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        StagedPhoto staged = pipeline.stage(photo);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        try {
+            assertThat(Files.size(staged.file())).isEqualTo(photo.getSize());
+            assertThat(allocated).isLessThan(256 * 1024).isLessThan(photo.getSize() / 8);
+        } finally {
+            Files.delete(staged.file());
+        }
+    }
+
+    private static ThreadPoolTaskExecutor uploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        return executor;
+    }
+
+    // Random pixels barely compress, so the JPEG is a few megabytes
+    private static byte[] noiseJpeg(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", bytes);
+        return bytes.toByteArray();
+    }
+}